@@ -0,0 +1,88 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import domain.POOBvsZombies;
+import domain.Plant;
+import domain.Zombie;
+
+/**
+ * Consultas y cambios del tablero sobre una partida a medio jugar: plantas en las
+ * primeras columnas y varios zombies por fila.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    private POOBvsZombies game;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        game = new POOBvsZombies(5, "Plants", new ArrayList<>(Arrays.asList("Sunflower", "Peashooter")), 1000,
+                "Zombies", 1000, new ArrayList<>(Arrays.asList("Basic", "Conehead")));
+        for (int row = 0; row < 5; row++) {
+            game.addEntity(row, 0, "LownMover");
+            for (int col = 1; col <= 4; col++) {
+                game.addEntity(row, col, col % 2 == 0 ? "Peashooter" : "Sunflower");
+            }
+            for (int i = 0; i < 4; i++) {
+                game.addEntity(row, 9, "Basic");
+            }
+        }
+    }
+
+    @Benchmark
+    public void addEntityAndDelete() {
+        game.addEntity(2, 7, "Peashooter");
+        game.deleteEntity(2, 7);
+    }
+
+    @Benchmark
+    public String getEntity() {
+        return game.getEntity(3, 4);
+    }
+
+    @Benchmark
+    public int getFirstPlantInRow() {
+        return game.getFirstPlantInRow(1);
+    }
+
+    @Benchmark
+    public Zombie getFirstZombieInRow() {
+        return game.getFirstZombieInRow(1);
+    }
+
+    // Incluye la suma del valor de plantas y zombies del tablero (antes calculateEntitiesValue)
+    @Benchmark
+    public int calculateScores() {
+        game.calculateScores();
+        return game.getPlayerOne().getScore();
+    }
+
+    @Benchmark
+    public Zombie createZombieInstance() {
+        return game.createZombieInstance("Conehead");
+    }
+
+    @Benchmark
+    public Plant createPlantInstance() {
+        return game.createPlantInstance("PotatoMine");
+    }
+}
@@ -0,0 +1,53 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import domain.MatchResult;
+import domain.MatchRunner;
+
+/**
+ * Partida MachineVsMachine completa sin interfaz. Además de partidas por segundo
+ * reporta el contador ticks, es decir ticks del SimulationEngine por segundo.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchBenchmark {
+    private static final long SEED = 42L; // Misma partida en cada invocación
+
+    private final MatchRunner runner = new MatchRunner(1, 3, 50, 50);
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Ticks {
+        public long ticks;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            ticks = 0;
+        }
+    }
+
+    @Benchmark
+    public MatchResult fullMatch(Ticks counter) {
+        MatchResult result = runner.run(SEED);
+        counter.ticks += result.getTicks();
+        return result;
+    }
+}
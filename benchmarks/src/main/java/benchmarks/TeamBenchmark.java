@@ -0,0 +1,63 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import domain.POOBvsZombies;
+import domain.Resource;
+import domain.Team;
+
+/**
+ * Economía de un equipo con varios hilos comprando y recibiendo recursos a la vez,
+ * como el bucle de simulación, los jugadores máquina y la interfaz.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TeamBenchmark {
+    private Team team;
+    private final Resource sun = new Resource(Resource.SOL);
+
+    @Setup
+    public void setUp() {
+        // Saldo grande para que ninguna compra falle durante la medición
+        team = new POOBvsZombies(5, 0, 1_000_000_000, 0).getPlayerOne().getTeam();
+    }
+
+    @Benchmark
+    public void addAndDeduct() {
+        team.addResource(sun);
+        team.deductResource(sun.getValue());
+    }
+
+    // Compra con lazo CAS, sin excepción cuando no alcanza
+    @Benchmark
+    public boolean addAndTryDeduct() {
+        team.add(sun.getValue());
+        return team.tryDeduct(sun.getValue());
+    }
+
+    // Referencia: la misma compra bajo el monitor del equipo
+    @Benchmark
+    public void addAndDeductLocked() {
+        synchronized (team) {
+            team.addResource(sun);
+            team.deductResource(sun.getValue());
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Tablero de una partida. Las plantas están en un arreglo plano indexado
+ * row * columns + col, las podadoras en la columna 0 de cada fila y los zombies
+ * de cada fila en una lista ordenada por posición (el más cercano a la casa primero).
+ * La última columna es la entrada de los zombies y no admite plantas.
+ * Se modifica bajo el candado de {@link POOBvsZombies}; solo el frente de cada fila
+ * (planta más adelantada y zombie más cercano a la casa) se puede leer sin candado.
+ */
+public class Board {
+    private final int rows;
+    private final int columns;
+    private final Plant[] plants;
+    private final Lownmover[] lawnmowers;
+    private final List<List<Zombie>> zombies;
+    // Frente de cada fila, mantenido en cada cambio para consultas O(1) sin candado
+    private final AtomicIntegerArray firstPlantColumns;
+    private final AtomicReferenceArray<Zombie> frontZombies;
+
+    public Board(int rows, int columns) {
+        if (rows <= 0 || columns < 2) {
+            throw new IllegalArgumentException("Invalid board size: " + rows + "x" + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.plants = new Plant[rows * columns];
+        this.lawnmowers = new Lownmover[rows];
+        this.zombies = new ArrayList<>(rows);
+        this.firstPlantColumns = new AtomicIntegerArray(rows);
+        this.frontZombies = new AtomicReferenceArray<>(rows);
+        for (int row = 0; row < rows; row++) {
+            zombies.add(new ArrayList<>());
+            firstPlantColumns.set(row, -1);
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    // Columna por la que entran los zombies
+    public int getEntryColumn() {
+        return columns - 1;
+    }
+
+    public boolean isInside(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < columns;
+    }
+
+    public Plant getPlant(int row, int col) {
+        if (!isInside(row, col) || col == getEntryColumn()) {
+            return null;
+        }
+        return plants[row * columns + col];
+    }
+
+    public void setPlant(int row, int col, Plant plant) {
+        plants[row * columns + col] = plant;
+        if (plant == null) {
+            updateFirstPlantColumn(row, col);
+        } else if (col > firstPlantColumns.get(row)) {
+            firstPlantColumns.set(row, col);
+        }
+    }
+
+    // Quita la planta de la celda y la retorna, o null si estaba vacía
+    public Plant removePlant(int row, int col) {
+        Plant plant = getPlant(row, col);
+        if (plant != null) {
+            plants[row * columns + col] = null;
+            updateFirstPlantColumn(row, col);
+        }
+        return plant;
+    }
+
+    /**
+     * Columna de la planta más cercana a la entrada en la fila, o -1 si no hay.
+     */
+    public int getFirstPlantColumn(int row) {
+        return firstPlantColumns.get(row);
+    }
+
+    // Si se vació la columna del frente, se busca la siguiente planta hacia la casa
+    private void updateFirstPlantColumn(int row, int emptiedCol) {
+        if (emptiedCol != firstPlantColumns.get(row)) {
+            return;
+        }
+        int col = emptiedCol - 1;
+        while (col >= 0 && plants[row * columns + col] == null) {
+            col--;
+        }
+        firstPlantColumns.set(row, col);
+    }
+
+    public Lownmover getLawnmower(int row) {
+        return lawnmowers[row];
+    }
+
+    public void setLawnmower(int row, Lownmover lawnmower) {
+        lawnmowers[row] = lawnmower;
+    }
+
+    // Retira la podadora de la fila (al usarse) y la retorna, o null si no había
+    public Lownmover takeLawnmower(int row) {
+        Lownmover lawnmower = lawnmowers[row];
+        lawnmowers[row] = null;
+        return lawnmower;
+    }
+
+    /**
+     * Zombies de la fila ordenados por x ascendente. Quien mueva zombies debe
+     * llamar a {@link #sortZombies(int)} después.
+     */
+    public List<Zombie> getZombies(int row) {
+        return zombies.get(row);
+    }
+
+    // Inserta manteniendo el orden; a igual x queda detrás de los que ya estaban
+    public void addZombie(int row, Zombie zombie) {
+        List<Zombie> list = zombies.get(row);
+        int low = 0;
+        int high = list.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (list.get(mid).getFixedX() <= zombie.getFixedX()) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        list.add(low, zombie);
+        updateFrontZombie(row);
+    }
+
+    /**
+     * Zombie vivo más cercano a la casa, o null. Lectura O(1) sin candado; el
+     * frente se actualiza al agregar, mover, eliminar o matar zombies.
+     */
+    public Zombie getFrontZombie(int row) {
+        return frontZombies.get(row);
+    }
+
+    // Recalcula el frente de la fila; se llama tras cualquier cambio en sus zombies
+    public void updateFrontZombie(int row) {
+        Zombie front = null;
+        for (Zombie zombie : zombies.get(row)) {
+            if (!zombie.isDead()) {
+                front = zombie;
+                break;
+            }
+        }
+        frontZombies.set(row, front);
+    }
+
+    public void clearZombies(int row) {
+        zombies.get(row).clear();
+        frontZombies.set(row, null);
+    }
+
+    /**
+     * Primer zombie vivo cuyo frente (x + 1) está pasando la posición dada, o null.
+     * Búsqueda binaria sobre la fila ordenada.
+     */
+    public Zombie getFirstZombieAhead(int row, double x) {
+        List<Zombie> list = zombies.get(row);
+        int threshold = (int) Math.floor((x - 1) * Entity.SUBCELLS);
+        int low = 0;
+        int high = list.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (list.get(mid).getFixedX() <= threshold) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < list.size(); i++) {
+            if (!list.get(i).isDead()) {
+                return list.get(i);
+            }
+        }
+        return null;
+    }
+
+    // Indica si algún zombie vivo de la fila está más allá de la columna
+    public boolean hasZombieBeyond(int row, int col) {
+        Zombie front = frontZombies.get(row);
+        if (front == null) {
+            return false;
+        }
+        if (front.getX() > col) {
+            return true;
+        }
+        List<Zombie> list = zombies.get(row);
+        for (int i = list.size() - 1; i >= 0; i--) {
+            Zombie zombie = list.get(i);
+            if (zombie.getX() <= col) {
+                return false;
+            }
+            if (!zombie.isDead()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reordena la fila tras mover sus zombies. Como casi no cambian de orden,
+     * una inserción directa es lineal en la práctica.
+     */
+    public void sortZombies(int row) {
+        List<Zombie> list = zombies.get(row);
+        for (int i = 1; i < list.size(); i++) {
+            Zombie zombie = list.get(i);
+            int j = i - 1;
+            while (j >= 0 && list.get(j).getFixedX() > zombie.getFixedX()) {
+                list.set(j + 1, list.get(j));
+                j--;
+            }
+            list.set(j + 1, zombie);
+        }
+        updateFrontZombie(row);
+    }
+
+    // Suma del costo de las plantas del tablero
+    public int getPlantsValue() {
+        int total = 0;
+        for (Plant plant : plants) {
+            if (plant != null) {
+                total += plant.getCost();
+            }
+        }
+        return total;
+    }
+
+    // Suma del costo de los zombies vivos del tablero
+    public int getZombiesValue() {
+        int total = 0;
+        for (List<Zombie> row : zombies) {
+            for (Zombie zombie : row) {
+                if (!zombie.isDead()) {
+                    total += zombie.getCost();
+                }
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,118 @@
+package domain;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Instantánea del tablero tomada por el {@link SimulationEngine} al final de un tick.
+ */
+public class BoardSnapshot {
+    private final long tick;
+    private final double time;
+    private final long tickNanos;
+    private final String phaseMessage;
+    private final double phaseRemaining;
+    private final List<EntitySnapshot> plants;
+    private final List<EntitySnapshot> zombies;
+    private final List<EntitySnapshot> projectiles;
+    private final List<EntitySnapshot> resources;
+    private final boolean[] lawnmowers;
+    private final int suns;
+    private final int brains;
+    private final int plantsScore;
+    private final int zombiesScore;
+    private final boolean gameOver;
+    private final String winnerMessage;
+
+    public BoardSnapshot(long tick, double time, long tickNanos, String phaseMessage, double phaseRemaining,
+            List<EntitySnapshot> plants, List<EntitySnapshot> zombies, List<EntitySnapshot> projectiles, List<EntitySnapshot> resources, boolean[] lawnmowers,
+            int suns, int brains, int plantsScore, int zombiesScore, boolean gameOver, String winnerMessage) {
+        this.tick = tick;
+        this.time = time;
+        this.tickNanos = tickNanos;
+        this.phaseMessage = phaseMessage;
+        this.phaseRemaining = phaseRemaining;
+        this.plants = Collections.unmodifiableList(plants);
+        this.zombies = Collections.unmodifiableList(zombies);
+        this.projectiles = Collections.unmodifiableList(projectiles);
+        this.resources = Collections.unmodifiableList(resources);
+        this.lawnmowers = lawnmowers;
+        this.suns = suns;
+        this.brains = brains;
+        this.plantsScore = plantsScore;
+        this.zombiesScore = zombiesScore;
+        this.gameOver = gameOver;
+        this.winnerMessage = winnerMessage;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    // Tiempo simulado en segundos
+    public double getTime() {
+        return time;
+    }
+
+    // Instante (System.nanoTime) en que terminó el tick, para interpolar el dibujo
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    // Mensaje de la fase en curso ("Planting time", "Horda 2", ...)
+    public String getPhaseMessage() {
+        return phaseMessage;
+    }
+
+    public double getPhaseRemaining() {
+        return phaseRemaining;
+    }
+
+    public List<EntitySnapshot> getPlants() {
+        return plants;
+    }
+
+    public List<EntitySnapshot> getZombies() {
+        return zombies;
+    }
+
+    public List<EntitySnapshot> getProjectiles() {
+        return projectiles;
+    }
+
+    public List<EntitySnapshot> getResources() {
+        return resources;
+    }
+
+    public int getRows() {
+        return lawnmowers.length;
+    }
+
+    public boolean hasLawnmower(int row) {
+        return lawnmowers[row];
+    }
+
+    public int getSuns() {
+        return suns;
+    }
+
+    public int getBrains() {
+        return brains;
+    }
+
+    public int getPlantsScore() {
+        return plantsScore;
+    }
+
+    public int getZombiesScore() {
+        return zombiesScore;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public String getWinnerMessage() {
+        return winnerMessage;
+    }
+}
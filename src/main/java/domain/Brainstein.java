@@ -8,9 +8,15 @@ public class Brainstein extends Zombie implements ResourceGenerator {
         super(HEALTH, COST, 0);
     }
 
+    // Brainstein no avanza, solo genera cerebros desde la entrada
     @Override
-    public Resource generateResource(int lane) {
+    public double getSpeed() {
+        return 0;
+    }
+
+    @Override
+    public Resource generateResource(ResourcePool pool, int lane) {
         // Genera un cerebro de 25 en la posición actual
-        return new Resource(Resource.BRAIN, 25);
+        return pool.obtain(Resource.BRAIN, 25);
     }
 }
@@ -0,0 +1,460 @@
+package domain;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formato binario de los cambios de una partida entre dos instantáneas, para
+ * clientes remotos y espectadores. Todo número va como varint (7 bits por byte) y
+ * los que pueden ser negativos en zigzag, así que los valores pequeños ocupan un byte.
+ *
+ * <p>Paquete: tick, distancia en ticks a la instantánea base (0 si el paquete trae
+ * el tablero completo), banderas, tiempo y fase, contadores que cambiaron y luego
+ * tres listas ordenadas por identificador: entidades nuevas, entidades que
+ * cambiaron y entidades que salieron. Los identificadores se escriben como la
+ * diferencia con el anterior de la lista.
+ *
+ * <p>Las posiciones van en el mismo punto fijo que el dominio (Entity.SUBCELLS) y
+ * no como la posición nueva sino como la corrección sobre la que predice la
+ * velocidad de la base: un zombie que siguió caminando no envía nada. Como ambos
+ * lados predicen con la misma aritmética entera, el cliente queda exacto.
+ */
+final class DeltaProtocol {
+    // Grupos de BoardSnapshot
+    private static final int PLANTS = 0;
+    private static final int ZOMBIES = 1;
+    private static final int PROJECTILES = 2;
+    private static final int RESOURCES = 3;
+
+    // Banderas de la cabecera
+    private static final int PHASE = 1; // Sigue el mensaje de la fase
+    private static final int LAWNMOWERS = 1 << 1; // Sigue la máscara de filas con podadora
+    private static final int GAME_OVER = 1 << 2;
+    private static final int WINNER = 1 << 3; // Sigue el mensaje del ganador
+    private static final int SUNS = 1 << 4; // Siguen las diferencias de cada contador marcado
+    private static final int BRAINS = 1 << 5;
+    private static final int PLANTS_SCORE = 1 << 6;
+    private static final int ZOMBIES_SCORE = 1 << 7;
+
+    // Campos de una entidad que cambió, en los 4 bits bajos junto a su identificador
+    private static final int X = 1;
+    private static final int VELOCITY = 1 << 1;
+    private static final int HEALTH = 1 << 2;
+    private static final int OTHER = 1 << 3; // Fila, columna y armado, completos
+    private static final int FIELD_BITS = 4;
+
+    // Nombres conocidos; se envía su índice + 1, o 0 seguido del texto
+    private static final List<String> NAMES = List.of("Sunflower", "Peashooter", "WallNut", "PotatoMine",
+            "ECIPlant", "Basic", "Conehead", "BucketHead", "Brainstein", "ECIZombie", "Pea", Resource.SOL,
+            Resource.BIG_SOL, Resource.BRAIN, Resource.THREE_BIG_SOL);
+
+    private static final double MICROS = 1_000_000;
+
+    private DeltaProtocol() {
+    }
+
+    // Entidad de una instantánea con su posición en punto fijo
+    private static class Item {
+        private final int group;
+        private final EntitySnapshot entity;
+        private final long x;
+        private final long velocity;
+
+        private Item(int group, EntitySnapshot entity) {
+            this.group = group;
+            this.entity = entity;
+            this.x = Math.round(entity.getX() * Entity.SUBCELLS);
+            this.velocity = Math.round(entity.getVelocity() * Entity.SUBCELLS);
+        }
+    }
+
+    /**
+     * Codifica lo que cambió de baseline (null para enviar todo) a current.
+     */
+    static byte[] encode(BoardSnapshot baseline, BoardSnapshot current) {
+        Writer out = new Writer();
+        long gap = baseline == null ? 0 : current.getTick() - baseline.getTick();
+        if (baseline != null && gap <= 0) {
+            throw new IllegalArgumentException("The baseline must be older than the snapshot");
+        }
+        out.putLong(current.getTick());
+        out.putLong(gap);
+
+        int flags = current.isGameOver() ? GAME_OVER : 0;
+        if (baseline == null || !current.getPhaseMessage().equals(baseline.getPhaseMessage())) {
+            flags |= PHASE;
+        }
+        long lawnmowers = lawnmowerMask(current);
+        if (baseline == null || lawnmowers != lawnmowerMask(baseline)) {
+            flags |= LAWNMOWERS;
+        }
+        if (baseline == null || !equal(current.getWinnerMessage(), baseline.getWinnerMessage())) {
+            flags |= WINNER;
+        }
+        int[] counters = counters(current);
+        int[] before = baseline == null ? new int[counters.length] : counters(baseline);
+        for (int i = 0; i < counters.length; i++) {
+            if (counters[i] != before[i]) {
+                flags |= SUNS << i;
+            }
+        }
+        out.putLong(flags);
+        // Tiempo y fase restante como corrección en microsegundos sobre lo esperado
+        double expected = baseline == null ? 0 : baseline.getTime() + gap * SimulationEngine.FIXED_STEP;
+        out.putSigned(Math.round((current.getTime() - expected) * MICROS));
+        expected = baseline == null ? 0 : baseline.getPhaseRemaining() - gap * SimulationEngine.FIXED_STEP;
+        out.putSigned(Math.round((current.getPhaseRemaining() - expected) * MICROS));
+        if ((flags & PHASE) != 0) {
+            out.putString(current.getPhaseMessage());
+        }
+        if ((flags & LAWNMOWERS) != 0) {
+            out.putLong(current.getRows());
+            out.putLong(lawnmowers);
+        }
+        if ((flags & WINNER) != 0) {
+            out.putString(current.getWinnerMessage());
+        }
+        for (int i = 0; i < counters.length; i++) {
+            if ((flags & (SUNS << i)) != 0) {
+                out.putSigned((long) counters[i] - before[i]);
+            }
+        }
+
+        Map<Integer, Item> previous = baseline == null ? new HashMap<>() : items(baseline);
+        List<Item> spawned = new ArrayList<>();
+        List<Item> updated = new ArrayList<>();
+        for (Item item : sorted(items(current))) {
+            // Los identificadores no se reutilizan: un id nuevo es una entidad nueva
+            Item old = previous.remove(item.entity.getId());
+            if (old == null) {
+                spawned.add(item);
+            } else {
+                updated.add(item);
+                updated.add(old);
+            }
+        }
+
+        out.putLong(spawned.size());
+        int lastId = 0;
+        for (Item item : spawned) {
+            EntitySnapshot entity = item.entity;
+            out.putLong(((long) (entity.getId() - lastId) << 3) | (entity.isActive() ? 4 : 0) | item.group);
+            lastId = entity.getId();
+            int name = NAMES.indexOf(entity.getName());
+            out.putLong(name + 1);
+            if (name < 0) {
+                out.putString(entity.getName());
+            }
+            out.putLong(entity.getRow());
+            out.putLong(entity.getCol());
+            out.putSigned(item.x);
+            out.putSigned(item.velocity);
+            out.putSigned(entity.getHealth());
+        }
+
+        // Solo las que cambiaron; updated tiene pares (actual, base)
+        Writer changes = new Writer();
+        int changed = 0;
+        lastId = 0;
+        for (int i = 0; i < updated.size(); i += 2) {
+            Item item = updated.get(i);
+            Item old = updated.get(i + 1);
+            EntitySnapshot entity = item.entity;
+            long correction = item.x - predictX(old, gap);
+            int fields = (correction != 0 ? X : 0) | (item.velocity != old.velocity ? VELOCITY : 0)
+                    | (entity.getHealth() != old.entity.getHealth() ? HEALTH : 0)
+                    | (entity.getRow() != old.entity.getRow() || entity.getCol() != old.entity.getCol()
+                            || entity.isActive() != old.entity.isActive() ? OTHER : 0);
+            if (fields == 0) {
+                continue;
+            }
+            changed++;
+            changes.putLong(((long) (entity.getId() - lastId) << FIELD_BITS) | fields);
+            lastId = entity.getId();
+            if ((fields & X) != 0) {
+                changes.putSigned(correction);
+            }
+            if ((fields & VELOCITY) != 0) {
+                changes.putSigned(item.velocity - old.velocity);
+            }
+            if ((fields & HEALTH) != 0) {
+                changes.putSigned((long) entity.getHealth() - old.entity.getHealth());
+            }
+            if ((fields & OTHER) != 0) {
+                changes.putLong(entity.getRow());
+                changes.putLong(entity.getCol());
+                changes.putLong(entity.isActive() ? 1 : 0);
+            }
+        }
+        out.putLong(changed);
+        out.putBytes(changes);
+
+        List<Integer> removed = new ArrayList<>(previous.keySet());
+        removed.sort(null);
+        out.putLong(removed.size());
+        lastId = 0;
+        for (int id : removed) {
+            out.putLong(id - lastId);
+            lastId = id;
+        }
+        return out.toByteArray();
+    }
+
+    // Tick del paquete y de su base (-1 si trae todo), sin consumirlo
+    static long[] peekTicks(ByteBuffer in) throws IOException {
+        ByteBuffer copy = in.duplicate();
+        long tick = getLong(copy);
+        long gap = getLong(copy);
+        return new long[] { tick, gap == 0 ? -1 : tick - gap };
+    }
+
+    /**
+     * Aplica el paquete sobre baseline, que debe ser la instantánea del tick base
+     * que indica el paquete (null si trae el tablero completo).
+     */
+    static BoardSnapshot decode(ByteBuffer in, BoardSnapshot baseline) throws IOException {
+        try {
+            long tick = getLong(in);
+            long gap = getLong(in);
+            if ((gap == 0) != (baseline == null) || (baseline != null && baseline.getTick() != tick - gap)) {
+                throw new IOException("The packet does not match the baseline");
+            }
+            int flags = (int) getLong(in);
+            double expected = baseline == null ? 0 : baseline.getTime() + gap * SimulationEngine.FIXED_STEP;
+            double time = expected + getSigned(in) / MICROS;
+            expected = baseline == null ? 0 : baseline.getPhaseRemaining() - gap * SimulationEngine.FIXED_STEP;
+            double phaseRemaining = expected + getSigned(in) / MICROS;
+            String phaseMessage = (flags & PHASE) != 0 ? getString(in) : baseline.getPhaseMessage();
+            boolean[] lawnmowers;
+            if ((flags & LAWNMOWERS) != 0) {
+                long rows = getLong(in);
+                if (rows < 0 || rows > Long.SIZE) {
+                    throw new IOException("Invalid row count " + rows);
+                }
+                lawnmowers = new boolean[(int) rows];
+                long mask = getLong(in);
+                for (int row = 0; row < lawnmowers.length; row++) {
+                    lawnmowers[row] = (mask & (1L << row)) != 0;
+                }
+            } else {
+                lawnmowers = new boolean[baseline.getRows()];
+                for (int row = 0; row < lawnmowers.length; row++) {
+                    lawnmowers[row] = baseline.hasLawnmower(row);
+                }
+            }
+            String winnerMessage = (flags & WINNER) != 0 ? getString(in) : baseline.getWinnerMessage();
+            int[] counters = baseline == null ? new int[4] : counters(baseline);
+            for (int i = 0; i < counters.length; i++) {
+                if ((flags & (SUNS << i)) != 0) {
+                    counters[i] += (int) getSigned(in);
+                }
+            }
+
+            Map<Integer, Item> entities = baseline == null ? new HashMap<>() : items(baseline);
+            Map<Integer, Item> result = new HashMap<>();
+            // Las que no cambian siguen donde las lleva su velocidad
+            for (Item item : entities.values()) {
+                result.put(item.entity.getId(), moved(item, item.entity, predictX(item, gap), item.velocity));
+            }
+            long count = getLong(in);
+            int id = 0;
+            for (long i = 0; i < count; i++) {
+                long header = getLong(in);
+                id += (int) (header >>> 3);
+                int group = (int) (header & 3);
+                int name = (int) getLong(in);
+                String type = name == 0 ? getString(in) : NAMES.get(name - 1);
+                int row = (int) getLong(in);
+                int col = (int) getLong(in);
+                long x = getSigned(in);
+                long velocity = getSigned(in);
+                int health = (int) getSigned(in);
+                EntitySnapshot entity = new EntitySnapshot(id, type, row, col, (double) x / Entity.SUBCELLS,
+                        (double) velocity / Entity.SUBCELLS, health, (header & 4) != 0);
+                result.put(id, new Item(group, entity));
+            }
+            count = getLong(in);
+            id = 0;
+            for (long i = 0; i < count; i++) {
+                long header = getLong(in);
+                id += (int) (header >>> FIELD_BITS);
+                int fields = (int) (header & ((1 << FIELD_BITS) - 1));
+                Item old = entities.get(id);
+                if (old == null) {
+                    throw new IOException("Unknown entity " + id);
+                }
+                long x = predictX(old, gap) + ((fields & X) != 0 ? getSigned(in) : 0);
+                long velocity = old.velocity + ((fields & VELOCITY) != 0 ? getSigned(in) : 0);
+                EntitySnapshot entity = old.entity;
+                int health = entity.getHealth() + ((fields & HEALTH) != 0 ? (int) getSigned(in) : 0);
+                int row = entity.getRow();
+                int col = entity.getCol();
+                boolean active = entity.isActive();
+                if ((fields & OTHER) != 0) {
+                    row = (int) getLong(in);
+                    col = (int) getLong(in);
+                    active = getLong(in) != 0;
+                }
+                result.put(id, moved(old, new EntitySnapshot(id, entity.getName(), row, col, 0, 0, health, active),
+                        x, velocity));
+            }
+            count = getLong(in);
+            id = 0;
+            for (long i = 0; i < count; i++) {
+                id += (int) getLong(in);
+                result.remove(id);
+            }
+
+            List<List<EntitySnapshot>> groups = List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                    new ArrayList<>());
+            for (Item item : sorted(result)) {
+                groups.get(item.group).add(item.entity);
+            }
+            return new BoardSnapshot(tick, time, System.nanoTime(), phaseMessage, phaseRemaining, groups.get(PLANTS),
+                    groups.get(ZOMBIES), groups.get(PROJECTILES), groups.get(RESOURCES), lawnmowers, counters[0],
+                    counters[1], counters[2], counters[3], (flags & GAME_OVER) != 0, winnerMessage);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NullPointerException e) {
+            // p. ej. un paquete sin base que no trae el mensaje de fase
+            throw new IOException("Truncated or corrupt state packet", e);
+        }
+    }
+
+    // Posición que tendría la entidad gap ticks después si no cambió de velocidad
+    private static long predictX(Item item, long gap) {
+        return item.x + gap * Math.round(item.velocity * SimulationEngine.FIXED_STEP);
+    }
+
+    private static Item moved(Item item, EntitySnapshot entity, long x, long velocity) {
+        return new Item(item.group, new EntitySnapshot(entity.getId(), entity.getName(), entity.getRow(),
+                entity.getCol(), (double) x / Entity.SUBCELLS, (double) velocity / Entity.SUBCELLS,
+                entity.getHealth(), entity.isActive()));
+    }
+
+    private static Map<Integer, Item> items(BoardSnapshot snapshot) {
+        Map<Integer, Item> items = new HashMap<>();
+        List<List<EntitySnapshot>> groups = List.of(snapshot.getPlants(), snapshot.getZombies(),
+                snapshot.getProjectiles(), snapshot.getResources());
+        for (int group = 0; group < groups.size(); group++) {
+            for (EntitySnapshot entity : groups.get(group)) {
+                items.put(entity.getId(), new Item(group, entity));
+            }
+        }
+        return items;
+    }
+
+    private static List<Item> sorted(Map<Integer, Item> items) {
+        Item[] array = items.values().toArray(new Item[0]);
+        Arrays.sort(array, (a, b) -> Integer.compare(a.entity.getId(), b.entity.getId()));
+        return Arrays.asList(array);
+    }
+
+    private static int[] counters(BoardSnapshot snapshot) {
+        return new int[] { snapshot.getSuns(), snapshot.getBrains(), snapshot.getPlantsScore(),
+                snapshot.getZombiesScore() };
+    }
+
+    private static long lawnmowerMask(BoardSnapshot snapshot) {
+        long mask = 0;
+        for (int row = 0; row < snapshot.getRows(); row++) {
+            if (snapshot.hasLawnmower(row)) {
+                mask |= 1L << row;
+            }
+        }
+        return mask;
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    static long getLong(ByteBuffer in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint too long");
+    }
+
+    static long getSigned(ByteBuffer in) throws IOException {
+        long value = getLong(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static String getString(ByteBuffer in) throws IOException {
+        long length = getLong(in) - 1;
+        if (length == -1) {
+            return null;
+        }
+        // La longitud viene del otro extremo: no se reserva más de lo que trae el paquete
+        if (length < 0 || length > in.remaining()) {
+            throw new IOException("String length " + length + " exceeds the packet");
+        }
+        byte[] bytes = new byte[(int) length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Arreglo de bytes que crece al doble; escribe varints y textos.
+     */
+    static class Writer {
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        private void ensure(int more) {
+            if (size + more > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + more));
+            }
+        }
+
+        void putLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void putSigned(long value) {
+            putLong((value << 1) ^ (value >> 63));
+        }
+
+        void putString(String text) {
+            if (text == null) {
+                putLong(0);
+                return;
+            }
+            byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+            putLong(utf8.length + 1);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+
+        void putBytes(Writer other) {
+            ensure(other.size);
+            System.arraycopy(other.bytes, 0, bytes, size, other.size);
+            size += other.size;
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
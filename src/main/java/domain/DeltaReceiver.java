@@ -0,0 +1,46 @@
+package domain;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Lado del cliente de la sincronización: reconstruye las instantáneas de la
+ * partida a partir de los paquetes de un {@link DeltaSender}. Guarda las últimas
+ * recibidas porque cada paquete se aplica sobre la que el cliente confirmó, que
+ * puede no ser la más reciente. Tras recibir un paquete se confirma getAck().
+ */
+public class DeltaReceiver {
+    private final BoardSnapshot[] received = new BoardSnapshot[DeltaSender.HISTORY];
+    private BoardSnapshot latest;
+
+    /**
+     * Aplica el paquete y retorna la instantánea resultante, o null si llegó tarde y
+     * su base ya no está (el siguiente paquete la reemplaza).
+     */
+    public synchronized BoardSnapshot receive(ByteBuffer packet) throws IOException {
+        long[] ticks = DeltaProtocol.peekTicks(packet);
+        BoardSnapshot baseline = null;
+        if (ticks[1] >= 0) {
+            baseline = received[(int) (ticks[1] % DeltaSender.HISTORY)];
+            if (baseline == null || baseline.getTick() != ticks[1]) {
+                return null;
+            }
+        }
+        BoardSnapshot snapshot = DeltaProtocol.decode(packet, baseline);
+        received[(int) (snapshot.getTick() % DeltaSender.HISTORY)] = snapshot;
+        if (latest == null || snapshot.getTick() > latest.getTick()) {
+            latest = snapshot;
+        }
+        return snapshot;
+    }
+
+    // Instantánea más reciente recibida, o null
+    public synchronized BoardSnapshot getLatest() {
+        return latest;
+    }
+
+    // Tick que se debe confirmar al servidor, o -1 si aún no llegó nada
+    public synchronized long getAck() {
+        return latest == null ? -1 : latest.getTick();
+    }
+}
@@ -0,0 +1,58 @@
+package domain;
+
+/**
+ * Lado del servidor de la sincronización de un cliente remoto. Cada paquete lleva
+ * los cambios desde la última instantánea que el cliente confirmó con
+ * {@link #ack}, no desde la última enviada: si un paquete se pierde, el siguiente
+ * igual se puede aplicar, y sin confirmaciones los paquetes crecen pero nunca se
+ * rompe la copia del cliente. El formato está en {@link DeltaProtocol}.
+ */
+public class DeltaSender {
+    // Instantáneas enviadas que se guardan a la espera de su confirmación
+    public static final int HISTORY = 64;
+
+    private final BoardSnapshot[] sent = new BoardSnapshot[HISTORY];
+    private BoardSnapshot acked;
+    private long packets;
+    private long bytes;
+
+    /**
+     * Codifica el paquete de la instantánea. Si la base confirmada quedó a más de
+     * HISTORY ticks se envía el tablero completo.
+     */
+    public synchronized byte[] encode(BoardSnapshot snapshot) {
+        BoardSnapshot baseline = acked;
+        if (baseline != null && snapshot.getTick() - baseline.getTick() >= HISTORY) {
+            baseline = null;
+        }
+        if (baseline != null && baseline.getTick() == snapshot.getTick()) {
+            baseline = null; // Nada nuevo respecto a la base: se reenvía completo
+        }
+        byte[] packet = DeltaProtocol.encode(baseline, snapshot);
+        sent[(int) (snapshot.getTick() % HISTORY)] = snapshot;
+        packets++;
+        bytes += packet.length;
+        return packet;
+    }
+
+    // El cliente ya aplicó el paquete de ese tick; confirmaciones viejas se ignoran
+    public synchronized void ack(long tick) {
+        BoardSnapshot snapshot = sent[(int) (tick % HISTORY)];
+        if (snapshot != null && snapshot.getTick() == tick && (acked == null || tick > acked.getTick())) {
+            acked = snapshot;
+        }
+    }
+
+    // Tick de la base que usa el siguiente paquete, o -1 si aún no hay
+    public synchronized long getAckedTick() {
+        return acked == null ? -1 : acked.getTick();
+    }
+
+    public synchronized long getPackets() {
+        return packets;
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+}
@@ -12,9 +12,9 @@ public class ECIPlant extends Sunflower {
     }
 
     @Override
-    public Resource generateResource(int lane) {
+    public Resource generateResource(ResourcePool pool, int lane) {
         // Genera un sol grande de 50
-        return new Resource(Resource.BIG_SOL, 50) ;
+        return pool.obtain(Resource.BIG_SOL, 50);
     }
 
     public boolean hasGeneratedExtraSuns() {
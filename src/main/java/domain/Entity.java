@@ -1,6 +1,9 @@
 package domain;
 
 public abstract class Entity {
+    public static final int SUBCELLS = 1 << 16; // Fracciones de columna en las posiciones de punto fijo
+
+    private int id;
     private int row;
     private int col;
     private String name;
@@ -11,6 +14,15 @@ public abstract class Entity {
         this.name = name;
     }
 
+    // Identificador asignado por la partida al colocar la entidad en el tablero
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
     public int getRow() {
         return row;
     }
@@ -25,4 +37,3 @@ public abstract class Entity {
 
     // Resto de la clase...
 }
-
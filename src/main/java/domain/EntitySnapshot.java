@@ -0,0 +1,63 @@
+package domain;
+
+/**
+ * Copia inmutable de una entidad del tablero en un instante de la simulación.
+ * La interfaz gráfica dibuja a partir de estas copias sin tocar el dominio.
+ */
+public class EntitySnapshot {
+    private final int id;
+    private final String name;
+    private final int row;
+    private final int col;
+    private final double x;
+    private final double velocity;
+    private final int health;
+    private final boolean active;
+
+    public EntitySnapshot(int id, String name, int row, int col, double x, double velocity, int health,
+            boolean active) {
+        this.id = id;
+        this.name = name;
+        this.row = row;
+        this.col = col;
+        this.x = x;
+        this.velocity = velocity;
+        this.health = health;
+        this.active = active;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getCol() {
+        return col;
+    }
+
+    // Posición horizontal en columnas (fraccionaria para zombies y proyectiles)
+    public double getX() {
+        return x;
+    }
+
+    // Columnas por segundo en el momento de la instantánea (0 si está quieta)
+    public double getVelocity() {
+        return velocity;
+    }
+
+    public int getHealth() {
+        return health;
+    }
+
+    // Para la PotatoMine indica si ya está armada
+    public boolean isActive() {
+        return active;
+    }
+}
@@ -0,0 +1,58 @@
+package domain;
+
+/**
+ * Reloj de la partida en tiempo real: decide cada cuánto tiempo de pared avanza un
+ * tick del SimulationEngine. Permite pausar, reanudar y cambiar la velocidad entre
+ * MIN_SCALE y MAX_SCALE. Todo lo demás (fases, hordas, generadores, recursos y
+ * jugadores máquina) avanza por ticks, así que respeta la pausa y la velocidad sin
+ * saber nada del reloj.
+ */
+public class GameClock {
+    public static final double MIN_SCALE = 0.5;
+    public static final double MAX_SCALE = 16;
+
+    private boolean paused;
+    private double scale = 1;
+
+    public synchronized void pause() {
+        paused = true;
+    }
+
+    public synchronized void resume() {
+        paused = false;
+        notifyAll();
+    }
+
+    public synchronized boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Multiplicador de velocidad: 2 juega el doble de rápido, 0.5 a la mitad.
+     */
+    public synchronized void setScale(double scale) {
+        if (!(scale >= MIN_SCALE && scale <= MAX_SCALE)) {
+            throw new IllegalArgumentException("Scale must be between " + MIN_SCALE + " and " + MAX_SCALE + ": " + scale);
+        }
+        this.scale = scale;
+    }
+
+    public synchronized double getScale() {
+        return scale;
+    }
+
+    // Nanosegundos de pared entre ticks a la velocidad actual
+    public synchronized long getStepNanos() {
+        return (long) (SimulationEngine.FIXED_STEP * 1_000_000_000L / scale);
+    }
+
+    // Bloquea mientras la partida está en pausa; true si tuvo que esperar
+    synchronized boolean awaitRunning() throws InterruptedException {
+        boolean waited = false;
+        while (paused) {
+            wait();
+            waited = true;
+        }
+        return waited;
+    }
+}
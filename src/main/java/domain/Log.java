@@ -1,30 +1,321 @@
 package domain;
 
-import java.io.FileWriter;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * Registro de errores asíncrono. record solo encola el error en un búfer acotado y
+ * retorna; un único hilo escritor los guarda en errors.log como líneas JSON con
+ * fecha, hilo y partida (semilla). Errores idénticos seguidos se escriben una sola
+ * vez con un contador de repeticiones, y cada traza completa aparece una sola vez
+ * por archivo: las siguientes solo llevan su identificador. El archivo rota por
+ * tamaño a errors.log.1, errors.log.2, ...
+ */
 public class Log {
     private static final Logger logger = Logger.getLogger(Log.class.getName());
 
-    // Método para registrar el error
+    public static final int BUFFER_SIZE = 1024;
+    public static final long MAX_FILE_BYTES = 1024 * 1024;
+    public static final int MAX_FILES = 5; // Archivo actual más los rotados
+    private static final long IDLE_MILLIS = 500; // Espera antes de escribir un error pendiente
+
+    private static final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(BUFFER_SIZE);
+    private static final AtomicLong submitted = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static volatile long completed;
+    private static final AtomicInteger flushers = new AtomicInteger(); // flush en curso, de cualquier hilo
+    private static volatile String path = "errors.log";
+    private static Thread writer;
+    private static boolean hookAdded;
+
+    private Log() {
+    }
+
+    // Método para registrar el error; no bloquea aunque el búfer esté lleno
     public static void record(Exception ex) {
-        try (FileWriter fileWriter = new FileWriter("errors.log", true); // 'true' para agregar al final del archivo
-             PrintWriter printWriter = new PrintWriter(fileWriter)) {
-            
-            // Escribir la información del error en el archivo
-            printWriter.println("ERROR: " + ex.getMessage());
-            printWriter.println("Stack Trace:");
-            for (StackTraceElement element : ex.getStackTrace()) {
-                printWriter.println("\t" + element);
+        record(ex, MatchContext.current());
+    }
+
+    // Igual, pero con la partida explícita, p. ej. desde la interfaz fuera de un tick
+    public static void record(Exception ex, MatchContext context) {
+        Entry entry = new Entry(System.currentTimeMillis(), Thread.currentThread().getName(),
+                context == null ? null : Long.toHexString(context.getSeed()), ex);
+        startWriter();
+        if (queue.offer(entry)) {
+            submitted.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Para la interfaz: registra con la partida si ya existe (game puede ser null).
+     * Una POOBvsZombiesException no se registra otra vez, ya lo hizo al crearse.
+     */
+    public static void record(Exception ex, POOBvsZombies game) {
+        if (!(ex instanceof POOBvsZombiesException)) {
+            record(ex, game != null ? game.getContext() : null);
+        }
+    }
+
+    // Cambia el archivo de destino; los errores ya encolados pueden ir a cualquiera de los dos
+    public static void setPath(String newPath) {
+        path = newPath;
+    }
+
+    public static String getPath() {
+        return path;
+    }
+
+    /**
+     * Espera, como mucho timeoutMillis, a que todo lo registrado hasta ahora esté
+     * escrito en disco.
+     */
+    public static boolean flush(long timeoutMillis) throws InterruptedException {
+        long target = submitted.get();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        flushers.incrementAndGet(); // El escritor deja de esperar repeticiones del error pendiente
+        try {
+            while (completed < target) {
+                if (System.currentTimeMillis() >= deadline) {
+                    return false;
+                }
+                startWriter(); // Por si el escritor murió con errores en la cola
+                Thread.sleep(5);
             }
-            printWriter.println("-----------------------------------");
-            
-        } catch (IOException e) {
-            logger.log(Level.SEVERE, "Failed to write to log file.", e);
+            return true;
+        } finally {
+            flushers.decrementAndGet();
         }
     }
-}
 
+    public static long getDropped() {
+        return dropped.get();
+    }
+
+    // Arranca el escritor, o uno nuevo si el anterior terminó por un error inesperado
+    private static synchronized void startWriter() {
+        if (writer != null && writer.isAlive()) {
+            return;
+        }
+        if (writer != null) {
+            logger.log(Level.SEVERE, "The log writer thread died; starting a new one.");
+        }
+        writer = new Thread(new LogWriter(), "poobvszombies-log");
+        writer.setDaemon(true);
+        writer.start();
+        if (hookAdded) {
+            return;
+        }
+        hookAdded = true;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                flush(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+    }
+
+    // Un error encolado; la traza se resume en un identificador para comparar repeticiones
+    private static final class Entry {
+        private final long time;
+        private final String thread;
+        private final String match;
+        private final String exception;
+        private final String message;
+        private final StackTraceElement[] stack;
+        private final String stackId;
+
+        private Entry(long time, String thread, String match, Exception ex) {
+            this.time = time;
+            this.thread = thread;
+            this.match = match;
+            this.exception = ex.getClass().getName();
+            this.message = ex.getMessage();
+            this.stack = ex.getStackTrace();
+            int hash = exception.hashCode();
+            for (StackTraceElement element : stack) {
+                hash = 31 * hash + element.hashCode();
+            }
+            this.stackId = String.format("%08x", hash);
+        }
+
+        private boolean sameAs(Entry other) {
+            return stackId.equals(other.stackId) && exception.equals(other.exception)
+                    && Objects.equals(message, other.message) && Objects.equals(match, other.match);
+        }
+    }
+
+    // Hilo escritor: agrupa errores idénticos seguidos y escribe cada grupo como una línea
+    private static final class LogWriter implements Runnable {
+        private Writer out;
+        private File file;
+        private long size;
+        private final Set<String> writtenStacks = new HashSet<>();
+        private Entry pending;
+        private int repeat;
+        private long reportedDrops;
+
+        @Override
+        public void run() {
+            try {
+                loop();
+            } catch (RuntimeException e) {
+                // El siguiente record o flush arranca otro escritor; lo pendiente se da por perdido
+                logger.log(Level.SEVERE, "The log writer failed.", e);
+                if (pending != null) {
+                    completed += repeat;
+                }
+                close();
+            }
+        }
+
+        private void loop() {
+            while (true) {
+                try {
+                    long wait = pending == null ? Long.MAX_VALUE : (flushers.get() > 0 ? 0 : IDLE_MILLIS);
+                    Entry entry = queue.poll(wait, TimeUnit.MILLISECONDS);
+                    if (entry != null && pending != null && entry.sameAs(pending)) {
+                        repeat++;
+                        continue;
+                    }
+                    writePending();
+                    pending = entry;
+                    repeat = entry == null ? 0 : 1;
+                } catch (InterruptedException e) {
+                    writePending();
+                    return;
+                }
+            }
+        }
+
+        private void writePending() {
+            if (pending == null) {
+                return;
+            }
+            try {
+                openIfNeeded();
+                StringBuilder line = new StringBuilder(256);
+                line.append("{\"time\":\"").append(Instant.ofEpochMilli(pending.time)).append('"');
+                line.append(",\"level\":\"ERROR\"");
+                line.append(",\"thread\":").append(quote(pending.thread));
+                line.append(",\"match\":").append(quote(pending.match));
+                line.append(",\"exception\":").append(quote(pending.exception));
+                line.append(",\"message\":").append(quote(pending.message));
+                line.append(",\"repeat\":").append(repeat);
+                line.append(",\"stackId\":\"").append(pending.stackId).append('"');
+                // Errores descartados por búfer lleno desde la línea anterior
+                long lost = dropped.get() - reportedDrops;
+                if (lost > 0) {
+                    line.append(",\"dropped\":").append(lost);
+                    reportedDrops += lost;
+                }
+                if (writtenStacks.add(pending.stackId)) {
+                    line.append(",\"stack\":[");
+                    for (int i = 0; i < pending.stack.length; i++) {
+                        line.append(i == 0 ? "" : ",").append(quote(pending.stack[i].toString()));
+                    }
+                    line.append(']');
+                }
+                line.append("}\n");
+                String text = line.toString();
+                out.write(text);
+                out.flush();
+                size += text.getBytes(StandardCharsets.UTF_8).length;
+                if (size >= MAX_FILE_BYTES) {
+                    rotate();
+                }
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Failed to write to log file.", e);
+                close();
+            } finally {
+                completed += repeat;
+                pending = null;
+            }
+        }
+
+        private void openIfNeeded() throws IOException {
+            if (out != null && file.getPath().equals(path)) {
+                return;
+            }
+            close();
+            file = new File(path);
+            size = file.length();
+            out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+            writtenStacks.clear();
+        }
+
+        // errors.log pasa a errors.log.1, este a errors.log.2, ...; el más viejo se borra
+        private void rotate() {
+            close();
+            new File(file.getPath() + "." + (MAX_FILES - 1)).delete();
+            for (int i = MAX_FILES - 2; i >= 1; i--) {
+                new File(file.getPath() + "." + i).renameTo(new File(file.getPath() + "." + (i + 1)));
+            }
+            file.renameTo(new File(file.getPath() + ".1"));
+        }
+
+        private void close() {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Failed to close log file.", e);
+                }
+                out = null;
+            }
+        }
+    }
+
+    // Texto como cadena JSON entre comillas, o null
+    static String quote(String text) {
+        if (text == null) {
+            return "null";
+        }
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                case '\r':
+                    quoted.append("\\r");
+                    break;
+                case '\t':
+                    quoted.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
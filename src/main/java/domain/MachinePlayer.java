@@ -1,30 +1,59 @@
 package domain;
 
-import java.util.ArrayList;
-
-public abstract class MachinePlayer extends Player{
-
-    public static final ArrayList<String> MACHINE_PLANTS = new ArrayList<>();
-    public static final ArrayList<String> MACHINE_ZOMBIES = new ArrayList<>();
-    public static final ArrayList<String> ORIGINAL_ZOMBIES = new ArrayList<>();
-
-    static {
-        ORIGINAL_ZOMBIES.add("Basic");
-        ORIGINAL_ZOMBIES.add("Brainstein");
-        ORIGINAL_ZOMBIES.add("BucketHead");
-        ORIGINAL_ZOMBIES.add("Conehead");
-        ORIGINAL_ZOMBIES.add("ECIZombie");
-        
-        MACHINE_PLANTS.add("Sunflower");
-        MACHINE_PLANTS.add("Peashooter");
-        MACHINE_PLANTS.add("Wallnut");
-        
-        MACHINE_ZOMBIES.add("Basic");
-        MACHINE_ZOMBIES.add("Conehead");
-        MACHINE_ZOMBIES.add("Buckhead");
-    }
+import java.util.List;
+
+public abstract class MachinePlayer extends Player implements ResourceListener {
+
+    // Inmutables: las comparten todas las partidas de la JVM
+    public static final List<String> MACHINE_PLANTS = List.of("Sunflower", "Peashooter", "Wallnut");
+    public static final List<String> MACHINE_ZOMBIES = List.of("Basic", "Conehead", "Buckhead");
+    public static final List<String> ORIGINAL_ZOMBIES = List.of("Basic", "Brainstein", "BucketHead", "Conehead",
+            "ECIZombie");
     
+    // Recursos que espera para su próxima unidad, o 0 si no está esperando
+    private volatile int awaitedResources;
+    private boolean listening;
+
     public MachinePlayer(String name) {
         super(name);
     }
+
+    /**
+     * Deja a la máquina en espera hasta que su equipo tenga al menos amount recursos.
+     * Mientras espera no intenta comprar; el aviso del equipo la despierta apenas
+     * llegan los recursos, en lugar de reintentar a intervalos fijos.
+     */
+    protected void waitForResources(int amount) {
+        if (!listening) {
+            team.addResourceListener(this);
+            listening = true;
+        }
+        awaitedResources = amount;
+        // Los recursos pudieron llegar entre la compra fallida y el registro
+        if (team.getResourceCounterAmount() >= amount) {
+            awaitedResources = 0;
+        }
+    }
+
+    int getAwaitedResources() {
+        return awaitedResources;
+    }
+
+    public boolean isWaitingForResources() {
+        return awaitedResources > 0;
+    }
+
+    @Override
+    public void resourcesChanged(Team team, int previous, int current) {
+        int awaited = awaitedResources;
+        if (awaited > 0 && current >= awaited) {
+            awaitedResources = 0;
+        }
+    }
+
+    /**
+     * Avanza la estrategia automática dt segundos simulados. El SimulationEngine la
+     * invoca en cada tick, en lugar de que cada máquina tenga su propio hilo.
+     */
+    public abstract void act(POOBvsZombies game, double dt);
 }
@@ -0,0 +1,547 @@
+package domain;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Punto de guardado binario de una partida: tablero, jugadores, contadores de los
+ * equipos, vida y posición de cada entidad, cuentas regresivas, fase en curso y
+ * estado del generador aleatorio. Cargarlo deja la partida exactamente donde estaba,
+ * sin repetir su historia.
+ *
+ * <p>Formato: cabecera (MAGIC, versión) seguida de registros {tipo, longitud, datos}.
+ * Quien lee salta los tipos que no conoce y los datos de más al final de un registro,
+ * así que una versión nueva puede agregar registros o campos al final y los lectores
+ * desde MIN_VERSION la siguen cargando; si cambia el significado de un campo, debe
+ * subir MIN_VERSION. El estado se codifica bajo el candado de la partida (lo que dura
+ * un tick) y se escribe después con un FileChannel; al cargar se lee registro a
+ * registro, sin traer el archivo entero a memoria.
+ */
+public class MatchCheckpoint {
+    public static final int MAGIC = 0x50565A53; // "PVZS"
+    // 2: el estado del azar es el de MatchRandom y PlantsIntelligent guarda su orden de plantación
+    public static final short VERSION = 2;
+    // Versión más vieja que se puede cargar; la 1 guardaba la semilla de otro generador
+    public static final short MIN_VERSION = 2;
+
+    // Tipos de registro
+    private static final byte GAME = 1;
+    private static final byte PHASE = 2;
+    private static final byte PLAYER = 3;
+    private static final byte ENGINE = 4;
+    private static final byte PLANT = 5;
+    private static final byte LAWNMOWER = 6;
+    private static final byte ZOMBIE = 7;
+    private static final byte PROJECTILE = 8;
+    private static final byte RESOURCE = 9;
+    private static final byte END = 0;
+
+    private MatchCheckpoint() {
+    }
+
+    /**
+     * Guarda la partida en file. Se puede llamar con la simulación en marcha; el
+     * archivo se escribe aparte y se reemplaza de una vez al terminar.
+     */
+    public static void save(POOBvsZombies game, Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(capture(game));
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Carga una partida guardada con {@link #save}. La simulación queda detenida;
+     * se reanuda con getSimulationEngine().start().
+     */
+    public static POOBvsZombies load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return restore(new RecordReader(channel));
+        }
+    }
+
+    // Punto de guardado en memoria, p. ej. los cuadros clave de MatchReplay
+    static byte[] capture(POOBvsZombies game) {
+        ByteBuffer buffer;
+        synchronized (game) {
+            buffer = encode(game);
+        }
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    static POOBvsZombies restore(ByteBuffer buffer) throws IOException {
+        return restore(new RecordReader(buffer));
+    }
+
+    private static POOBvsZombies restore(RecordReader in) throws IOException {
+        try {
+            return decode(in);
+        } catch (RuntimeException e) {
+            // Un archivo dañado puede fallar de muchas formas (tipos, nulos, tamaños negativos)
+            throw new IOException("Punto de guardado dañado", e);
+        }
+    }
+
+    private static ByteBuffer encode(POOBvsZombies game) {
+        Encoder out = new Encoder();
+        out.buffer.putInt(MAGIC);
+        out.buffer.putShort(VERSION);
+        SimulationEngine engine = game.getSimulationEngine();
+        Board board = game.getBoard();
+
+        out.begin(GAME);
+        out.putString(game.getModality());
+        out.putString(game.getWinner());
+        out.buffer.putFloat(game.getMatchTime());
+        out.buffer.putFloat(game.getRoundTime());
+        out.buffer.putInt(board.getRows());
+        out.buffer.putInt(board.getColumns());
+        out.buffer.putInt(game.getNextEntityId());
+        out.buffer.putLong(game.getSeed());
+        out.buffer.putLong(game.getRandom().getState());
+        out.end();
+
+        for (MatchPhase phase : game.getPhases()) {
+            out.begin(PHASE);
+            out.putString(phase.getKind());
+            out.putString(phase.getMessage());
+            out.buffer.putInt(phase.getDuration());
+            out.end();
+        }
+
+        for (Player player : game.getPlayers()) {
+            encodePlayer(out, player);
+        }
+
+        out.begin(ENGINE);
+        out.buffer.putLong(engine.getTickCount());
+        out.buffer.putDouble(engine.getElapsedTime());
+        out.buffer.putInt(engine.getPhaseIndex());
+        out.buffer.putDouble(engine.getPhaseElapsed());
+        out.buffer.putDouble(engine.getSkyCountdown());
+        out.buffer.put((byte) (engine.isGameOver() ? 1 : 0));
+        out.putString(engine.getWinnerMessage());
+        out.end();
+
+        for (int row = 0; row < board.getRows(); row++) {
+            if (board.getLawnmower(row) != null) {
+                out.begin(LAWNMOWER);
+                putEntity(out, board.getLawnmower(row), engine);
+                out.end();
+            }
+            for (int col = 0; col < board.getColumns(); col++) {
+                Plant plant = board.getPlant(row, col);
+                if (plant == null) {
+                    continue;
+                }
+                out.begin(PLANT);
+                putEntity(out, plant, engine);
+                out.buffer.putInt(plant.getHealth());
+                boolean flag = plant instanceof PotatoMine ? ((PotatoMine) plant).isActivated()
+                        : plant instanceof ECIPlant && ((ECIPlant) plant).hasGeneratedExtraSuns();
+                out.buffer.put((byte) (flag ? 1 : 0));
+                out.end();
+            }
+            // En orden de x, así addZombie los deja igual al cargar
+            for (Zombie zombie : board.getZombies(row)) {
+                out.begin(ZOMBIE);
+                putEntity(out, zombie, engine);
+                out.buffer.putInt(zombie.getHealth());
+                out.buffer.putInt(zombie.getFixedX());
+                out.buffer.putInt(zombie.getFixedVelocity());
+                out.end();
+            }
+        }
+        for (ProjectTile projectTile : game.getProjectiles()) {
+            out.begin(PROJECTILE);
+            putEntity(out, projectTile, engine);
+            out.buffer.putInt(projectTile.getDamage());
+            out.buffer.putInt(projectTile.getFixedX());
+            out.end();
+        }
+        for (Resource resource : game.getResources()) {
+            out.begin(RESOURCE);
+            putEntity(out, resource, engine);
+            out.putString(resource.getType());
+            out.buffer.putInt(resource.getValue());
+            out.end();
+        }
+
+        out.begin(END);
+        out.end();
+        return out.buffer;
+    }
+
+    private static void encodePlayer(Encoder out, Player player) {
+        Team team = player.getTeam();
+        out.begin(PLAYER);
+        out.putString(player.getClass().getSimpleName());
+        out.putString(player.getName());
+        out.buffer.putInt(player.getScore());
+        out.buffer.putInt(team.getResourceCounterAmount());
+        out.putStrings(team.getCharacters());
+        out.buffer.putInt(player instanceof MachinePlayer ? ((MachinePlayer) player).getAwaitedResources() : 0);
+        if (player instanceof PlantsIntelligent) {
+            PlantsIntelligent plants = (PlantsIntelligent) player;
+            out.buffer.putInt(plants.getCurrentPlantIndex());
+            out.buffer.putDouble(plants.getNextPlanting());
+            out.putStrings(plants.getPlantingOrder());
+        } else if (player instanceof ZombiesOriginal) {
+            ZombiesOriginal zombies = (ZombiesOriginal) player;
+            out.buffer.putInt(zombies.getHordersNumber());
+            out.buffer.putFloat(zombies.getHorderTime(0));
+            out.putStrings(zombies.getZombieTypes());
+            out.buffer.putInt(zombies.getLastHordePhase());
+            out.buffer.putInt(zombies.getPendingZombies());
+            out.buffer.putDouble(zombies.getNextSpawn());
+            Zombie waiting = zombies.getWaitingZombie();
+            out.putString(waiting != null ? waiting.getClass().getSimpleName() : null);
+            out.buffer.putInt(zombies.getWaitingRow());
+        }
+        out.end();
+    }
+
+    // Datos comunes de toda entidad: identificador, celda, nombre y cuenta regresiva
+    private static void putEntity(Encoder out, Entity entity, SimulationEngine engine) {
+        out.buffer.putInt(entity.getId());
+        out.buffer.putInt(entity.getRow());
+        out.buffer.putInt(entity.getCol());
+        out.putString(entity.getName());
+        out.buffer.putDouble(engine.getCountdown(entity));
+    }
+
+    private static POOBvsZombies decode(RecordReader in) throws IOException {
+        ByteBuffer header = in.take(6);
+        if (header.getInt() != MAGIC) {
+            throw new IOException("No es un punto de guardado de POOBvsZombies");
+        }
+        short version = header.getShort();
+        if (version < MIN_VERSION) {
+            throw new IOException("Versión de punto de guardado no soportada: " + version);
+        }
+
+        // Datos del registro GAME, necesarios para crear la partida al llegar el motor
+        String modality = null;
+        String winner = "";
+        float matchTime = 0;
+        float roundTime = 0;
+        int rows = 0;
+        int columns = 0;
+        int nextEntityId = 1;
+        long seed = 0;
+        long randomState = 0;
+        List<MatchPhase> phases = new ArrayList<>();
+        ArrayList<Player> players = new ArrayList<>();
+        List<Integer> awaited = new ArrayList<>();
+        POOBvsZombies game = null;
+
+        while (true) {
+            ByteBuffer head = in.take(5);
+            byte type = head.get();
+            int length = head.getInt();
+            if (length < 0) {
+                throw new IOException("Longitud de registro inválida: " + length);
+            }
+            ByteBuffer record = in.take(length);
+            if (type == END) {
+                break;
+            }
+            switch (type) {
+                case GAME:
+                    modality = getString(record);
+                    winner = getString(record);
+                    matchTime = record.getFloat();
+                    roundTime = record.getFloat();
+                    rows = record.getInt();
+                    columns = record.getInt();
+                    nextEntityId = record.getInt();
+                    seed = record.getLong();
+                    randomState = record.getLong();
+                    break;
+                case PHASE:
+                    phases.add(new MatchPhase(getString(record), getString(record), record.getInt()));
+                    break;
+                case PLAYER:
+                    players.add(decodePlayer(record, awaited));
+                    break;
+                case ENGINE:
+                    game = new POOBvsZombies(modality, players, matchTime, roundTime, rows, columns);
+                    game.getPhases().addAll(phases);
+                    game.setWinner(winner);
+                    game.setNextEntityId(nextEntityId);
+                    game.setSeed(seed);
+                    game.getRandom().setState(randomState);
+                    game.getSimulationEngine().restore(record.getLong(), record.getDouble(), record.getInt(),
+                            record.getDouble(), record.getDouble(), record.get() == 1, getString(record));
+                    for (int i = 0; i < players.size(); i++) {
+                        if (awaited.get(i) > 0) {
+                            ((MachinePlayer) players.get(i)).waitForResources(awaited.get(i));
+                        }
+                    }
+                    break;
+                case PLANT:
+                case LAWNMOWER:
+                case ZOMBIE:
+                case PROJECTILE:
+                case RESOURCE:
+                    if (game == null) {
+                        throw new IOException("Entidad antes del registro del motor");
+                    }
+                    decodeEntity(game, type, record);
+                    break;
+                default:
+                    // Registro de una versión más nueva: se ignora
+            }
+        }
+        if (game == null) {
+            throw new IOException("Punto de guardado incompleto");
+        }
+        return game;
+    }
+
+    private static Player decodePlayer(ByteBuffer in, List<Integer> awaited) throws IOException {
+        String kind = getString(in);
+        String name = getString(in);
+        int score = in.getInt();
+        int resources = in.getInt();
+        ArrayList<String> characters = getStrings(in);
+        awaited.add(in.getInt());
+        Player player;
+        switch (kind) {
+            case "PlantsStrategic":
+                player = new PlantsStrategic(name, resources, characters);
+                break;
+            case "ZombiesStrategic":
+                player = new ZombiesStrategic(name, resources, characters);
+                break;
+            case "PlantsIntelligent":
+                int currentPlantIndex = in.getInt();
+                double nextPlanting = in.getDouble();
+                PlantsIntelligent plants = new PlantsIntelligent(resources, getStrings(in));
+                plants.restore(currentPlantIndex, nextPlanting);
+                player = plants;
+                break;
+            case "ZombiesOriginal":
+                ZombiesOriginal zombies = new ZombiesOriginal(in.getInt(), 0, characters, resources);
+                float horderTime = in.getFloat();
+                ArrayList<String> zombieTypes = getStrings(in);
+                int lastHordePhase = in.getInt();
+                int pendingZombies = in.getInt();
+                double nextSpawn = in.getDouble();
+                String waiting = getString(in);
+                zombies.restore(horderTime, zombieTypes, lastHordePhase, pendingZombies, nextSpawn,
+                        waiting != null ? (Zombie) createByClass(waiting) : null, in.getInt());
+                player = zombies;
+                break;
+            default:
+                throw new IOException("Tipo de jugador desconocido: " + kind);
+        }
+        player.setScore(score);
+        return player;
+    }
+
+    private static void decodeEntity(POOBvsZombies game, byte type, ByteBuffer in) throws IOException {
+        int id = in.getInt();
+        int row = in.getInt();
+        int col = in.getInt();
+        String name = getString(in);
+        double countdown = in.getDouble();
+        Board board = game.getBoard();
+        Entity entity;
+        switch (type) {
+            case PLANT:
+                Plant plant = (Plant) game.createEntity(name);
+                plant.health = in.getInt();
+                if (in.get() == 1) {
+                    if (plant instanceof PotatoMine) {
+                        ((PotatoMine) plant).activate();
+                    } else if (plant instanceof ECIPlant) {
+                        ((ECIPlant) plant).setExtraSunsGenerated(true);
+                    }
+                }
+                board.setPlant(row, col, plant);
+                entity = plant;
+                break;
+            case LAWNMOWER:
+                entity = new Lownmover();
+                board.setLawnmower(row, (Lownmover) entity);
+                break;
+            case ZOMBIE:
+                Zombie zombie = (Zombie) game.createEntity(name);
+                zombie.health = in.getInt();
+                zombie.setFixedX(in.getInt());
+                zombie.setFixedVelocity(in.getInt());
+                board.addZombie(row, zombie);
+                entity = zombie;
+                break;
+            case PROJECTILE:
+                ProjectTile projectTile = new ProjectTile(in.getInt(), 0);
+                projectTile.setFixedX(in.getInt());
+                game.getProjectiles().add(projectTile);
+                entity = projectTile;
+                break;
+            default:
+                Resource resource = game.getResourcePool().obtain(getString(in), in.getInt());
+                game.getResources().add(resource);
+                entity = resource;
+        }
+        entity.setId(id);
+        entity.setPosition(row, col, name);
+        game.getSimulationEngine().setCountdown(entity, countdown);
+    }
+
+    // Zombie que esperaba cerebros; se guarda por clase porque aún no tiene nombre
+    private static Entity createByClass(String className) throws IOException {
+        switch (className) {
+            case "Basic": return new Basic();
+            case "Brainstein": return new Brainstein();
+            case "Buckethead": return new Buckethead();
+            case "Conehead": return new Conehead();
+            case "ECIZombie": return new ECIZombie();
+            default:
+                throw new IOException("Tipo de zombie desconocido: " + className);
+        }
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ArrayList<String> getStrings(ByteBuffer in) {
+        int size = in.getInt();
+        // Cada texto ocupa al menos 2 bytes: no se reserva más de lo que cabe en el registro
+        ArrayList<String> strings = new ArrayList<>(Math.min(size, in.remaining() / 2));
+        for (int i = 0; i < size; i++) {
+            strings.add(getString(in));
+        }
+        return strings;
+    }
+
+    /**
+     * Lee un punto de guardado por partes: de un búfer en memoria (tajadas sin copiar)
+     * o de un archivo, registro a registro en un búfer que se reutiliza. Nunca reserva
+     * más de lo que de verdad queda por leer.
+     */
+    private static class RecordReader {
+        private final FileChannel channel; // null si se lee de memoria
+        private ByteBuffer buffer;
+        private long remaining; // Bytes del archivo sin leer
+
+        private RecordReader(ByteBuffer memory) {
+            this.channel = null;
+            this.buffer = memory;
+        }
+
+        private RecordReader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(4 * 1024);
+            this.remaining = channel.size();
+        }
+
+        // Los siguientes n bytes; del archivo solo son válidos hasta la siguiente llamada
+        private ByteBuffer take(int n) throws IOException {
+            if (channel == null) {
+                if (n > buffer.remaining()) {
+                    throw new IOException("Punto de guardado truncado");
+                }
+                ByteBuffer slice = buffer.slice();
+                slice.limit(n);
+                buffer.position(buffer.position() + n);
+                return slice;
+            }
+            if (n > remaining) {
+                throw new IOException("Punto de guardado truncado");
+            }
+            if (buffer.capacity() < n) {
+                buffer = ByteBuffer.allocate(Math.max(n, buffer.capacity() * 2));
+            }
+            buffer.clear();
+            buffer.limit(n);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Punto de guardado truncado");
+                }
+            }
+            remaining -= n;
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    /**
+     * Escribe registros en un ByteBuffer que crece al doble cuando se queda sin espacio.
+     * La longitud de cada registro se completa al cerrarlo.
+     */
+    private static class Encoder {
+        private ByteBuffer buffer = ByteBuffer.allocate(16 * 1024);
+        private int recordStart;
+
+        // Espacio libre que se asegura al abrir cada registro; los textos piden el suyo
+        private static final int RECORD_MARGIN = 1024;
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            bigger.put(buffer);
+            buffer = bigger;
+        }
+
+        private void begin(byte type) {
+            ensure(RECORD_MARGIN);
+            buffer.put(type);
+            recordStart = buffer.position();
+            buffer.putInt(0);
+        }
+
+        private void end() {
+            buffer.putInt(recordStart, buffer.position() - recordStart - 4);
+        }
+
+        private void putString(String text) {
+            if (text == null) {
+                buffer.putShort((short) -1);
+                return;
+            }
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Texto demasiado largo para el punto de guardado");
+            }
+            ensure(2 + bytes.length + RECORD_MARGIN);
+            buffer.putShort((short) bytes.length);
+            buffer.put(bytes);
+        }
+
+        private void putStrings(List<String> strings) {
+            buffer.putInt(strings.size());
+            for (String text : strings) {
+                putString(text);
+            }
+        }
+    }
+}
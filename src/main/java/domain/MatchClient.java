@@ -0,0 +1,213 @@
+package domain;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jugador (o espectador) remoto de una partida de un {@link MatchHost}. Los comandos
+ * se acumulan y {@link #flush} los envía juntos en un lote, sin esperar la respuesta
+ * del anterior. Un hilo propio recibe los estados, los reconstruye con un
+ * {@link DeltaReceiver}, confirma cada uno y avisa al {@link MatchListener} igual
+ * que a un cliente de la misma JVM.
+ */
+public class MatchClient implements Closeable {
+    public static final long JOIN_TIMEOUT_MILLIS = 5000;
+
+    private final SocketChannel channel;
+    private final String team;
+    private final MatchListener listener;
+    private final DeltaReceiver receiver = new DeltaReceiver();
+    private final CountDownLatch joined = new CountDownLatch(1);
+    private final Thread reader;
+    private DeltaProtocol.Writer batch = new DeltaProtocol.Writer();
+    private int batched;
+    private BoardSnapshot delivered; // Último estado entregado al listener
+    private volatile String error;
+
+    private MatchClient(SocketChannel channel, String team, MatchListener listener) {
+        this.channel = channel;
+        this.team = team;
+        this.listener = listener;
+        this.reader = SimulationThreads.newThread(this::readLoop, "match-client");
+    }
+
+    /**
+     * Se conecta al host y se une a la partida como team (MatchConnection.PLANTS,
+     * ZOMBIES o SPECTATOR). Retorna cuando llega el primer estado; listener puede
+     * ser null si solo se consulta getLatest().
+     */
+    public static MatchClient connect(InetSocketAddress host, int matchId, String team, MatchListener listener)
+            throws IOException {
+        SocketChannel channel = SocketChannel.open(host);
+        channel.socket().setTcpNoDelay(true);
+        MatchClient client = new MatchClient(channel, team, listener);
+        client.reader.start();
+        DeltaProtocol.Writer body = new DeltaProtocol.Writer();
+        body.putLong(matchId);
+        body.putString(team);
+        client.write(MatchHost.frame(MatchHost.JOIN, body));
+        try {
+            if (!client.joined.await(JOIN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                client.close();
+                throw new IOException("The host did not answer");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            client.close();
+            throw new IOException("Interrupted while joining", e);
+        }
+        if (client.error != null) {
+            client.close();
+            throw new IOException(client.error);
+        }
+        return client;
+    }
+
+    public String getTeam() {
+        return team;
+    }
+
+    // Estado más reciente recibido del host
+    public BoardSnapshot getLatest() {
+        return receiver.getLatest();
+    }
+
+    // Motivo con el que el host cerró la conexión, o null
+    public String getError() {
+        return error;
+    }
+
+    public boolean isConnected() {
+        return channel.isOpen();
+    }
+
+    public synchronized void plant(int row, int col, String type) {
+        add(MatchHost.BUY, row, col, type);
+    }
+
+    // La columna la pone el host: los zombies entran por la última
+    public synchronized void zombie(int row, String type) {
+        add(MatchHost.BUY, row, 0, type);
+    }
+
+    public synchronized void shovel(int row, int col) {
+        add(MatchHost.DELETE, row, col, null);
+    }
+
+    private void add(int action, int row, int col, String type) {
+        batch.putLong(action);
+        batch.putLong(row);
+        batch.putLong(col);
+        batch.putString(type);
+        batched++;
+    }
+
+    /**
+     * Envía en un solo marco los comandos acumulados desde el último flush.
+     */
+    public synchronized void flush() throws IOException {
+        if (batched == 0) {
+            return;
+        }
+        DeltaProtocol.Writer body = new DeltaProtocol.Writer();
+        body.putLong(batched);
+        body.putBytes(batch);
+        batch = new DeltaProtocol.Writer();
+        batched = 0;
+        write(MatchHost.frame(MatchHost.COMMANDS, body));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        joined.countDown();
+    }
+
+    private void write(byte[] frame) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        synchronized (channel) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private void readLoop() {
+        ByteBuffer in = ByteBuffer.allocateDirect(64 * 1024);
+        try {
+            while (channel.read(in) >= 0) {
+                in.flip();
+                while (in.remaining() >= 4) {
+                    int length = in.getInt(in.position());
+                    if (length <= 0 || length > MatchHost.MAX_FRAME) {
+                        throw new IOException("Invalid frame length " + length);
+                    }
+                    if (in.remaining() < 4 + length) {
+                        break;
+                    }
+                    in.getInt();
+                    ByteBuffer body = in.slice();
+                    body.limit(length);
+                    in.position(in.position() + length);
+                    handle(body.get(), body);
+                }
+                in.compact();
+                if (!in.hasRemaining()) {
+                    ByteBuffer bigger = ByteBuffer.allocateDirect(Math.min(in.capacity() * 2, MatchHost.MAX_FRAME + 4));
+                    in.flip();
+                    bigger.put(in);
+                    in = bigger;
+                }
+            }
+        } catch (IOException | BufferUnderflowException e) {
+            // Conexión cerrada por cualquiera de los dos lados o marco corrupto
+        } finally {
+            joined.countDown();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                Log.record(e);
+            }
+        }
+    }
+
+    private void handle(byte type, ByteBuffer body) throws IOException {
+        if (type == MatchHost.STATE) {
+            BoardSnapshot snapshot = receiver.receive(body);
+            if (snapshot == null) {
+                return;
+            }
+            DeltaProtocol.Writer ack = new DeltaProtocol.Writer();
+            ack.putLong(receiver.getAck());
+            write(MatchHost.frame(MatchHost.ACK, ack));
+            if (delivered == null || snapshot.getTick() > delivered.getTick()) {
+                MatchDelta delta = MatchDelta.between(delivered, snapshot);
+                delivered = snapshot;
+                if (listener != null) {
+                    listener.stateChanged(delta);
+                }
+            }
+            joined.countDown();
+        } else if (type == MatchHost.REJECTED) {
+            int action = (int) DeltaProtocol.getLong(body);
+            int row = (int) DeltaProtocol.getLong(body);
+            int col = (int) DeltaProtocol.getLong(body);
+            String entity = DeltaProtocol.getString(body);
+            String reason = DeltaProtocol.getString(body);
+            if (listener != null) {
+                listener.commandRejected(new MatchInput(-1, action == MatchHost.DELETE ? MatchInput.DELETE
+                        : MatchInput.BUY, row, col, entity), reason);
+            }
+        } else if (type == MatchHost.ERROR) {
+            error = DeltaProtocol.getString(body);
+            joined.countDown();
+            throw new IOException(error);
+        }
+    }
+}
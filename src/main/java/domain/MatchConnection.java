@@ -0,0 +1,82 @@
+package domain;
+
+/**
+ * Conexión de un jugador (o espectador) a una {@link MatchSession}. Los comandos no
+ * tocan la partida: se encolan y el servidor los aplica antes del siguiente tick,
+ * en el orden en que llegaron. El resultado llega por el {@link MatchListener}.
+ */
+public class MatchConnection {
+    public static final String PLANTS = "plants";
+    public static final String ZOMBIES = "zombies";
+    public static final String SPECTATOR = "spectator"; // Solo recibe deltas
+
+    private final MatchSession session;
+    private final String team;
+    private final MatchListener listener;
+    // Última instantánea entregada; solo la usa el hilo que avanza la partida
+    private BoardSnapshot baseline;
+    private volatile boolean closed;
+
+    MatchConnection(MatchSession session, String team, MatchListener listener) {
+        if (!PLANTS.equals(team) && !ZOMBIES.equals(team) && !SPECTATOR.equals(team)) {
+            throw new IllegalArgumentException("Unknown team: " + team);
+        }
+        this.session = session;
+        this.team = team;
+        this.listener = listener;
+    }
+
+    public String getTeam() {
+        return team;
+    }
+
+    public MatchSession getSession() {
+        return session;
+    }
+
+    // Compra y coloca una planta en (row, col)
+    public void plant(int row, int col, String type) {
+        send(PLANTS, MatchInput.BUY, row, col, type);
+    }
+
+    // Compra un zombie que entra por la última columna de la fila
+    public void zombie(int row, String type) {
+        send(ZOMBIES, MatchInput.BUY, row, session.getEntryColumn(), type);
+    }
+
+    // Quita con la pala la planta de (row, col)
+    public void shovel(int row, int col) {
+        send(PLANTS, MatchInput.DELETE, row, col, null);
+    }
+
+    public void close() {
+        closed = true;
+        session.disconnect(this);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void send(String requiredTeam, String action, int row, int col, String type) {
+        if (closed) {
+            throw new IllegalStateException("The connection is closed");
+        }
+        if (!requiredTeam.equals(team)) {
+            throw new IllegalStateException("The " + team + " player cannot send " + action + " commands");
+        }
+        session.enqueue(this, new MatchInput(session.getTickCount(), action, row, col, type));
+    }
+
+    MatchListener getListener() {
+        return listener;
+    }
+
+    BoardSnapshot getBaseline() {
+        return baseline;
+    }
+
+    void setBaseline(BoardSnapshot baseline) {
+        this.baseline = baseline;
+    }
+}
@@ -0,0 +1,89 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+/**
+ * Todo el estado de una partida: tablero, jugadores,
+ * reloj, planificador de eventos, generador aleatorio y pool de recursos. Cada
+ * POOBvsZombies tiene el suyo y nada de esto es estático, así que una JVM puede
+ * jugar muchas partidas a la vez (servidor, torneos, pruebas).
+ *
+ * El SimulationEngine asocia el contexto al hilo mientras avanza un tick, y la
+ * interfaz mientras atiende una acción del jugador, para que quien no recibe la
+ * partida (p. ej. el {@link Log}) sepa a cuál pertenece.
+ */
+public class MatchContext {
+    private static final ThreadLocal<MatchContext> CURRENT = new ThreadLocal<>();
+
+    private final ArrayList<Player> players;
+    private final GameClock clock = new GameClock();
+    private final TimingWheel scheduler = new TimingWheel(0);
+    private final ResourcePool resourcePool = new ResourcePool();
+    private Board board;
+    // Todo el azar de la partida sale de esta semilla, para poder repetirla exactamente
+    private long seed = new SplittableRandom().nextLong();
+    private MatchRandom random = new MatchRandom(seed);
+
+    MatchContext(ArrayList<Player> players) {
+        this.players = players;
+    }
+
+    // Contexto de la partida que este hilo está avanzando, o null
+    public static MatchContext current() {
+        return CURRENT.get();
+    }
+
+    // Asocia el contexto al hilo y retorna el anterior para restaurarlo con leave
+    public MatchContext enter() {
+        MatchContext previous = CURRENT.get();
+        CURRENT.set(this);
+        return previous;
+    }
+
+    public static void leave(MatchContext previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    void setBoard(Board board) {
+        this.board = board;
+    }
+
+    ArrayList<Player> getPlayers() {
+        return players;
+    }
+
+    public GameClock getClock() {
+        return clock;
+    }
+
+    // Eventos de la partida medidos en ticks (ver SimulationEngine)
+    TimingWheel getScheduler() {
+        return scheduler;
+    }
+
+    public ResourcePool getResourcePool() {
+        return resourcePool;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    void setSeed(long seed) {
+        this.seed = seed;
+        this.random = new MatchRandom(seed);
+    }
+
+    public MatchRandom getRandom() {
+        return random;
+    }
+}
@@ -0,0 +1,152 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cambios de una partida entre dos instantáneas: entidades que aparecieron, que
+ * cambiaron (posición, vida o armado) y que desaparecieron, más los contadores. Un
+ * cliente que aplica los deltas en orden sobre su copia del tablero queda igual que
+ * la partida. Contra una instantánea null el delta trae el tablero completo.
+ */
+public class MatchDelta {
+    private final BoardSnapshot snapshot;
+    private final long tick;
+    private final double time;
+    private final String phaseMessage;
+    private final List<EntitySnapshot> spawned;
+    private final List<EntitySnapshot> updated;
+    private final List<Integer> removed;
+    private final boolean[] lawnmowers;
+    private final int suns;
+    private final int brains;
+    private final int plantsScore;
+    private final int zombiesScore;
+    private final boolean gameOver;
+    private final String winnerMessage;
+
+    private MatchDelta(BoardSnapshot current, List<EntitySnapshot> spawned, List<EntitySnapshot> updated,
+            List<Integer> removed, boolean[] lawnmowers) {
+        this.snapshot = current;
+        this.tick = current.getTick();
+        this.time = current.getTime();
+        this.phaseMessage = current.getPhaseMessage();
+        this.spawned = Collections.unmodifiableList(spawned);
+        this.updated = Collections.unmodifiableList(updated);
+        this.removed = Collections.unmodifiableList(removed);
+        this.lawnmowers = lawnmowers;
+        this.suns = current.getSuns();
+        this.brains = current.getBrains();
+        this.plantsScore = current.getPlantsScore();
+        this.zombiesScore = current.getZombiesScore();
+        this.gameOver = current.isGameOver();
+        this.winnerMessage = current.getWinnerMessage();
+    }
+
+    /**
+     * Calcula lo que cambió de baseline (puede ser null) a current.
+     */
+    public static MatchDelta between(BoardSnapshot baseline, BoardSnapshot current) {
+        Map<Integer, EntitySnapshot> before = new HashMap<>();
+        if (baseline != null) {
+            for (List<EntitySnapshot> group : groups(baseline)) {
+                for (EntitySnapshot entity : group) {
+                    before.put(entity.getId(), entity);
+                }
+            }
+        }
+        List<EntitySnapshot> spawned = new ArrayList<>();
+        List<EntitySnapshot> updated = new ArrayList<>();
+        for (List<EntitySnapshot> group : groups(current)) {
+            for (EntitySnapshot entity : group) {
+                EntitySnapshot previous = before.remove(entity.getId());
+                if (previous == null || !previous.getName().equals(entity.getName())) {
+                    spawned.add(entity);
+                } else if (changed(previous, entity)) {
+                    updated.add(entity);
+                }
+            }
+        }
+        // Lo que quedó en before ya no está en el tablero
+        List<Integer> removed = new ArrayList<>(before.keySet());
+        Collections.sort(removed);
+        boolean[] lawnmowers = new boolean[current.getRows()];
+        for (int row = 0; row < lawnmowers.length; row++) {
+            lawnmowers[row] = current.hasLawnmower(row);
+        }
+        return new MatchDelta(current, spawned, updated, removed, lawnmowers);
+    }
+
+    private static List<List<EntitySnapshot>> groups(BoardSnapshot snapshot) {
+        return List.of(snapshot.getPlants(), snapshot.getZombies(), snapshot.getProjectiles(), snapshot.getResources());
+    }
+
+    private static boolean changed(EntitySnapshot previous, EntitySnapshot current) {
+        return previous.getRow() != current.getRow() || previous.getCol() != current.getCol()
+                || previous.getX() != current.getX() || previous.getVelocity() != current.getVelocity()
+                || previous.getHealth() != current.getHealth() || previous.isActive() != current.isActive();
+    }
+
+    // Instantánea de la que sale el delta, p. ej. para codificarla con un DeltaSender
+    public BoardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public double getTime() {
+        return time;
+    }
+
+    public String getPhaseMessage() {
+        return phaseMessage;
+    }
+
+    // Entidades nuevas, completas
+    public List<EntitySnapshot> getSpawned() {
+        return spawned;
+    }
+
+    // Entidades que ya estaban y cambiaron, con su estado nuevo
+    public List<EntitySnapshot> getUpdated() {
+        return updated;
+    }
+
+    // Identificadores de las entidades que salieron del tablero
+    public List<Integer> getRemoved() {
+        return removed;
+    }
+
+    public boolean hasLawnmower(int row) {
+        return lawnmowers[row];
+    }
+
+    public int getSuns() {
+        return suns;
+    }
+
+    public int getBrains() {
+        return brains;
+    }
+
+    public int getPlantsScore() {
+        return plantsScore;
+    }
+
+    public int getZombiesScore() {
+        return zombiesScore;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public String getWinnerMessage() {
+        return winnerMessage;
+    }
+}
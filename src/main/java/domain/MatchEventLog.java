@@ -0,0 +1,73 @@
+package domain;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Registro de los eventos de una partida en un archivo JSON por líneas comprimido
+ * con gzip (p. ej. partida.ndjson.gz). Cada línea tiene las mismas columnas:
+ * tick, event, id, name, row, x y value, así que se carga directo en una tabla.
+ * Los eventos se agregan durante la partida a un búfer que se vuelca al archivo a
+ * medida que se llena; cerrar solo escribe lo que queda y el final del gzip.
+ */
+public class MatchEventLog implements Closeable {
+    // Tipos de evento; value depende del tipo
+    public static final String STATE = "state"; // Entidad presente al empezar a registrar; value = vida
+    public static final String SPAWN = "spawn"; // Zombie entra al tablero; value = costo
+    public static final String PLANT = "plant"; // Planta colocada; value = costo
+    public static final String SHOT = "shot"; // Proyectil disparado; value = daño
+    public static final String DAMAGE = "damage"; // Entidad golpeada; value = vida restante
+    public static final String DEATH = "death"; // Entidad eliminada; value = costo
+    public static final String EXPLOSION = "explosion"; // PotatoMine explota; value = daño
+    public static final String LAWNMOWER = "lawnmower"; // Podadora barre la fila; value = zombies eliminados
+    public static final String DROP = "drop"; // Recurso cae al tablero; value = valor
+    public static final String PICKUP = "pickup"; // Recurso sumado a un equipo; value = valor
+    public static final String SCORE = "score"; // Cambio de puntaje; name = jugador, value = puntaje
+    public static final String PHASE = "phase"; // Empieza una fase; name = mensaje, value = duración
+    public static final String END = "end"; // Fin de la partida; name = ganador
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer out;
+    private long events;
+    private boolean failed;
+
+    public MatchEventLog(Path file) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file), BUFFER_SIZE), StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Agrega un evento. Un error de escritura se registra en el Log y desactiva el
+     * registro en vez de interrumpir la partida.
+     */
+    public synchronized void record(long tick, String event, int id, String name, int row, double x, int value) {
+        if (failed) {
+            return;
+        }
+        try {
+            out.write("{\"tick\":" + tick + ",\"event\":\"" + event + "\",\"id\":" + id + ",\"name\":"
+                    + Log.quote(name) + ",\"row\":" + row + ",\"x\":" + x + ",\"value\":" + value + "}\n");
+            events++;
+        } catch (IOException e) {
+            failed = true;
+            Log.record(e);
+        }
+    }
+
+    public synchronized long getEvents() {
+        return events;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,384 @@
+package domain;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Expone por TCP las partidas de un {@link MatchServer} para que el jugador de las
+ * plantas y el de los zombies jueguen cada uno desde su {@link MatchClient}. Un solo
+ * hilo con un Selector atiende todas las conexiones (aceptar, leer y escribir) con
+ * búferes directos; las partidas siguen avanzando en el pool del servidor y solo
+ * le dejan al hilo de red los paquetes listos para enviar.
+ *
+ * <p>Cada mensaje es un marco {longitud int, tipo byte, datos} con los números en
+ * varint como en {@link DeltaProtocol}. El cliente puede enviar varios lotes de
+ * comandos seguidos sin esperar respuesta. Si un cliente lento no alcanza a recibir
+ * un estado antes del siguiente, el viejo se descarta: como cada estado va contra
+ * el último tick confirmado, basta con enviar el más reciente.
+ */
+public class MatchHost implements Closeable {
+    // Tipos de marco del cliente al host
+    static final byte JOIN = 1; // id de la partida y equipo
+    static final byte COMMANDS = 2; // Lote de comandos
+    static final byte ACK = 3; // Último tick aplicado
+    // Tipos de marco del host al cliente
+    static final byte STATE = 4; // Paquete de DeltaSender
+    static final byte REJECTED = 5; // Comando rechazado y motivo
+    static final byte ERROR = 6; // Motivo; el host cierra la conexión
+
+    // Acciones de un comando
+    static final int BUY = 1;
+    static final int DELETE = 2;
+
+    static final int MAX_FRAME = 1 << 20;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final MatchServer server;
+    private final Selector selector;
+    private final ServerSocketChannel acceptor;
+    private final ConcurrentLinkedQueue<Peer> ready = new ConcurrentLinkedQueue<>();
+    private final List<Peer> peers = new ArrayList<>(); // Solo la toca el hilo de red
+    private final Thread loop;
+    private volatile boolean running = true;
+    private volatile int connections;
+
+    /**
+     * Empieza a escuchar en address (puerto 0 para uno libre) en un hilo propio.
+     */
+    public MatchHost(MatchServer server, InetSocketAddress address) throws IOException {
+        this.server = server;
+        this.selector = Selector.open();
+        this.acceptor = ServerSocketChannel.open();
+        try {
+            acceptor.bind(address);
+            acceptor.configureBlocking(false);
+            acceptor.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            acceptor.close();
+            selector.close();
+            throw e;
+        }
+        this.loop = SimulationThreads.newThread(this::runLoop, "match-host");
+        loop.start();
+    }
+
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) acceptor.getLocalAddress();
+    }
+
+    public MatchServer getServer() {
+        return server;
+    }
+
+    // Clientes conectados en este momento
+    public int getConnections() {
+        return connections;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            loop.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runLoop() {
+        try {
+            while (running) {
+                selector.select();
+                Peer peer;
+                while ((peer = ready.poll()) != null) {
+                    peer.flush();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Peer owner = (Peer) key.attachment();
+                    if (key.isReadable()) {
+                        owner.read();
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        owner.flush();
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            Log.record(e);
+        } finally {
+            for (Peer peer : new ArrayList<>(peers)) {
+                peer.close();
+            }
+            try {
+                acceptor.close();
+                selector.close();
+            } catch (IOException e) {
+                Log.record(e);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = acceptor.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Peer peer = new Peer(channel);
+            peer.key = channel.register(selector, SelectionKey.OP_READ, peer);
+            peers.add(peer);
+            connections = peers.size();
+        }
+    }
+
+    // Marco completo listo para escribir
+    static byte[] frame(byte type, DeltaProtocol.Writer body) {
+        byte[] bytes = body.toByteArray();
+        return ByteBuffer.allocate(5 + bytes.length).putInt(1 + bytes.length).put(type).put(bytes).array();
+    }
+
+    static byte[] frame(byte type, byte[] body) {
+        return ByteBuffer.allocate(5 + body.length).putInt(1 + body.length).put(type).put(body).array();
+    }
+
+    /**
+     * Un cliente conectado. Lee y escribe solo en el hilo de red; como MatchListener
+     * lo llama el pool del servidor, que solo deja marcos en cola y avisa al Selector.
+     */
+    private class Peer implements MatchListener {
+        private final SocketChannel channel;
+        private SelectionKey key;
+        private ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE); // Siempre listo para leer
+        private final ConcurrentLinkedQueue<byte[]> frames = new ConcurrentLinkedQueue<>();
+        private final AtomicReference<byte[]> state = new AtomicReference<>();
+        private final AtomicBoolean queued = new AtomicBoolean();
+        private final ArrayDeque<byte[]> waiting = new ArrayDeque<>(); // No cupieron en out
+        private final DeltaSender sender = new DeltaSender();
+        private MatchConnection connection;
+        private boolean closing;
+
+        private Peer(SocketChannel channel) {
+            this.channel = channel;
+            out.flip();
+        }
+
+        @Override
+        public void stateChanged(MatchDelta delta) {
+            state.set(frame(STATE, sender.encode(delta.getSnapshot())));
+            schedule();
+        }
+
+        @Override
+        public void commandRejected(MatchInput command, String reason) {
+            DeltaProtocol.Writer body = new DeltaProtocol.Writer();
+            body.putLong(MatchInput.DELETE.equals(command.getAction()) ? DELETE : BUY);
+            body.putLong(command.getRow());
+            body.putLong(command.getCol());
+            body.putString(command.getType());
+            body.putString(reason);
+            frames.add(frame(REJECTED, body));
+            schedule();
+        }
+
+        private void schedule() {
+            if (queued.compareAndSet(false, true)) {
+                ready.add(this);
+                selector.wakeup();
+            }
+        }
+
+        private void read() {
+            try {
+                if (channel.read(in) < 0) {
+                    close();
+                    return;
+                }
+                in.flip();
+                while (in.remaining() >= 4) {
+                    int length = in.getInt(in.position());
+                    if (length <= 0 || length > MAX_FRAME) {
+                        throw new IOException("Invalid frame length " + length);
+                    }
+                    if (in.remaining() < 4 + length) {
+                        break;
+                    }
+                    in.getInt();
+                    ByteBuffer body = in.slice();
+                    body.limit(length);
+                    in.position(in.position() + length);
+                    handle(body.get(), body);
+                }
+                in.compact();
+                if (!in.hasRemaining()) {
+                    // Un marco más grande que el búfer: se agranda
+                    ByteBuffer bigger = ByteBuffer.allocateDirect(Math.min(in.capacity() * 2, MAX_FRAME + 4));
+                    in.flip();
+                    bigger.put(in);
+                    in = bigger;
+                }
+            } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException e) {
+                close();
+            }
+        }
+
+        private void handle(byte type, ByteBuffer body) throws IOException {
+            if (type == JOIN) {
+                int id = (int) DeltaProtocol.getLong(body);
+                String team = DeltaProtocol.getString(body);
+                MatchSession session = server.getSession(id);
+                if (connection != null) {
+                    fail("Already joined");
+                } else if (session == null) {
+                    fail("Unknown match " + id);
+                } else {
+                    try {
+                        connection = session.connect(team, this);
+                    } catch (RuntimeException e) {
+                        fail(e.getMessage());
+                    }
+                }
+            } else if (type == COMMANDS) {
+                if (connection == null) {
+                    fail("Join a match first");
+                    return;
+                }
+                long count = DeltaProtocol.getLong(body);
+                for (long i = 0; i < count; i++) {
+                    int action = (int) DeltaProtocol.getLong(body);
+                    int row = (int) DeltaProtocol.getLong(body);
+                    int col = (int) DeltaProtocol.getLong(body);
+                    String entity = DeltaProtocol.getString(body);
+                    command(action, row, col, entity);
+                }
+            } else if (type == ACK) {
+                sender.ack(DeltaProtocol.getLong(body));
+            } else {
+                fail("Unknown frame type " + type);
+            }
+        }
+
+        private void command(int action, int row, int col, String entity) {
+            try {
+                if (action == DELETE) {
+                    connection.shovel(row, col);
+                } else if (MatchConnection.ZOMBIES.equals(connection.getTeam())) {
+                    connection.zombie(row, entity);
+                } else {
+                    connection.plant(row, col, entity);
+                }
+            } catch (RuntimeException e) {
+                commandRejected(new MatchInput(-1, action == DELETE ? MatchInput.DELETE : MatchInput.BUY, row, col,
+                        entity), e.getMessage());
+            }
+        }
+
+        // Envía el motivo y cierra la conexión cuando termine de escribirse
+        private void fail(String reason) {
+            DeltaProtocol.Writer body = new DeltaProtocol.Writer();
+            body.putString(reason);
+            frames.add(frame(ERROR, body));
+            closing = true;
+            schedule();
+        }
+
+        // Pasa los marcos en cola al búfer de salida y escribe lo que el socket acepte
+        private void flush() {
+            queued.set(false);
+            if (!channel.isOpen()) {
+                return;
+            }
+            byte[] next;
+            while ((next = frames.poll()) != null) {
+                waiting.add(next);
+            }
+            byte[] latest = state.getAndSet(null);
+            if (latest != null) {
+                waiting.removeIf(frame -> frame[4] == STATE); // Basta con el estado más reciente
+                waiting.add(latest);
+            }
+            try {
+                while (true) {
+                    fill();
+                    if (!out.hasRemaining()) {
+                        break;
+                    }
+                    if (channel.write(out) == 0) {
+                        break; // El socket está lleno: se sigue cuando avise OP_WRITE
+                    }
+                }
+                boolean pending = out.hasRemaining() || !waiting.isEmpty();
+                if (!pending && closing) {
+                    close();
+                    return;
+                }
+                key.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        private void fill() {
+            out.compact();
+            try {
+                while (!waiting.isEmpty()) {
+                    byte[] frame = waiting.peek();
+                    if (frame.length > out.capacity()) {
+                        if (out.position() > 0) {
+                            break; // Primero se vacía lo que ya está en el búfer
+                        }
+                        out = ByteBuffer.allocateDirect(frame.length);
+                    }
+                    if (frame.length > out.remaining()) {
+                        break;
+                    }
+                    out.put(waiting.poll());
+                }
+            } finally {
+                out.flip();
+            }
+        }
+
+        private void close() {
+            if (connection != null) {
+                connection.close();
+                connection = null;
+            }
+            if (key != null) {
+                key.cancel();
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                Log.record(e);
+            }
+            peers.remove(this);
+            connections = peers.size();
+        }
+    }
+}
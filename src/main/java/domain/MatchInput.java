@@ -0,0 +1,58 @@
+package domain;
+
+/**
+ * Acción de un jugador humano sobre el tablero, con el tick en que se aplicó. Las
+ * acciones se aplican entre ticks bajo el candado de la partida, así que repetirlas
+ * en el mismo tick reproduce la partida exactamente.
+ */
+public class MatchInput {
+    public static final String ADD = "add"; // addEntity sin cobrar (p. ej. podadoras)
+    public static final String BUY = "buy"; // Carta arrastrada: cobra y coloca
+    public static final String DELETE = "delete"; // Pala
+
+    private final long tick;
+    private final String action;
+    private final int row;
+    private final int col;
+    private final String type;
+
+    public MatchInput(long tick, String action, int row, int col, String type) {
+        this.tick = tick;
+        this.action = action;
+        this.row = row;
+        this.col = col;
+        this.type = type;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getCol() {
+        return col;
+    }
+
+    // Tipo de entidad para ADD y BUY; null para DELETE
+    public String getType() {
+        return type;
+    }
+
+    // Vuelve a aplicar la acción sobre la partida
+    void applyTo(POOBvsZombies game) {
+        if (ADD.equals(action)) {
+            game.addEntity(row, col, type);
+        } else if (BUY.equals(action)) {
+            game.buyEntity(row, col, type);
+        } else if (DELETE.equals(action)) {
+            game.deleteEntity(row, col);
+        }
+    }
+}
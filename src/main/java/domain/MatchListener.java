@@ -0,0 +1,14 @@
+package domain;
+
+/**
+ * Cliente de una partida alojada en un {@link MatchServer}. Se invoca en el hilo
+ * del servidor que avanzó la partida, así que debe ser breve (p. ej. encolar el
+ * delta para enviarlo).
+ */
+public interface MatchListener {
+    // Cambios desde el último delta entregado a este cliente
+    public abstract void stateChanged(MatchDelta delta);
+
+    // El comando no se aplicó (sin recursos, casilla inválida, tipo no elegido...)
+    public abstract void commandRejected(MatchInput command, String reason);
+}
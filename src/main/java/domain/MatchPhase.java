@@ -0,0 +1,42 @@
+package domain;
+
+/**
+ * Fase de la partida (tiempo de plantar, ronda u horda) con su duración en segundos
+ * simulados. El SimulationEngine las recorre en orden y termina la partida tras la última.
+ */
+public class MatchPhase {
+    public static final String PLANTING = "Planting";
+    public static final String ROUND = "Round";
+    public static final String HORDE = "Horde";
+
+    private final String kind;
+    private final String message;
+    private final int duration;
+
+    public MatchPhase(String kind, String message, int duration) {
+        this.kind = kind;
+        this.message = message;
+        this.duration = duration;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    // Texto que muestra la interfaz durante la fase
+    public String getMessage() {
+        return message;
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+
+    public boolean isPlanting() {
+        return PLANTING.equals(kind);
+    }
+
+    public boolean isHorde() {
+        return HORDE.equals(kind);
+    }
+}
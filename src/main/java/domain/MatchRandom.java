@@ -0,0 +1,51 @@
+package domain;
+
+/**
+ * Generador aleatorio de una partida (algoritmo SplitMix64, el mismo núcleo de
+ * SplittableRandom). A diferencia de SplittableRandom su estado se puede leer y
+ * restaurar, así que los puntos de guardado y las repeticiones continúan la partida
+ * con exactamente los mismos números.
+ */
+public class MatchRandom {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long state;
+
+    public MatchRandom(long seed) {
+        this.state = seed;
+    }
+
+    public long nextLong() {
+        long z = (state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Entero uniforme en [0, bound). Descarta los valores que sesgarían el resultado,
+     * igual que java.util.Random.
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive: " + bound);
+        }
+        int r = (int) (nextLong() >>> 33);
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return (int) ((bound * (long) r) >> 31);
+        }
+        for (int u = r; u - (r = u % bound) + m < 0; u = (int) (nextLong() >>> 33)) {
+            // Reintentar
+        }
+        return r;
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state;
+    }
+}
@@ -0,0 +1,113 @@
+package domain;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grabación de una partida: un punto de guardado del momento en que empezó a grabarse
+ * y las acciones de los jugadores humanos desde entonces. Todo lo demás (máquinas,
+ * recursos, hordas) sale del generador de la partida, que viaja en el punto de
+ * guardado, así que {@link MatchReplay} la reproduce idéntica.
+ */
+public class MatchRecording {
+    public static final int MAGIC = 0x50565A52; // "PVZR"
+    public static final short VERSION = 1;
+
+    private final byte[] start;
+    private final List<MatchInput> inputs = new ArrayList<>();
+
+    MatchRecording(byte[] start) {
+        this.start = start;
+    }
+
+    // Punto de guardado inicial (formato de MatchCheckpoint)
+    byte[] getStart() {
+        return start;
+    }
+
+    synchronized void add(MatchInput input) {
+        inputs.add(input);
+    }
+
+    public synchronized List<MatchInput> getInputs() {
+        return new ArrayList<>(inputs);
+    }
+
+    /**
+     * Guarda la grabación: cabecera, punto de guardado inicial y las acciones.
+     */
+    public void save(Path file) throws IOException {
+        List<MatchInput> copy = getInputs();
+        ByteBuffer buffer = ByteBuffer.allocate(16 + start.length + copy.size() * 64);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putInt(start.length);
+        buffer.put(start);
+        buffer.putInt(copy.size());
+        for (MatchInput input : copy) {
+            byte[] action = input.getAction().getBytes(StandardCharsets.UTF_8);
+            byte[] type = input.getType() != null ? input.getType().getBytes(StandardCharsets.UTF_8) : new byte[0];
+            buffer.putLong(input.getTick());
+            buffer.put((byte) action.length).put(action);
+            buffer.putInt(input.getRow());
+            buffer.putInt(input.getCol());
+            buffer.put((byte) (input.getType() != null ? type.length : -1)).put(type);
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    public static MatchRecording load(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Leer hasta llenar el búfer
+            }
+        }
+        buffer.flip();
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("No es una grabación de POOBvsZombies: " + file);
+            }
+            short version = buffer.getShort();
+            if (version > VERSION) {
+                throw new IOException("Versión de grabación no soportada: " + version);
+            }
+            byte[] start = new byte[buffer.getInt()];
+            buffer.get(start);
+            MatchRecording recording = new MatchRecording(start);
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                long tick = buffer.getLong();
+                byte[] action = new byte[buffer.get()];
+                buffer.get(action);
+                int row = buffer.getInt();
+                int col = buffer.getInt();
+                int typeLength = buffer.get();
+                String type = null;
+                if (typeLength >= 0) {
+                    byte[] bytes = new byte[typeLength];
+                    buffer.get(bytes);
+                    type = new String(bytes, StandardCharsets.UTF_8);
+                }
+                recording.add(new MatchInput(tick, new String(action, StandardCharsets.UTF_8), row, col, type));
+            }
+            return recording;
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IOException("Grabación dañada: " + file, e);
+        }
+    }
+}
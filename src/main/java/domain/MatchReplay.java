@@ -0,0 +1,83 @@
+package domain;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reproduce una {@link MatchRecording} sin interfaz y tan rápido como permita la CPU:
+ * avanza el SimulationEngine tick a tick y aplica cada acción grabada en su tick.
+ * Cada KEYFRAME_INTERVAL ticks guarda un punto de guardado en memoria, así que
+ * buscar un tick anterior parte del cuadro clave más cercano en vez del inicio.
+ */
+public class MatchReplay {
+    public static final int KEYFRAME_INTERVAL = 300; // Ticks entre cuadros clave (10 s simulados)
+
+    private final List<MatchInput> inputs;
+    // Tick -> punto de guardado tomado antes de aplicar las acciones de ese tick
+    private final TreeMap<Long, byte[]> keyframes = new TreeMap<>();
+    private POOBvsZombies game;
+    private int nextInput;
+
+    public MatchReplay(MatchRecording recording) throws IOException {
+        this.inputs = recording.getInputs();
+        this.game = MatchCheckpoint.restore(ByteBuffer.wrap(recording.getStart()));
+        keyframes.put(getTick(), recording.getStart());
+    }
+
+    public POOBvsZombies getGame() {
+        return game;
+    }
+
+    public long getTick() {
+        return game.getSimulationEngine().getTickCount();
+    }
+
+    /**
+     * Deja la partida justo después del tick dado, o en su final si termina antes.
+     */
+    public void seek(long tick) {
+        if (tick < getTick()) {
+            Map.Entry<Long, byte[]> keyframe = keyframes.floorEntry(tick);
+            if (keyframe == null) {
+                keyframe = keyframes.firstEntry();
+            }
+            try {
+                game = MatchCheckpoint.restore(ByteBuffer.wrap(keyframe.getValue()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            nextInput = 0;
+            while (nextInput < inputs.size() && inputs.get(nextInput).getTick() < getTick()) {
+                nextInput++;
+            }
+        }
+        SimulationEngine engine = game.getSimulationEngine();
+        while (getTick() < tick && !engine.isGameOver()) {
+            long now = getTick();
+            if (now % KEYFRAME_INTERVAL == 0 && !keyframes.containsKey(now)) {
+                keyframes.put(now, MatchCheckpoint.capture(game));
+            }
+            while (nextInput < inputs.size() && inputs.get(nextInput).getTick() == now) {
+                inputs.get(nextInput++).applyTo(game);
+            }
+            engine.tick(SimulationEngine.FIXED_STEP);
+        }
+    }
+
+    // Reproduce hasta el final de la partida
+    public void runToEnd() {
+        seek(Long.MAX_VALUE);
+    }
+
+    public int getInputCount() {
+        return inputs.size();
+    }
+
+    public int getKeyframeCount() {
+        return keyframes.size();
+    }
+}
@@ -0,0 +1,56 @@
+package domain;
+
+/**
+ * Resultado de una partida simulada sin interfaz gráfica.
+ */
+public class MatchResult {
+    private final long seed;
+    private final String winner;
+    private final int plantsScore;
+    private final int zombiesScore;
+    private final double duration;
+    private final long ticks;
+    private final long wallTimeNanos;
+
+    public MatchResult(long seed, String winner, int plantsScore, int zombiesScore, double duration, long ticks,
+            long wallTimeNanos) {
+        this.seed = seed;
+        this.winner = winner;
+        this.plantsScore = plantsScore;
+        this.zombiesScore = zombiesScore;
+        this.duration = duration;
+        this.ticks = ticks;
+        this.wallTimeNanos = wallTimeNanos;
+    }
+
+    // Semilla con la que se puede repetir la partida
+    public long getSeed() {
+        return seed;
+    }
+
+    public String getWinner() {
+        return winner;
+    }
+
+    public int getPlantsScore() {
+        return plantsScore;
+    }
+
+    public int getZombiesScore() {
+        return zombiesScore;
+    }
+
+    // Duración de la partida en segundos simulados
+    public double getDuration() {
+        return duration;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    // Tiempo real que tomó simularla
+    public long getWallTimeNanos() {
+        return wallTimeNanos;
+    }
+}
@@ -0,0 +1,85 @@
+package domain;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Juega partidas MachineVsMachine completas sin interfaz gráfica, avanzando el
+ * SimulationEngine tan rápido como permita la CPU en lugar de esperar el reloj.
+ */
+public class MatchRunner {
+    private final float matchTime;
+    private final int hordersNumber;
+    private final int suns;
+    private final int brains;
+    private List<String> plantingOrder = PlantsIntelligent.DEFAULT_PLANTING_ORDER;
+    private List<String> zombieTypes = ZombiesOriginal.DEFAULT_ZOMBIE_TYPES;
+    private Path eventsDirectory;
+
+    /**
+     * @param matchTime     Duración en minutos, igual que en la ventana MachineVSMachine.
+     * @param hordersNumber Número de hordas.
+     * @param suns          Soles iniciales de las plantas.
+     * @param brains        Cerebros iniciales de los zombies.
+     */
+    public MatchRunner(float matchTime, int hordersNumber, int suns, int brains) {
+        this.matchTime = matchTime;
+        this.hordersNumber = hordersNumber;
+        this.suns = suns;
+        this.brains = brains;
+    }
+
+    /**
+     * Si se indica, cada partida exporta sus eventos a match-SEMILLA.ndjson.gz en la carpeta.
+     */
+    public void setEventsDirectory(Path eventsDirectory) {
+        this.eventsDirectory = eventsDirectory;
+    }
+
+    // Estrategias de las máquinas: orden de plantación y tipos de zombie de las hordas
+    public void setStrategies(List<String> plantingOrder, List<String> zombieTypes) {
+        PlantsIntelligent.validatePlantingOrder(plantingOrder);
+        ZombiesOriginal.validateZombieTypes(zombieTypes);
+        this.plantingOrder = plantingOrder;
+        this.zombieTypes = zombieTypes;
+    }
+
+    public MatchResult run() {
+        return run(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Juega una partida con la semilla dada; la misma semilla produce la misma partida.
+     */
+    public MatchResult run(long seed) {
+        long start = System.nanoTime();
+        POOBvsZombies game = new POOBvsZombies(matchTime, hordersNumber, suns, brains, plantingOrder, zombieTypes);
+        game.setSeed(seed);
+        game.placeLawnmowers();
+        SimulationEngine engine = game.getSimulationEngine();
+        try (MatchEventLog events = openEventLog(seed)) {
+            if (events != null) {
+                game.startEventLog(events);
+            }
+            while (!engine.isGameOver()) {
+                engine.tick(SimulationEngine.FIXED_STEP);
+            }
+            game.endGame(engine.getWinnerMessage());
+            game.stopEventLog();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new MatchResult(seed, game.getWinner(), game.getPlayerOne().getScore(), game.getPlayerTwo().getScore(),
+                engine.getElapsedTime(), engine.getTickCount(), System.nanoTime() - start);
+    }
+
+    private MatchEventLog openEventLog(long seed) throws IOException {
+        if (eventsDirectory == null) {
+            return null;
+        }
+        return new MatchEventLog(eventsDirectory.resolve("match-" + seed + ".ndjson.gz"));
+    }
+}
@@ -0,0 +1,80 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor de partidas PlayerVsPlayer: un solo proceso aloja muchas
+ * {@link MatchSession} y todas avanzan en un pool compartido de pocos hilos, en
+ * lugar de un bucle de simulación por partida. Los clientes se conectan a una
+ * sesión con {@link MatchSession#connect} y reciben {@link MatchDelta}; esta clase
+ * no sabe de red, así que en pruebas los clientes viven en el mismo proceso.
+ */
+public class MatchServer implements AutoCloseable {
+    private final ScheduledThreadPoolExecutor pool;
+    private final Map<Integer, MatchSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    public MatchServer() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public MatchServer(int threads) {
+        AtomicInteger created = new AtomicInteger();
+        this.pool = new ScheduledThreadPoolExecutor(threads,
+                task -> SimulationThreads.newThread(task, "match-server-" + created.incrementAndGet()));
+    }
+
+    /**
+     * Abre una partida PlayerVsPlayer con los mismos datos que la ventana
+     * PlayerVsPlayer y empieza a avanzarla de inmediato.
+     */
+    public MatchSession open(float matchTime, String plantsName, ArrayList<String> plants, int suns,
+            String zombiesName, int brains, ArrayList<String> zombies) {
+        POOBvsZombies game = new POOBvsZombies(matchTime, plantsName, plants, suns, zombiesName, brains, zombies);
+        game.placeLawnmowers();
+        return open(game);
+    }
+
+    // Aloja una partida ya preparada que todavía no se está avanzando
+    public MatchSession open(POOBvsZombies game) {
+        if (pool.isShutdown()) {
+            throw new IllegalStateException("The server is closed");
+        }
+        if (game.getSimulationEngine().isRunning()) {
+            throw new IllegalStateException("The match already has its own simulation loop");
+        }
+        MatchSession session = new MatchSession(nextId.getAndIncrement(), game, this);
+        sessions.put(session.getId(), session);
+        session.start(pool);
+        return session;
+    }
+
+    public MatchSession getSession(int id) {
+        return sessions.get(id);
+    }
+
+    // Partidas en curso, en orden de apertura
+    public List<MatchSession> getSessions() {
+        List<MatchSession> open = new ArrayList<>(sessions.values());
+        open.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+        return open;
+    }
+
+    void remove(MatchSession session) {
+        sessions.remove(session.getId());
+    }
+
+    // Cierra todas las partidas y detiene el pool
+    @Override
+    public void close() {
+        for (MatchSession session : getSessions()) {
+            session.close();
+        }
+        pool.shutdownNow();
+    }
+}
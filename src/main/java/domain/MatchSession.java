@@ -0,0 +1,263 @@
+package domain;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Una partida alojada en un {@link MatchServer}. No tiene hilo propio: cada tick es
+ * una tarea del pool del servidor que aplica los comandos encolados, avanza el
+ * SimulationEngine un FIXED_STEP, entrega los deltas y se vuelve a programar para el
+ * siguiente tick. También mide la latencia de cada tick (cuánto tarde empezó
+ * respecto a su hora) y su duración.
+ */
+public class MatchSession {
+    private final int id;
+    private final POOBvsZombies game;
+    private final SimulationEngine engine;
+    private final MatchServer server;
+    private final ConcurrentLinkedQueue<Command> commands = new ConcurrentLinkedQueue<>();
+    private final List<MatchConnection> connections = new CopyOnWriteArrayList<>();
+    private long next; // Hora (System.nanoTime) a la que le toca el siguiente tick
+    private volatile boolean closed;
+
+    // Métricas de los ticks
+    private long ticks;
+    private long totalLatency;
+    private long maxLatency;
+    private long totalTickTime;
+    private long maxTickTime;
+
+    // Comando de un cliente a la espera del siguiente tick
+    private static class Command {
+        private final MatchConnection connection;
+        private final MatchInput input;
+
+        private Command(MatchConnection connection, MatchInput input) {
+            this.connection = connection;
+            this.input = input;
+        }
+    }
+
+    MatchSession(int id, POOBvsZombies game, MatchServer server) {
+        this.id = id;
+        this.game = game;
+        this.engine = game.getSimulationEngine();
+        this.server = server;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public POOBvsZombies getGame() {
+        return game;
+    }
+
+    /**
+     * Conecta un cliente del equipo dado (MatchConnection.PLANTS, ZOMBIES o
+     * SPECTATOR). Su primer delta trae el tablero completo.
+     */
+    public MatchConnection connect(String team, MatchListener listener) {
+        if (closed) {
+            throw new IllegalStateException("The match is closed");
+        }
+        MatchConnection connection = new MatchConnection(this, team, listener);
+        connections.add(connection);
+        return connection;
+    }
+
+    void disconnect(MatchConnection connection) {
+        connections.remove(connection);
+    }
+
+    public List<MatchConnection> getConnections() {
+        return List.copyOf(connections);
+    }
+
+    int getEntryColumn() {
+        return game.getBoard().getEntryColumn();
+    }
+
+    long getTickCount() {
+        return engine.getTickCount();
+    }
+
+    void enqueue(MatchConnection connection, MatchInput input) {
+        commands.add(new Command(connection, input));
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    // Deja de avanzar la partida; el tick en curso, si lo hay, termina normalmente
+    public void close() {
+        closed = true;
+        server.remove(this);
+    }
+
+    void start(ScheduledExecutorService pool) {
+        next = System.nanoTime() + engine.getClock().getStepNanos();
+        reschedule(pool, System.nanoTime());
+    }
+
+    /**
+     * Un tick de la partida. Se programa solo una vez por tick, así que una partida
+     * nunca ocupa dos hilos. Si va atrasada no recupera con ráfagas: hace un tick y
+     * se vuelve a encolar detrás de las demás atrasadas, de modo que con el pool
+     * saturado las partidas se turnan y ninguna acapara los hilos.
+     */
+    private void run(ScheduledExecutorService pool) {
+        if (closed) {
+            return;
+        }
+        long start = System.nanoTime();
+        GameClock clock = engine.getClock();
+        long step = clock.getStepNanos();
+        if (clock.isPaused()) {
+            // En pausa no se mide ni se recupera el tiempo detenido
+            next = start + step;
+            reschedule(pool, start);
+            return;
+        }
+        long latency = Math.max(0, start - next);
+        try {
+            synchronized (game) {
+                applyCommands();
+                engine.tick(SimulationEngine.FIXED_STEP);
+            }
+            publish(engine.snapshot());
+        } catch (RuntimeException e) {
+            Log.record(e);
+        }
+        long end = System.nanoTime();
+        recordTick(latency, end - start);
+        if (engine.isGameOver()) {
+            game.endGame(engine.getWinnerMessage());
+            close();
+            return;
+        }
+        next += step;
+        if (end - next > 5 * step) {
+            next = end; // Muy atrasada: no intentar recuperar los ticks perdidos
+        }
+        reschedule(pool, end);
+    }
+
+    private void reschedule(ScheduledExecutorService pool, long now) {
+        if (!pool.isShutdown()) {
+            pool.schedule(() -> run(pool), Math.max(0, next - now), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Aplica los comandos en el orden de llegada, entre dos ticks
+    private void applyCommands() {
+        MatchContext previous = game.getContext().enter();
+        try {
+            Command command;
+            while ((command = commands.poll()) != null) {
+                String reason = apply(command);
+                if (reason != null) {
+                    command.connection.getListener().commandRejected(command.input, reason);
+                }
+            }
+        } finally {
+            MatchContext.leave(previous);
+        }
+    }
+
+    // Retorna por qué no se aplicó el comando, o null si se aplicó
+    private String apply(Command command) {
+        MatchInput input = command.input;
+        Board board = game.getBoard();
+        if (!board.isInside(input.getRow(), input.getCol())) {
+            return POOBvsZombiesException.INVALID_COORDINATES;
+        }
+        try {
+            if (MatchInput.DELETE.equals(input.getAction())) {
+                if (input.getCol() == 0) {
+                    return POOBvsZombiesException.INVALID_LAWNMOWER;
+                }
+                if (input.getCol() >= board.getEntryColumn() || game.getPlantAt(input.getRow(), input.getCol()) == null) {
+                    return POOBvsZombiesException.NO_PLANT_TO_REMOVE;
+                }
+                game.deleteEntity(input.getRow(), input.getCol());
+                return null;
+            }
+            Team team = (MatchConnection.PLANTS.equals(command.connection.getTeam()) ? game.getPlayerOne()
+                    : game.getPlayerTwo()).getTeam();
+            if (!team.getCharacters().contains(input.getType())) {
+                return "Not available for the " + command.connection.getTeam() + " player: " + input.getType();
+            }
+            if (!game.buyEntity(input.getRow(), input.getCol(), input.getType())) {
+                return "Not enough resources for " + input.getType();
+            }
+            return null;
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Entrega a cada cliente lo que cambió desde su último delta. Los clientes con
+     * la misma instantánea base comparten el delta, que se calcula una sola vez.
+     */
+    private void publish(BoardSnapshot snapshot) {
+        Map<BoardSnapshot, MatchDelta> deltas = new IdentityHashMap<>();
+        MatchDelta full = null;
+        for (MatchConnection connection : connections) {
+            BoardSnapshot baseline = connection.getBaseline();
+            MatchDelta delta;
+            if (baseline == null) {
+                if (full == null) {
+                    full = MatchDelta.between(null, snapshot);
+                }
+                delta = full;
+            } else {
+                delta = deltas.computeIfAbsent(baseline, base -> MatchDelta.between(base, snapshot));
+            }
+            connection.setBaseline(snapshot);
+            try {
+                connection.getListener().stateChanged(delta);
+            } catch (RuntimeException e) {
+                // Un cliente que falla no detiene la partida de los demás
+                Log.record(e);
+            }
+        }
+    }
+
+    private synchronized void recordTick(long latency, long tickTime) {
+        ticks++;
+        totalLatency += latency;
+        maxLatency = Math.max(maxLatency, latency);
+        totalTickTime += tickTime;
+        maxTickTime = Math.max(maxTickTime, tickTime);
+    }
+
+    public synchronized long getTicks() {
+        return ticks;
+    }
+
+    // Retraso medio con el que empezaron los ticks respecto a su hora programada
+    public synchronized long getMeanLatencyNanos() {
+        return ticks == 0 ? 0 : totalLatency / ticks;
+    }
+
+    public synchronized long getMaxLatencyNanos() {
+        return maxLatency;
+    }
+
+    // Tiempo medio de un tick: comandos, simulación y deltas
+    public synchronized long getMeanTickNanos() {
+        return ticks == 0 ? 0 : totalTickTime / ticks;
+    }
+
+    public synchronized long getMaxTickNanos() {
+        return maxTickTime;
+    }
+}
@@ -1,40 +1,46 @@
 package domain;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.Map;
-import java.util.Queue;
-
-import javax.swing.Timer;
+import java.util.List;
 
 import presentation.GardenMenu;
-import presentation.POOBvsZombiesGUI;
 
 public class POOBvsZombies {
+    public static final int ROWS = 5;
+    public static final int COLUMNS = 10;
+
     private String modality;
     private String winner; 
     private float roundTime;
     private float matchTime;
-    private ArrayList<Player> players;
-    private ArrayList<ArrayList<Object>> entities; 
-
-    // Singleton instance
-    private static POOBvsZombies instance;
+    private ArrayList<MatchPhase> phases = new ArrayList<>();
+    // Proyectiles en vuelo y recursos tirados sobre el tablero
+    private ArrayList<ProjectTile> projectiles = new ArrayList<>();
+    private ArrayList<Resource> resources = new ArrayList<>();
+    private int nextEntityId = 1;
 
-    // Mapa para gestionar timers individuales por entidad
-    private Map<Entity, Timer> entityTimers = new HashMap<>();
+    // Tablero, jugadores, reloj, planificador y azar de esta partida
+    private final MatchContext context;
+    // Motor que avanza la partida en un único bucle de paso fijo
+    private final SimulationEngine engine;
 
     // Referencia a GardenMenu
     private GardenMenu gardenMenu;
 
+    // Registro de eventos para exportar, o null si no se está registrando
+    private MatchEventLog eventLog;
+
+    // Acciones de los jugadores humanos para repetir la partida, o null si no se graban
+    private MatchRecording recording;
+
     // Constructors
     public POOBvsZombies(float matchTimeInSeconds, String namePlayerOne, ArrayList<String> plants, int sunAmount, String namePlayerTwo, int brainAmount, ArrayList<String> zombies) {
-        this.players = new ArrayList<Player>();
-        this.entities = new ArrayList<ArrayList<Object>>();
+        ArrayList<Player> players = new ArrayList<Player>();
 
-        this.players.add(new ZombiesStrategic(namePlayerOne, sunAmount, plants));
-        this.players.add(new PlantsStrategic(namePlayerTwo, brainAmount, zombies));
+        players.add(new ZombiesStrategic(namePlayerOne, sunAmount, plants));
+        players.add(new PlantsStrategic(namePlayerTwo, brainAmount, zombies));
+        this.context = new MatchContext(players);
+        this.engine = new SimulationEngine(this);
 
         this.modality = "PlayerVsPlayer";
         this.winner = "";
@@ -42,56 +48,81 @@ public class POOBvsZombies {
         this.matchTime = setMatchTime(matchTimeInSeconds);
         this.roundTime = this.matchTime / 2;
         setUpEntities();
-
-        instance = this;
+        setUpPhases();
     }
 
     // player vs machine
     public POOBvsZombies(float matchTimeInSeconds,int hordersNumber, String namePlayerOne, ArrayList<String> plants) {
-        this.players = new ArrayList<Player>();
-        this.entities = new ArrayList<ArrayList<Object>>();
+        ArrayList<Player> players = new ArrayList<Player>();
 
-        this.players.add(new PlantsStrategic(namePlayerOne, 50, plants));
-        this.players.add(new ZombiesOriginal(hordersNumber, matchTimeInSeconds));
+        players.add(new PlantsStrategic(namePlayerOne, 50, plants));
+        players.add(new ZombiesOriginal(hordersNumber, matchTimeInSeconds));
+        this.context = new MatchContext(players);
+        this.engine = new SimulationEngine(this);
 
+        // Las hordas automáticas las avanza el SimulationEngine en cada tick
         this.modality = "PlayerVsMachine";
         this.winner = "";
 
         this.matchTime = setMatchTime(matchTimeInSeconds);
         this.roundTime = this.matchTime / 2;
         setUpEntities();
-
-        ((ZombiesOriginal) players.get(1)).startAutomaticHordes(this);
-
-        instance = this;
+        setUpPhases();
     }
 
     
     
+    public POOBvsZombies(float matchTimeInSeconds, int hordersNumber, int suns, int brains, long seed) {
+        this(matchTimeInSeconds, hordersNumber, suns, brains);
+        setSeed(seed);
+    }
+
     public POOBvsZombies(float matchTimeInSeconds, int hordersNumber, int suns, int brains) {
-        this.players = new ArrayList<Player>();
-        this.entities = new ArrayList<ArrayList<Object>>();
+        this(matchTimeInSeconds, hordersNumber, suns, brains, PlantsIntelligent.DEFAULT_PLANTING_ORDER,
+                ZombiesOriginal.DEFAULT_ZOMBIE_TYPES);
+    }
 
-        this.players.add(new PlantsIntelligent(suns));
-        this.players.add(new ZombiesOriginal(hordersNumber, matchTimeInSeconds, MachinePlayer.ORIGINAL_ZOMBIES, brains));
+    /**
+     * MachineVsMachine con estrategias propias: el orden de plantación de
+     * PlantsIntelligent y los tipos de zombie de las hordas de ZombiesOriginal.
+     */
+    public POOBvsZombies(float matchTimeInSeconds, int hordersNumber, int suns, int brains, List<String> plantingOrder,
+            List<String> zombieTypes) {
+        ArrayList<Player> players = new ArrayList<Player>();
 
+        players.add(new PlantsIntelligent(suns, plantingOrder));
+        players.add(new ZombiesOriginal(hordersNumber, matchTimeInSeconds, MachinePlayer.ORIGINAL_ZOMBIES, brains,
+                zombieTypes));
+        this.context = new MatchContext(players);
+        this.engine = new SimulationEngine(this);
+
+        // La plantación y las hordas automáticas las avanza el SimulationEngine en cada tick
         this.modality = "MachineVsMachine";
         this.winner = "";
 
         this.matchTime = setMatchTime(matchTimeInSeconds);
         this.roundTime = this.matchTime / 2;
         setUpEntities();
+        setUpPhases();
+    }
 
-
-        ((PlantsIntelligent) players.get(0)).startAutomaticPlanting(this);
-        ((ZombiesOriginal) players.get(1)).startAutomaticHordes(this);
-
-        instance = this;
+    // Partida restaurada desde un MatchCheckpoint: sin fases ni entidades, las agrega quien restaura
+    POOBvsZombies(String modality, ArrayList<Player> players, float matchTime, float roundTime, int rows, int columns) {
+        this.context = new MatchContext(players);
+        this.engine = new SimulationEngine(this);
+        this.modality = modality;
+        this.winner = "";
+        this.matchTime = matchTime;
+        this.roundTime = roundTime;
+        setUpEntities(rows, columns);
     }
 
-    // Método para obtener la instancia Singleton
-    public static POOBvsZombies getInstance() {
-        return instance;
+    /**
+     * Estado propio de esta partida. Cada POOBvsZombies tiene el suyo; ya no existe
+     * una instancia global.
+     */
+    public MatchContext getContext() {
+        return context;
     }
     
     public Zombie createZombieInstance(String zombieType) {
@@ -128,36 +159,10 @@ public class POOBvsZombies {
         }
     }
 
-    public void spawnZombieUI(int row, int col, Zombie zombie) {
-        // Asegurarnos que gardenMenu no sea nulo
-        if (gardenMenu != null) {
-            gardenMenu.spawnZombieAutomatically(row, col, zombie);
-        }
-    }
-    
-    /**
-     * Método para visualizar una planta automáticamente en la interfaz gráfica.
-     *
-     * @param row   Fila donde se coloca la planta.
-     * @param col   Columna donde se coloca la planta.
-     * @param plant Instancia de la planta a visualizar.
-     */
-    public void spawnPlantUI(int row, int col, Plant plant) {
-        // Asegurarse de que gardenMenu no sea nulo
-        if (gardenMenu != null) {
-            gardenMenu.spawnPlantAutomatically(row, col, plant);
-        }
-    }
-
     public int calculateProgress(){
         return 0;
     }
 
-    private Timer setRoundTime(int minutes) {
-        int milliseconds = minutes * 60 * 1000;
-        return new Timer(milliseconds, null);
-    }
-
     private float setMatchTime(float seconds) {
         return seconds * 60;
     }
@@ -167,8 +172,8 @@ public class POOBvsZombies {
     }
     
     public int getHordersNumber() {
-        if (players.size() > 1 && players.get(1) instanceof ZombiesOriginal) {
-            ZombiesOriginal zombiesOriginal = (ZombiesOriginal) players.get(1);
+        if (getPlayers().size() > 1 && getPlayers().get(1) instanceof ZombiesOriginal) {
+            ZombiesOriginal zombiesOriginal = (ZombiesOriginal) getPlayers().get(1);
             return zombiesOriginal.getHordersNumber();
         }
         return 0; 
@@ -178,38 +183,76 @@ public class POOBvsZombies {
         return modality;
     }
 
+    public String getWinner() {
+        return winner;
+    }
+
+    void setWinner(String winner) {
+        this.winner = winner;
+    }
+
+    int getNextEntityId() {
+        return nextEntityId;
+    }
+
+    void setNextEntityId(int nextEntityId) {
+        this.nextEntityId = nextEntityId;
+    }
+
+    List<Player> getPlayers() {
+        return context.getPlayers();
+    }
+
+    public long getSeed() {
+        return context.getSeed();
+    }
+
+    // Reinicia el generador; debe llamarse antes de empezar la partida
+    public void setSeed(long seed) {
+        context.setSeed(seed);
+    }
+
+    // Generador de la partida: filas de las hordas, tipos de zombie y recursos del cielo
+    public MatchRandom getRandom() {
+        return context.getRandom();
+    }
+
+    public List<MatchPhase> getPhases() {
+        return phases;
+    }
+
     public float getMatchTime() {
         return matchTime;
     }
 
     public Player getPlayerOne(){
-        return players.get(0);
+        return getPlayers().get(0);
     }
 
     public Player getPlayerTwo(){
-        return players.get(1);
+        return getPlayers().get(1);
     }
 
     public void calculateScores() {
         // Jugador 1 (Plantas)
-        Player plantsPlayer = players.get(0);
+        Player plantsPlayer = getPlayers().get(0);
         int plantsResources = plantsPlayer.getTeam().getResourceCounterAmount(); // Recursos actuales
-        int plantsValue = calculateEntitiesValue(entities, true); // Sumar valor de las plantas en el tablero
+        int plantsValue = getBoard().getPlantsValue(); // Sumar valor de las plantas en el tablero
         int plantsScore = (int) ((plantsResources + plantsValue) * 1.5); // Multiplicar por 1.5
         plantsPlayer.setScore(plantsScore);
     
         // Jugador 2 (Zombies)
-        Player zombiesPlayer = players.get(1);
+        Player zombiesPlayer = getPlayers().get(1);
         int zombiesResources = zombiesPlayer.getTeam().getResourceCounterAmount(); // Recursos actuales
-        int zombiesValue = calculateEntitiesValue(entities, false); // Sumar valor de los zombies en el tablero
+        int zombiesValue = getBoard().getZombiesValue(); // Sumar valor de los zombies en el tablero
         int zombiesScore = (zombiesResources + zombiesValue); // Sin multiplicar por 1.5
         zombiesPlayer.setScore(zombiesScore);
     }
     
     
     public String determineWinner() {
-        Player plantsPlayer = players.get(0);
-        Player zombiesPlayer = players.get(1);
+        Player plantsPlayer = getPlayers().get(0);
+        Player zombiesPlayer = getPlayers().get(1);
     
         int plantsScore = plantsPlayer.getScore();
         int zombiesScore = zombiesPlayer.getScore();
@@ -229,49 +272,191 @@ public class POOBvsZombies {
     
 
     public void endGame(String winnerMessage) {
+        engine.stop();
         calculateScores(); // Calcula los puntajes finales
+        recordEvent(MatchEventLog.SCORE, getPlayers().get(0).getName(), getPlayers().get(0).getScore());
+        recordEvent(MatchEventLog.SCORE, getPlayers().get(1).getName(), getPlayers().get(1).getScore());
+        // Sin ventana (partidas por lotes) no hay nada más que mostrar
         if (gardenMenu != null) {
             gardenMenu.showWinnerMessage(winnerMessage);
         }
-        POOBvsZombiesGUI pooBvsZombiesGUI = new POOBvsZombiesGUI();
-        pooBvsZombiesGUI.setVisible(true);
-    }
-
-    private int calculateEntitiesValue(ArrayList<ArrayList<Object>> entities, boolean isPlant) {
-        int totalValue = 0;
-        for (ArrayList<Object> row : entities) {
-            for (Object obj : row) {
-                if (obj instanceof Plant && isPlant) {
-                    totalValue += ((Plant) obj).getCost(); // Sumar costo de la planta
-                } else if (obj instanceof Zombie && !isPlant) {
-                    totalValue += ((Zombie) obj).getCost(); // Sumar costo del zombie
+    }
+
+    // Los zombies llegaron a una casa sin podadora: ganan sin importar el puntaje
+    String zombiesReachedHouse() {
+        winner = getPlayers().get(1).getName();
+        return "¡Los zombies han ganado! Llegaron a la casa.";
+    }
+
+    public void setUpEntities() {
+        setUpEntities(ROWS, COLUMNS);
+    }
+
+    // Tablero vacío de las dimensiones dadas; la última columna es la entrada de los zombies
+    public void setUpEntities(int rows, int columns) {
+        context.setBoard(new Board(rows, columns));
+    }
+
+    // Fases de la partida según la modalidad (antes los temporizadores de GardenMenu)
+    private void setUpPhases() {
+        if ("PlayerVsPlayer".equals(modality)) {
+            phases.add(new MatchPhase(MatchPhase.PLANTING, "Planting time 1", Plants.PLANTING_TIME));
+            phases.add(new MatchPhase(MatchPhase.ROUND, "Round time", (int) roundTime));
+            phases.add(new MatchPhase(MatchPhase.PLANTING, "Planting time 2", Plants.PLANTING_TIME));
+            phases.add(new MatchPhase(MatchPhase.ROUND, "Last round", (int) roundTime));
+        } else {
+            // Primero, 20 segundos para colocar plantas
+            phases.add(new MatchPhase(MatchPhase.PLANTING, "Planting time", 20));
+
+            // Dividir el tiempo de la partida entre el número de hordas
+            int matchTimeInSeconds = (int) matchTime;
+            int hordersNumber = getHordersNumber();
+            for (int i = 1; i <= hordersNumber; i++) {
+                int duration = matchTimeInSeconds / hordersNumber;
+                if (i <= matchTimeInSeconds % hordersNumber) {
+                    duration += 1; // Distribuir segundos sobrantes
                 }
+                phases.add(new MatchPhase(MatchPhase.HORDE, "Horda " + i, duration));
             }
         }
-        return totalValue;
     }
-    
-    
-    public void setUpEntities() {
-        for (int i = 0; i < 5; i++) {
-            ArrayList<Object> row = new ArrayList<Object>();
-            for (int j = 0; j < 10; j++) {
-                if (j == 9) {
-                    row.add(new LinkedList<Zombie>()); // Cola de zombies
-                } else {
-                    row.add(null); // una sola entidad o null
+
+    // Coloca una podadora al inicio de cada fila, como hace el tablero de GardenMenu
+    public void placeLawnmowers() {
+        for (int row = 0; row < getBoard().getRows(); row++) {
+            addEntity(row, 0, "LownMover");
+        }
+    }
+
+    /**
+     * Recursos que caen del cielo cada Team.RESOURCE_GENERATION_TIME segundos según
+     * la modalidad y la fase actual.
+     */
+    void dropSkyResources(MatchPhase phase, int row, int col) {
+        if ("PlayerVsPlayer".equals(modality)) {
+            // Planting time -> soles, Round time/Last round -> cerebros
+            dropResource(row, col, getResourcePool().obtain(phase.isPlanting() ? Resource.SOL : Resource.BRAIN));
+        } else if ("PlayerVsMachine".equals(modality)) {
+            dropResource(row, col, getResourcePool().obtain(Resource.SOL));
+        } else if ("MachineVsMachine".equals(modality)) {
+            dropResource(row, col, getResourcePool().obtain(Resource.SOL));
+            dropResource(row, col, getResourcePool().obtain(Resource.BRAIN));
+        }
+    }
+
+    /**
+     * Empieza a registrar los eventos de la partida. Primero anota como STATE cada
+     * entidad que ya está en el tablero, para que el archivo se entienda solo.
+     */
+    public synchronized void startEventLog(MatchEventLog log) {
+        eventLog = log;
+        for (int row = 0; row < getBoard().getRows(); row++) {
+            if (getBoard().getLawnmower(row) != null) {
+                recordEvent(MatchEventLog.STATE, getBoard().getLawnmower(row), 0, 0);
+            }
+            for (int col = 0; col < getBoard().getColumns(); col++) {
+                Plant plant = getBoard().getPlant(row, col);
+                if (plant != null) {
+                    recordEvent(MatchEventLog.STATE, plant, col, plant.getHealth());
+                }
+            }
+            for (Zombie zombie : getBoard().getZombies(row)) {
+                if (!zombie.isDead()) {
+                    recordEvent(MatchEventLog.STATE, zombie, zombie.getX(), zombie.getHealth());
                 }
             }
-            entities.add(row);
         }
+        for (ProjectTile projectTile : projectiles) {
+            recordEvent(MatchEventLog.STATE, projectTile, projectTile.getX(), projectTile.getDamage());
+        }
+        for (Resource resource : resources) {
+            recordEvent(MatchEventLog.STATE, resource, resource.getCol(), resource.getValue());
+        }
+        engine.resetEventTracking();
+    }
+
+    // Deja de registrar y retorna el registro para que quien lo abrió lo cierre
+    public synchronized MatchEventLog stopEventLog() {
+        MatchEventLog log = eventLog;
+        eventLog = null;
+        return log;
+    }
+
+    boolean isRecordingEvents() {
+        return eventLog != null;
+    }
+
+    void recordEvent(String event, Entity entity, double x, int value) {
+        if (eventLog != null) {
+            eventLog.record(engine.getTickCount(), event, entity.getId(), entity.getName(), entity.getRow(), x, value);
+        }
+    }
+
+    void recordEvent(String event, String name, int value) {
+        if (eventLog != null) {
+            eventLog.record(engine.getTickCount(), event, 0, name, -1, 0, value);
+        }
+    }
+
+    /**
+     * Empieza a grabar la partida: guarda su estado actual y desde ahí cada acción
+     * hecha con addEntity(String), buyEntity o deleteEntity junto con su tick.
+     */
+    public synchronized MatchRecording startRecording() {
+        recording = new MatchRecording(MatchCheckpoint.capture(this));
+        return recording;
     }
 
-    public void addEntity(int lane, int yPos, String entityType) {
+    public synchronized MatchRecording stopRecording() {
+        MatchRecording stopped = recording;
+        recording = null;
+        return stopped;
+    }
+
+    // Anota una acción ya aplicada con el tick en que ocurrió
+    private void recordInput(String action, int row, int col, String type) {
+        if (recording != null) {
+            recording.add(new MatchInput(engine.getTickCount(), action, row, col, type));
+        }
+    }
+
+    // Si algún zombie sigue en la casilla de entrada de la fila, donde aparecen los nuevos
+    public synchronized boolean isEntryOccupied(int lane) {
+        Board board = getBoard();
+        return board.hasZombieBeyond(lane, board.getEntryColumn() - 1);
+    }
+
+    public synchronized void addEntity(int lane, int yPos, String entityType) {
         Entity entity = createEntity(entityType);
         addEntity(lane, yPos, entity);
+        recordInput(MatchInput.ADD, lane, yPos, entityType);
+    }
+
+    /**
+     * Compra y coloca una planta o un zombie: cobra el costo al equipo que le
+     * corresponde y retorna false, sin colocar nada, si no le alcanza.
+     */
+    public synchronized boolean buyEntity(int lane, int yPos, String entityType) {
+        Entity entity = createEntity(entityType);
+        if (!(entity instanceof Character)) {
+            throw new IllegalArgumentException("Only plants and zombies can be bought: " + entityType);
+        }
+        int cost = ((Character) entity).getCost();
+        Team team = getPlayers().get(entity instanceof Zombie ? 1 : 0).getTeam();
+        if (!team.tryDeduct(cost)) {
+            return false;
+        }
+        try {
+            addEntity(lane, yPos, entity);
+        } catch (RuntimeException e) {
+            team.add(cost); // Devolver lo cobrado si la casilla no era válida
+            throw e;
+        }
+        recordInput(MatchInput.BUY, lane, yPos, entityType);
+        return true;
     }
     
-    private Entity createEntity(String entityType) {
+    Entity createEntity(String entityType) {
         switch (entityType) {
             case "Basic": return new Basic();
             case "Brainstein": return new Brainstein();
@@ -289,70 +474,70 @@ public class POOBvsZombies {
         }
     }
 
-    public void addEntity(int lane, int yPos, Entity entity) {
-        if (lane < 0 || lane >= 5 || yPos < 0 || yPos >= 10) {
+    public synchronized void addEntity(int lane, int yPos, Entity entity) {
+        if (!getBoard().isInside(lane, yPos)) {
             throw new IndexOutOfBoundsException("Invalid lane or yPos");
         }
-    
-        if (yPos < 9) {
-            entities.get(lane).set(yPos, entity);
-            if (entity instanceof Plant) {
-                Player plantsPlayer = players.get(0);
-                plantsPlayer.setScore(plantsPlayer.getScore() + ((Plant) entity).getCost());
-            } else if (entity instanceof Zombie) {
-                Player zombiesPlayer = players.get(1);
-                zombiesPlayer.setScore(zombiesPlayer.getScore() + ((Zombie) entity).getCost());
-            }
-        } else {
-            // Última columna: agregamos cola de zombies
-            if (entity instanceof Zombie) {
-                Queue<Zombie> queue = getZombieQueue(lane, 9);
-                queue.offer((Zombie) entity);
-               // Sumar costo del zombie al puntaje de OZombies
-                Player zombiesPlayer = players.get(1); // OZombies es siempre el segundo jugador
-                zombiesPlayer.addToScore(((Zombie) entity).getCost());
-                gardenMenu.updateScoreLabels(); // Actualizar los puntajes visuales
-            } else {
-                throw new IllegalArgumentException("Only zombies can be added to the last column");
-            }
+        if (yPos == getBoard().getEntryColumn() && !(entity instanceof Zombie)) {
+            throw new IllegalArgumentException("Only zombies can be added to the last column");
+        }
+        register(entity, lane, yPos, entityName(entity));
+
+        if (entity instanceof Zombie) {
+            // Los zombies avanzan por la fila desde la columna donde aparecen
+            Zombie zombie = (Zombie) entity;
+            zombie.setX(yPos);
+            getBoard().addZombie(lane, zombie);
+            Player zombiesPlayer = getPlayers().get(1); // OZombies es siempre el segundo jugador
+            zombiesPlayer.addToScore(zombie.getCost());
+            recordEvent(MatchEventLog.SPAWN, zombie, yPos, zombie.getCost());
+        } else if (entity instanceof Plant) {
+            getBoard().setPlant(lane, yPos, (Plant) entity);
+            Player plantsPlayer = getPlayers().get(0);
+            plantsPlayer.setScore(plantsPlayer.getScore() + ((Plant) entity).getCost());
+            recordEvent(MatchEventLog.PLANT, entity, yPos, ((Plant) entity).getCost());
+        } else if (entity instanceof Lownmover) {
+            getBoard().setLawnmower(lane, (Lownmover) entity);
         }
+        engine.entityAdded(entity);
     }
     
 
-    public void deleteEntity(int xPos, int yPos) {
-        if (xPos<0||xPos>=5||yPos<0||yPos>=10) throw new IndexOutOfBoundsException("Invalid xPos or yPos");
-        if (yPos<9) {
-            entities.get(xPos).set(yPos, null);
-            
+    // Asigna identificador y posición a una entidad que entra al tablero
+    private void register(Entity entity, int row, int col, String name) {
+        entity.setId(nextEntityId++);
+        entity.setPosition(row, col, name);
+    }
+
+    public synchronized void deleteEntity(int xPos, int yPos) {
+        if (!getBoard().isInside(xPos, yPos)) throw new IndexOutOfBoundsException("Invalid xPos or yPos");
+        if (yPos < getBoard().getEntryColumn()) {
+            removeEntity(xPos, yPos);
         } else {
-            // Si borramos aqui, significaría limpiar cola
-            Queue<Zombie> q = getZombieQueue(xPos,9);
-            q.clear();
+            // Si borramos aqui, significaría limpiar la fila de zombies
+            removeZombiesInRow(xPos);
         }
+        recordInput(MatchInput.DELETE, xPos, yPos, null);
     }
 
-    @SuppressWarnings("unchecked")
-    private Queue<Zombie> getZombieQueue(int row, int col) {
-        return (Queue<Zombie>) entities.get(row).get(col);
+    public Board getBoard() {
+        return context.getBoard();
     }
 
-    public String getEntity(int xPos, int yPos) {
-        if (xPos<0||xPos>=5||yPos<0||yPos>=10) return null;
-        if (yPos<9) {
-            Object obj = entities.get(xPos).get(yPos);
-            Entity entity = (Entity)obj;
-            return entityName(entity);
+    public synchronized String getEntity(int xPos, int yPos) {
+        if (!getBoard().isInside(xPos, yPos)) return null;
+        if (yPos < getBoard().getEntryColumn()) {
+            if (yPos == 0 && getBoard().getLawnmower(xPos) != null) {
+                return entityName(getBoard().getLawnmower(xPos));
+            }
+            return entityName(getBoard().getPlant(xPos, yPos));
         } else {
-            // última columna
-            Queue<Zombie> q = getZombieQueue(xPos,yPos);
-            if (q.isEmpty()) return null;
-            // Por si quisieramos el primer zombi del queue:
-            Zombie z = q.peek();
-            return entityName(z);
+            // última columna: el zombie más adelantado de la fila
+            return entityName(getBoard().getFrontZombie(xPos));
         }
     }
 
-    private String entityName(Entity entity) {
+    String entityName(Entity entity) {
         if (entity==null) return null;
         if (entity instanceof Basic) return "Basic";
         if (entity instanceof Brainstein) return "Brainstein";
@@ -370,31 +555,30 @@ public class POOBvsZombies {
 
     /**
      * Encuentra la planta más cercana hacia la última columna en la fila dada.
-     * Recorre de col=8 a col=0, si encuentra una planta retorna esa col.
-     * Si no encuentra, retorna -1
+     * Si no encuentra, retorna -1. Lee el frente que mantiene el tablero, sin candado.
      */
     public int getFirstPlantInRow(int row) {
-        for (int col = 8; col >= 0; col--) {
-            Object obj = entities.get(row).get(col);
-            if (obj instanceof Plant) {
-                return col;
-            }
-        }
-        return -1;
+        return getBoard().getFirstPlantColumn(row);
     }
 
-    public Plant getPlantAt(int row, int col) {
-        if (row<0||row>=5||col<0||col>=9) return null; // En la ultima col no hay plantas
-        Object obj = entities.get(row).get(col);
-        if (obj instanceof Plant) {
-            return (Plant)obj;
-        }
-        return null;
+    // Zombie vivo más cercano a la casa en la fila, o null. Tampoco toma el candado
+    public Zombie getFirstZombieInRow(int row) {
+        return getBoard().getFrontZombie(row);
+    }
+
+    public synchronized Plant getPlantAt(int row, int col) {
+        return getBoard().getPlant(row, col); // En la ultima col no hay plantas
     }
     
-    public void removeEntity(int row, int col) {
-        if (row<0||row>=5||col<0||col>=10) return;
-        entities.get(row).set(col,null);
+    public synchronized void removeEntity(int row, int col) {
+        if (!getBoard().isInside(row, col) || col == getBoard().getEntryColumn()) return;
+        Plant plant = getBoard().removePlant(row, col);
+        if (plant != null) {
+            recordEvent(MatchEventLog.DEATH, plant, col, plant.getCost());
+            engine.forget(plant);
+        } else if (col == 0) {
+            getBoard().takeLawnmower(row);
+        }
     }
 
     // public void addEntity(int lane, int yPos, String entityType) {
@@ -506,26 +690,70 @@ public class POOBvsZombies {
     //     return null;
     // }
 
-    public ArrayList<ArrayList<Object>> getEntitiesMatrix() {
-        return entities;
-    }
 
     // Método para añadir recursos extra para la ECIPlant cuando el jugador se queda sin soles
-    public void addPendingExtraResources(int row, int col, int count, int value, String type) {
+    public synchronized void addPendingExtraResources(int row, int col, int count, int value, String type) {
         for(int i =0; i < count; i++) {
-            Resource resource = new Resource(type, value);
+            Resource resource = getResourcePool().obtain(type, value);
             spawnSpecificResource(row, col, resource);
         }
     }
 
     // Método para colocar un recurso específico en la posición (row, col)
     public void spawnSpecificResource(int row, int col, Resource resource) {
-        if (gardenMenu != null) {
-            gardenMenu.spawnSpecificResource(row, col, resource);
+        dropResource(row, col, resource);
+    }
+
+    /**
+     * Deja un recurso sobre el tablero; el SimulationEngine lo recoge pasados
+     * Resource.COLLECT_TIME segundos. THREE_BIG_SOL se suma de inmediato.
+     */
+    public synchronized void dropResource(int row, int col, Resource resource) {
+        register(resource, row, col, resource.getType());
+        resources.add(resource);
+        engine.entityAdded(resource);
+        recordEvent(MatchEventLog.DROP, resource, col, resource.getValue());
+        if (Resource.THREE_BIG_SOL.equals(resource.getType())) {
+            getPlayers().get(0).getTeam().addResource(resource);
+            recordEvent(MatchEventLog.PICKUP, resource, col, resource.getValue());
         }
     }
 
-    
+    // Suma el valor de un recurso recogido al equipo correspondiente
+    void collectResource(Resource resource) {
+        resource.collect();
+        if (Resource.SOL.equals(resource.getType()) || Resource.BIG_SOL.equals(resource.getType())) {
+            getPlayers().get(0).getTeam().addResource(resource);
+        } else if (Resource.BRAIN.equals(resource.getType())) {
+            getPlayers().get(1).getTeam().addResource(resource);
+        }
+        recordEvent(MatchEventLog.PICKUP, resource, resource.getCol(), resource.getValue());
+    }
+
+    // Lanza un proyectil desde la celda (row, col) hacia la entrada de los zombies
+    synchronized void fireProjectile(int row, int col, int damage) {
+        ProjectTile projectTile = new ProjectTile(damage, col + 1);
+        register(projectTile, row, col, "Pea");
+        projectiles.add(projectTile);
+        recordEvent(MatchEventLog.SHOT, projectTile, projectTile.getX(), damage);
+    }
+
+    List<ProjectTile> getProjectiles() {
+        return projectiles;
+    }
+
+    List<Resource> getResources() {
+        return resources;
+    }
+
+    public ResourcePool getResourcePool() {
+        return context.getResourcePool();
+    }
+
+    public SimulationEngine getSimulationEngine() {
+        return engine;
+    }
+
 
     public void setGardenMenu(GardenMenu gardenMenu) {
         this.gardenMenu = gardenMenu;
@@ -535,25 +763,28 @@ public class POOBvsZombies {
         return gardenMenu;
     }
 
-    public boolean getLawnmowerInRow(int row) {
-        if (row < 0 || row >= entities.size()) {
+    // Consulta sin consumir la podadora de la fila
+    public synchronized boolean hasLawnmower(int row) {
+        return getBoard().getLawnmower(row) != null;
+    }
+
+    public synchronized boolean getLawnmowerInRow(int row) {
+        if (row < 0 || row >= getBoard().getRows()) {
             throw new IndexOutOfBoundsException("Invalid row index: " + row);
         }
-        Object obj = entities.get(row).get(0);
-        if (obj instanceof Lownmover) {
-            entities.get(row).set(0, null);
-            return true;
-        }
-        return false;
+        return getBoard().takeLawnmower(row) != null;
     }
 
-    public void removeZombiesInRow(int row) {
-        if (row < 0 || row >= 5) {
+    public synchronized void removeZombiesInRow(int row) {
+        if (row < 0 || row >= getBoard().getRows()) {
             throw new IndexOutOfBoundsException("Invalid row index: " + row);
         }
-        Queue<Zombie> queue = getZombieQueue(row, 9);
-        while (!queue.isEmpty()) {
-            queue.poll();
+        for (Zombie zombie : getBoard().getZombies(row)) {
+            if (!zombie.isDead()) {
+                recordEvent(MatchEventLog.DEATH, zombie, zombie.getX(), zombie.getCost());
+            }
+            engine.forget(zombie);
         }
+        getBoard().clearZombies(row);
     }
 }
@@ -4,6 +4,7 @@ public class Peashooter extends Plant implements Shooter {
     public static final int COST = 100;
     public static final int HEALTH = 300;
     public static final int DAMAGE = 20; // Daño por proyectil
+    public static final int SHOOTING_TIME = 3; // Segundos entre disparos
 
     public Peashooter() {
         super(HEALTH, COST);
@@ -1,23 +1,23 @@
 package domain;
 
-import java.util.ArrayList;
+import java.util.List;
 
 public class Plants extends Team {
     protected static final int SUN_AMOUNT_INCREASE = 25;
     public static final String NAME = "Plants";
     public static final int PLANTING_TIME = 120;
 
-    public Plants(int resourceCounter, ArrayList<String> characters){
+    public Plants(int resourceCounter, List<String> characters){
         super(resourceCounter,characters);
     }
        
     @Override
     public void increaseResourceAmount(){
-        resourceCounter += SUN_AMOUNT_INCREASE;
+        add(SUN_AMOUNT_INCREASE);
     }
 
     public void increaseResourceAmount(int amount) {
-        resourceCounter += amount;
+        add(amount);
     }
 
     @Override
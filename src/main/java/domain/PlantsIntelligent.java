@@ -1,89 +1,111 @@
 package domain;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import domain.POOBvsZombies;
+import java.util.List;
 
 public class PlantsIntelligent extends MachinePlayer {
 
+    public static final int PLANTING_INTERVAL = 2; // Segundos entre intentos de plantar
+    public static final List<String> DEFAULT_PLANTING_ORDER = List.of("Sunflower", "Peashooter", "WallNut");
+    // Plantas que la máquina sabe dónde colocar (ver getTargetColumn)
+    public static final List<String> SUPPORTED_PLANTS = List.of("Sunflower", "Peashooter", "WallNut");
+
     private ArrayList<String> plantingOrder; // Orden de tipos de plantas a colocar
     private int currentPlantIndex; // Índice actual en el orden de plantación
+    private double nextPlanting; // Segundos hasta el próximo intento
 
     public PlantsIntelligent(int suns) {
+        this(suns, DEFAULT_PLANTING_ORDER);
+    }
+
+    /**
+     * @param plantingOrder Tipos de planta que coloca, en orden y de forma cíclica.
+     */
+    public PlantsIntelligent(int suns, List<String> plantingOrder) {
         super("StPlant");
+        validatePlantingOrder(plantingOrder);
         Team plantsTeam = new Plants(suns, MACHINE_PLANTS);
         this.team = plantsTeam;
-        this.plantingOrder = new ArrayList<>(Arrays.asList("Sunflower", "Peashooter", "WallNut"));
+        this.plantingOrder = new ArrayList<>(plantingOrder);
         this.currentPlantIndex = 0;
     }
 
     /**
-     * Inicia la plantación automática siguiendo la estrategia definida.
-     * Este método se ejecuta en un hilo separado para no bloquear el hilo principal del juego.
+     * Rechaza un orden vacío o con plantas que la máquina no sabe colocar, para que
+     * el error salga al configurar la partida y no en cada intento de plantar.
      */
-    public void startAutomaticPlanting(POOBvsZombies game) {
-        new Thread(() -> {
-            while (true) { // Intentar plantar continuamente
-                // Obtener el tipo de planta actual en la estrategia
-                String plantType = plantingOrder.get(currentPlantIndex);
-                Plant plant = game.createPlantInstance(plantType);
-                if (plant == null) {
-                    System.err.println("Tipo de planta inválido: " + plantType);
-                    continue;
-                }
-
-                // Verificar si hay suficientes recursos para plantar
-                synchronized (team) { // Sincronizar acceso a los recursos
-                    if (team.getResourceCounterAmount() >= plant.getCost()) {
-                        // Determinar la columna objetivo basada en el tipo de planta
-                        int targetCol = getTargetColumn(plantType);
-                        if (targetCol == -1) {
-                            System.err.println("No se ha definido una columna objetivo para: " + plantType);
-                            continue;
-                        }
-
-                        // Encontrar la primera fila vacía en la columna objetivo
-                        int targetRow = findEmptyRowInColumn(targetCol,game);
-                        if (targetRow != -1) {
-                            // Colocar la planta en el dominio (lógica del juego)
-                            game.addEntity(targetRow, targetCol, plant);
-                            // Visualizar la planta en la interfaz gráfica
-                            game.spawnPlantUI(targetRow, targetCol, plant);
-                            // Deducir el costo de la planta
-                            team.deductResource(plant.getCost());
-                            // Actualizar las etiquetas de puntaje en la interfaz
-                            if (game.getGardenMenu() != null) {
-                                game.getGardenMenu().updateScoreLabels();
-                            }
-                            System.out.println("Máquina colocó un " + plantType + " en (" + targetRow + ", " + targetCol + ")");
-                        } else {
-                            System.out.println("No hay celdas vacías en la columna " + targetCol + " para " + plantType);
-                        }
-                    } else {
-                        // No hay suficientes recursos, esperar hasta que se acumulen más
-                        System.out.println("No hay suficientes recursos para plantar " + plantType + ". Esperando...");
-                    }
-                }
-
-                // Pasar a la siguiente planta en la estrategia
-                currentPlantIndex = (currentPlantIndex + 1) % plantingOrder.size();
-
-                // Esperar antes de intentar plantar la siguiente planta
-                try {
-                    Thread.sleep(2000); // Esperar 3 segundos
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
+    public static void validatePlantingOrder(List<String> plantingOrder) {
+        if (plantingOrder.isEmpty()) {
+            throw new IllegalArgumentException("The planting order must not be empty");
+        }
+        for (String plantType : plantingOrder) {
+            if (!SUPPORTED_PLANTS.contains(plantType)) {
+                throw new IllegalArgumentException("Unsupported plant for the machine: " + plantType);
             }
-        }).start();
+        }
+    }
+
+    public List<String> getPlantingOrder() {
+        return plantingOrder;
+    }
+
+    /**
+     * Coloca la siguiente planta de la estrategia, como mucho una cada PLANTING_INTERVAL
+     * segundos. Si no alcanzan los soles espera a que el equipo los tenga y planta
+     * en el primer tick en que alcanzan.
+     */
+    @Override
+    public void act(POOBvsZombies game, double dt) {
+        nextPlanting -= dt;
+        if (nextPlanting > 0 || isWaitingForResources()) {
+            return;
+        }
+
+        // Obtener el tipo de planta actual en la estrategia
+        String plantType = plantingOrder.get(currentPlantIndex);
+        // El constructor ya validó el orden: todas tienen instancia y columna objetivo
+        Plant plant = game.createPlantInstance(plantType);
+        int targetCol = getTargetColumn(plantType);
+
+        // Encontrar la primera fila vacía en la columna objetivo
+        int targetRow = findEmptyRowInColumn(targetCol,game);
+        if (targetRow != -1) {
+            // Se cobra antes de plantar; si no alcanza se espera por esta misma planta
+            if (!team.tryDeduct(plant.getCost())) {
+                waitForResources(plant.getCost());
+                return;
+            }
+            // Colocar la planta en el dominio (lógica del juego)
+            game.addEntity(targetRow, targetCol, plant);
+        }
+        nextPlant();
+    }
+
+    int getCurrentPlantIndex() {
+        return currentPlantIndex;
+    }
+
+    double getNextPlanting() {
+        return nextPlanting;
+    }
+
+    // Estado de la estrategia de una partida cargada desde un MatchCheckpoint
+    void restore(int currentPlantIndex, double nextPlanting) {
+        this.currentPlantIndex = currentPlantIndex;
+        this.nextPlanting = nextPlanting;
+    }
+
+    // Pasa a la siguiente planta de la estrategia tras un intento
+    private void nextPlant() {
+        currentPlantIndex = (currentPlantIndex + 1) % plantingOrder.size();
+        nextPlanting = PLANTING_INTERVAL;
     }
 
     /**
      * Determina la columna objetivo basada en el tipo de planta.
      *
      * @param plantType Tipo de planta.
-     * @return Número de columna objetivo o -1 si no está definido.
+     * @return Número de columna objetivo.
      */
     private int getTargetColumn(String plantType) {
         switch (plantType) {
@@ -94,7 +116,7 @@ public class PlantsIntelligent extends MachinePlayer {
             case "WallNut":
                 return 3; // Tercera columna
             default:
-                return -1;
+                throw new IllegalArgumentException("No se ha definido una columna objetivo para: " + plantType);
         }
     }
 
@@ -105,7 +127,7 @@ public class PlantsIntelligent extends MachinePlayer {
      * @return Número de fila vacía o -1 si no hay celdas disponibles.
      */
     private int findEmptyRowInColumn(int col,POOBvsZombies game) {
-        for (int row = 0; row < 5; row++) {
+        for (int row = 0; row < game.getBoard().getRows(); row++) {
             String entity = game.getEntity(row, col);
             if (entity == null) {
                 return row;
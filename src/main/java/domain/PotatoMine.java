@@ -5,6 +5,7 @@ public class PotatoMine extends Plant {
     private static final int COST = 25;
     private static final int HEALTH = 100;
     public static final int ACTIVATION_TIME = 14; // En segundos
+    public static final int EXPLOSION_DAMAGE = 1800;
     private boolean activated = false;
 
     public PotatoMine() {
@@ -19,11 +20,10 @@ public class PotatoMine extends Plant {
         return activated;
     }
 
+    // La explosión consume la mina; el daño a los zombies lo aplica el SimulationEngine
     public void explode() {
         if (activated) {
-            // Lógica de explosión
-            System.out.println("PotatoMine ha explotado.");
-            // Implementa la lógica de daño a los zombies adyacentes
+            health = 0;
         }
     }
 }
@@ -1,10 +1,39 @@
 package domain;
 
 public class ProjectTile extends Entity {
-    
+    public static final double SPEED = 2.08; // Columnas por segundo (5px cada 30ms)
+
     private int damage;
+    // Posición horizontal en punto fijo (SUBCELLS por columna), avanza hacia la entrada de los zombies
+    private int x;
+    private final int velocity = (int) Math.round(SPEED * SUBCELLS);
+
+    public ProjectTile(int damage, double x) {
+        this.damage = damage;
+        this.x = (int) Math.round(x * SUBCELLS);
+    }
+
+    public int getDamage() {
+        return damage;
+    }
+
+    public double getX() {
+        return (double) x / SUBCELLS;
+    }
+
+    int getFixedX() {
+        return x;
+    }
+
+    void setFixedX(int x) {
+        this.x = x;
+    }
+
+    public double getVelocity() {
+        return (double) velocity / SUBCELLS;
+    }
 
-    public void move(){
-        
+    public void move(double seconds) {
+        x += (int) Math.round(velocity * seconds);
     }
 }
@@ -9,29 +9,42 @@ public class Resource extends Entity {
     public static final int BRAIN_VALUE = 50;
     public static final int BIG_SOL_VALUE = 50; // Valor de cada Big Sun
     public static final int THREE_BIG_VALUE = 150; // Valor de 3 Big Suns
+    public static final int COLLECT_TIME = 3; // Segundos en el tablero antes de recogerse
     
 
     private String type;
     private int value;
 
     public Resource(String type){
+        this(type, valueOf(type));
+    }
+
+    // Constructor con valor personalizado
+    public Resource(String type, int customValue){
         this.type = type;
+        this.value = customValue;
+    }
+
+    // Valor por defecto de cada tipo de recurso
+    static int valueOf(String type) {
         if (SOL.equals(type)) {
-            this.value = SOL_VALUE;
+            return SOL_VALUE;
         } else if (BRAIN.equals(type)) {
-            this.value = BRAIN_VALUE;
+            return BRAIN_VALUE;
         } else if (BIG_SOL.equals(type)) {
-            this.value = BIG_SOL_VALUE;
-        }
-        else if(THREE_BIG_SOL.equals(type)){
-            this.value = THREE_BIG_VALUE;
+            return BIG_SOL_VALUE;
+        } else if (THREE_BIG_SOL.equals(type)) {
+            return THREE_BIG_VALUE;
         }
+        return 0;
     }
 
-    // Constructor con valor personalizado
-    public Resource(String type, int customValue){
+    // Reutiliza el objeto para un recurso nuevo (ver ResourcePool)
+    void reset(String type, int value) {
         this.type = type;
-        this.value = customValue;
+        this.value = value;
+        setId(0);
+        setPosition(0, 0, null);
     }
 
     public String getType(){
@@ -1,5 +1,8 @@
 package domain;
 
 public interface ResourceGenerator {
-    public abstract Resource generateResource(int lane);
+    public static final int GENERATION_TIME = 20; // En segundos
+
+    // El recurso se saca del pool de la partida en lugar de crearse
+    public abstract Resource generateResource(ResourcePool pool, int lane);
 }
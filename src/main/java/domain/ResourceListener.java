@@ -0,0 +1,9 @@
+package domain;
+
+/**
+ * Se avisa cada vez que cambia el contador de recursos de un equipo. Se invoca en
+ * el hilo que hizo el cambio (bucle de simulación o EDT), así que debe ser breve.
+ */
+public interface ResourceListener {
+    public abstract void resourcesChanged(Team team, int previous, int current);
+}
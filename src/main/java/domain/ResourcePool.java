@@ -0,0 +1,51 @@
+package domain;
+
+import java.util.ArrayDeque;
+
+/**
+ * Recursos reutilizables de una partida. Un recurso recogido vuelve aquí en vez de
+ * quedar como basura, así que la cantidad de objetos creados depende de cuántos
+ * recursos hay a la vez en el tablero y no de cuántos generadores hay o cuánto dura
+ * la partida. Se usa siempre bajo el candado de la partida.
+ */
+public class ResourcePool {
+    public static final int MAX_IDLE = 256; // Recursos guardados como mucho para reutilizar
+
+    private final ArrayDeque<Resource> idle = new ArrayDeque<>();
+    private long created;
+    private long reused;
+
+    Resource obtain(String type) {
+        return obtain(type, Resource.valueOf(type));
+    }
+
+    Resource obtain(String type, int value) {
+        Resource resource = idle.poll();
+        if (resource == null) {
+            created++;
+            return new Resource(type, value);
+        }
+        reused++;
+        resource.reset(type, value);
+        return resource;
+    }
+
+    // El recurso no debe seguir en el tablero ni referenciado por nadie
+    void release(Resource resource) {
+        if (idle.size() < MAX_IDLE) {
+            idle.push(resource);
+        }
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getReused() {
+        return reused;
+    }
+
+    public int getIdle() {
+        return idle.size();
+    }
+}
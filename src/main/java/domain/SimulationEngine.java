@@ -0,0 +1,627 @@
+package domain;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Motor de simulación de paso fijo. En un único bucle avanza las fases de la partida,
+ * los jugadores máquina, los recursos que caen del cielo y todos los zombies,
+ * proyectiles, generadores de recursos y el armado de las PotatoMine del tablero,
+ * en lugar de tener un hilo por entidad. Las esperas (generación, armado, recogida,
+ * recarga y mordidas) se programan en una {@link TimingWheel} medida en ticks, así
+ * que cada tick solo atiende los eventos que vencen en él. La interfaz gráfica solo
+ * lee instantáneas ({@link BoardSnapshot}) del estado.
+ */
+public class SimulationEngine {
+    public static final double FIXED_STEP = 1.0 / 30; // Segundos simulados por tick
+
+    private final POOBvsZombies game;
+    // Evento pendiente de cada entidad (recarga, mordida, generación, armado o recolección)
+    private final TimingWheel wheel;
+    private final Map<Entity, TimingWheel.Timeout> timeouts = new IdentityHashMap<>();
+    private final ArrayDeque<TimingWheel.Timeout> idleTimeouts = new ArrayDeque<>();
+    private final List<TimingWheel.Timeout> due = new ArrayList<>();
+    private final TimingWheel.Timeout skyTimeout = new TimingWheel.Timeout(null);
+
+    // Solo los escribe el tick, pero se leen sin el candado desde otros hilos (sesiones, interfaz)
+    private volatile long tickCount;
+    private volatile double elapsed;
+    private long tickNanos;
+    private int phaseIndex;
+    private double phaseElapsed;
+    private boolean gameOver;
+    private String winnerMessage;
+
+    // Último estado anotado en el registro de eventos, para anotar solo los cambios
+    private int recordedPhase = -1;
+    private int recordedPlantsScore = Integer.MIN_VALUE;
+    private int recordedZombiesScore = Integer.MIN_VALUE;
+    private boolean recordedEnd;
+
+    private final GameClock clock;
+    private volatile boolean running;
+    private Thread loop;
+
+    // Los eventos que vencen en el mismo tick se atienden por identificador de entidad
+    private static final Comparator<TimingWheel.Timeout> BY_ENTITY = Comparator
+            .comparingInt(timeout -> timeout.getEntity() != null ? timeout.getEntity().getId() : 0);
+
+    public SimulationEngine(POOBvsZombies game) {
+        this.game = game;
+        this.wheel = game.getContext().getScheduler();
+        this.clock = game.getContext().getClock();
+        wheel.schedule(skyTimeout, ticks(Team.RESOURCE_GENERATION_TIME));
+    }
+
+    /**
+     * Inicia el bucle en tiempo real: un solo hilo (de plataforma o virtual, según
+     * {@link SimulationThreads}) que ejecuta un tick cada FIXED_STEP, dividido por la
+     * velocidad del {@link GameClock} y detenido mientras está en pausa.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        loop = SimulationThreads.newThread(this::runLoop, "simulation-loop");
+        loop.start();
+    }
+
+    /**
+     * Detiene el bucle y espera a que termine su tick en curso. No espera si lo llama
+     * el propio bucle o quien tiene el candado de la partida, que el bucle necesita
+     * para terminar.
+     */
+    public void stop() {
+        Thread stopped;
+        synchronized (this) {
+            running = false;
+            stopped = loop;
+            loop = null;
+        }
+        if (stopped == null || stopped == Thread.currentThread()) {
+            return;
+        }
+        stopped.interrupt();
+        if (!Thread.holdsLock(game)) {
+            try {
+                stopped.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Hilo del bucle en tiempo real, o null si está detenido (p. ej. para ver si es virtual)
+    public synchronized Thread getLoopThread() {
+        return loop;
+    }
+
+    private void runLoop() {
+        long next = System.nanoTime();
+        try {
+            while (running && !isGameOver()) {
+                if (clock.awaitRunning()) {
+                    next = System.nanoTime(); // Tras la pausa no se recupera el tiempo detenido
+                }
+                tick(FIXED_STEP);
+                long step = clock.getStepNanos();
+                next += step;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    Thread.sleep(wait / 1_000_000L, (int) (wait % 1_000_000L));
+                } else if (-wait > 5 * step) {
+                    // Vamos muy atrasados (p. ej. tras una pausa del sistema): no intentar recuperar
+                    next = System.nanoTime();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public GameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Avanza la partida dt segundos simulados. Las esperas de la rueda se cuentan en
+     * ticks, así que dt debe ser un número entero de FIXED_STEP y se avanza de a un
+     * paso fijo.
+     */
+    public void tick(double dt) {
+        long steps = Math.round(dt / FIXED_STEP);
+        if (steps < 1 || Math.abs(steps * FIXED_STEP - dt) > 1e-9) {
+            throw new IllegalArgumentException("dt must be a whole number of FIXED_STEP: " + dt);
+        }
+        synchronized (game) {
+            MatchContext previous = game.getContext().enter();
+            try {
+                for (long i = 0; i < steps && !gameOver; i++) {
+                    step(FIXED_STEP);
+                }
+            } finally {
+                MatchContext.leave(previous);
+            }
+        }
+    }
+
+    private void step(double dt) {
+        tickCount++;
+        elapsed += dt;
+        updatePhase(dt);
+        if (!gameOver) {
+            updateMachinePlayers(dt);
+            fireTimeouts();
+            updatePlants(dt);
+            updateProjectiles(dt);
+            updateZombies(dt);
+            tickNanos = System.nanoTime();
+        }
+        if (game.isRecordingEvents()) {
+            recordChanges();
+        }
+    }
+
+    // Anota en el registro de eventos la fase, los puntajes y el final si cambiaron
+    private void recordChanges() {
+        MatchPhase phase = getCurrentPhase();
+        if (phase != null && phaseIndex != recordedPhase) {
+            recordedPhase = phaseIndex;
+            game.recordEvent(MatchEventLog.PHASE, phase.getMessage(), phase.getDuration());
+        }
+        Player plants = game.getPlayerOne();
+        Player zombies = game.getPlayerTwo();
+        if (plants.getScore() != recordedPlantsScore) {
+            recordedPlantsScore = plants.getScore();
+            game.recordEvent(MatchEventLog.SCORE, plants.getName(), recordedPlantsScore);
+        }
+        if (zombies.getScore() != recordedZombiesScore) {
+            recordedZombiesScore = zombies.getScore();
+            game.recordEvent(MatchEventLog.SCORE, zombies.getName(), recordedZombiesScore);
+        }
+        if (gameOver && !recordedEnd) {
+            recordedEnd = true;
+            game.recordEvent(MatchEventLog.END, game.getWinner(), 0);
+        }
+    }
+
+    // Al empezar un registro se vuelven a anotar fase y puntajes en el siguiente tick
+    void resetEventTracking() {
+        recordedPhase = -1;
+        recordedPlantsScore = Integer.MIN_VALUE;
+        recordedZombiesScore = Integer.MIN_VALUE;
+        recordedEnd = false;
+    }
+
+    private void updatePhase(double dt) {
+        List<MatchPhase> phases = game.getPhases();
+        phaseElapsed += dt;
+        while (phaseIndex < phases.size() && phaseElapsed >= phases.get(phaseIndex).getDuration()) {
+            phaseElapsed -= phases.get(phaseIndex).getDuration();
+            phaseIndex++;
+        }
+        if (phaseIndex >= phases.size()) {
+            // Todas las fases terminaron: gana quien tenga mejor puntaje
+            game.calculateScores();
+            winnerMessage = game.determineWinner();
+            gameOver = true;
+        }
+    }
+
+    private void updateMachinePlayers(double dt) {
+        if (game.getPlayerOne() instanceof MachinePlayer) {
+            ((MachinePlayer) game.getPlayerOne()).act(game, dt);
+        }
+        if (game.getPlayerTwo() instanceof MachinePlayer) {
+            ((MachinePlayer) game.getPlayerTwo()).act(game, dt);
+        }
+    }
+
+    // Atiende los eventos de la rueda que vencen en este tick
+    private void fireTimeouts() {
+        due.clear();
+        wheel.advance(due);
+        due.sort(BY_ENTITY);
+        for (TimingWheel.Timeout timeout : due) {
+            Entity entity = timeout.getEntity();
+            if (timeout == skyTimeout) {
+                wheel.schedule(skyTimeout, tickCount + ticks(Team.RESOURCE_GENERATION_TIME));
+                dropSkyResources();
+            } else if (timeouts.get(entity) != timeout || timeout.isPending()) {
+                continue; // La entidad salió del tablero o se reprogramó mientras tanto
+            } else if (entity instanceof PotatoMine) {
+                ((PotatoMine) entity).activate();
+            } else if (entity instanceof ResourceGenerator) {
+                generate(entity, timeout);
+            } else if (entity instanceof Resource) {
+                Resource resource = (Resource) entity;
+                if (!Resource.THREE_BIG_SOL.equals(resource.getType())) {
+                    game.collectResource(resource);
+                }
+                game.getResources().remove(resource);
+                forget(resource);
+                game.getResourcePool().release(resource);
+            }
+            // Recargas y mordidas no hacen nada al vencer: la entidad queda lista
+        }
+    }
+
+    private void dropSkyResources() {
+        // Celda aleatoria (cualquier fila, columnas de 1 a la entrada)
+        Board board = game.getBoard();
+        int row = game.getRandom().nextInt(board.getRows());
+        int col = 1 + game.getRandom().nextInt(board.getColumns() - 1);
+        game.dropSkyResources(getCurrentPhase(), row, col);
+    }
+
+    private void generate(Entity entity, TimingWheel.Timeout timeout) {
+        if (entity instanceof Zombie) {
+            Zombie zombie = (Zombie) entity;
+            if (zombie.isDead()) {
+                return;
+            }
+            wheel.schedule(timeout, tickCount + ticks(ResourceGenerator.GENERATION_TIME));
+            int col = Math.min(game.getBoard().getEntryColumn(), (int) zombie.getX());
+            generateResource((ResourceGenerator) zombie, zombie.getRow(), col);
+        } else {
+            wheel.schedule(timeout, tickCount + ticks(ResourceGenerator.GENERATION_TIME));
+            generateResource((ResourceGenerator) entity, entity.getRow(), entity.getCol());
+        }
+    }
+
+    private void updatePlants(double dt) {
+        Board board = game.getBoard();
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int col = 1; col < board.getEntryColumn(); col++) {
+                Plant plant = board.getPlant(row, col);
+                // Dispara de inmediato al aparecer un objetivo y luego cada SHOOTING_TIME
+                if (plant instanceof Peashooter && !isWaiting(plant) && hasZombieAhead(row, col)) {
+                    game.fireProjectile(row, col, ((Peashooter) plant).getDamage());
+                    schedule(plant, Peashooter.SHOOTING_TIME);
+                }
+            }
+        }
+    }
+
+    private void updateProjectiles(double dt) {
+        Iterator<ProjectTile> it = game.getProjectiles().iterator();
+        while (it.hasNext()) {
+            ProjectTile projectTile = it.next();
+            double previousX = projectTile.getX();
+            projectTile.move(dt);
+            Zombie target = frontZombie(projectTile.getRow(), previousX);
+            if (target != null && projectTile.getX() >= target.getX()) {
+                target.takeDamage(projectTile.getDamage());
+                game.recordEvent(MatchEventLog.DAMAGE, target, target.getX(), target.getHealth());
+                if (target.isDead()) {
+                    game.recordEvent(MatchEventLog.DEATH, target, target.getX(), target.getCost());
+                    game.getBoard().updateFrontZombie(projectTile.getRow());
+                }
+                it.remove();
+            } else if (projectTile.getX() > game.getBoard().getColumns()) {
+                it.remove();
+            }
+        }
+    }
+
+    private void updateZombies(double dt) {
+        Board board = game.getBoard();
+        for (int row = 0; row < board.getRows(); row++) {
+            boolean reachedHouse = false;
+            Iterator<Zombie> it = board.getZombies(row).iterator();
+            while (it.hasNext()) {
+                Zombie zombie = it.next();
+                if (zombie.isDead()) {
+                    it.remove();
+                    forget(zombie);
+                    continue;
+                }
+                if (zombie.getSpeed() == 0) {
+                    continue;
+                }
+                int plantCol = plantInFront(row, zombie.getX());
+                int limit = plantCol != -1 ? (plantCol + 1) * Entity.SUBCELLS : 0;
+                if (plantCol != -1 && zombie.getFixedX() <= limit) {
+                    zombie.stop();
+                    attack(zombie, row, plantCol, dt);
+                } else {
+                    zombie.walk();
+                    zombie.move(dt);
+                    if (zombie.getFixedX() <= limit) {
+                        zombie.setFixedX(limit);
+                    }
+                    reachedHouse |= zombie.getFixedX() <= 0;
+                }
+            }
+            board.sortZombies(row);
+            if (reachedHouse) {
+                zombieReachedHouse(row);
+                if (gameOver) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void attack(Zombie zombie, int row, int plantCol, double dt) {
+        Plant plant = game.getPlantAt(row, plantCol);
+        if (plant instanceof PotatoMine && ((PotatoMine) plant).isActivated()) {
+            explode((PotatoMine) plant, row, plantCol);
+            return;
+        }
+        if (!isWaiting(zombie)) {
+            schedule(zombie, Zombie.ATTACK_TIME);
+            plant.takeDamage(zombie.getDamage());
+            game.recordEvent(MatchEventLog.DAMAGE, plant, plantCol, plant.getHealth());
+            if (plant.isDead()) {
+                removePlant(plant, row, plantCol);
+            }
+        }
+    }
+
+    // La mina armada elimina a los zombies que la alcanzan y desaparece
+    private void explode(PotatoMine mine, int row, int col) {
+        mine.explode();
+        game.recordEvent(MatchEventLog.EXPLOSION, mine, col, PotatoMine.EXPLOSION_DAMAGE);
+        for (Zombie zombie : game.getBoard().getZombies(row)) {
+            if (zombie.getX() <= col + 2 && !zombie.isDead()) {
+                zombie.takeDamage(PotatoMine.EXPLOSION_DAMAGE);
+                game.recordEvent(MatchEventLog.DAMAGE, zombie, zombie.getX(), zombie.getHealth());
+                if (zombie.isDead()) {
+                    game.recordEvent(MatchEventLog.DEATH, zombie, zombie.getX(), zombie.getCost());
+                }
+            }
+        }
+        game.getBoard().updateFrontZombie(row);
+        removePlant(mine, row, col);
+    }
+
+    private void removePlant(Plant plant, int row, int col) {
+        Player plantsPlayer = game.getPlayerOne();
+        plantsPlayer.setScore(plantsPlayer.getScore() - plant.getCost());
+        game.removeEntity(row, col);
+    }
+
+    private void zombieReachedHouse(int row) {
+        if (game.getLawnmowerInRow(row)) {
+            // La podadora barre toda la fila
+            game.recordEvent(MatchEventLog.LAWNMOWER, "row " + row, game.getBoard().getZombies(row).size());
+            game.removeZombiesInRow(row);
+        } else {
+            gameOver = true;
+            winnerMessage = game.zombiesReachedHouse();
+        }
+    }
+
+    private void generateResource(ResourceGenerator generator, int row, int col) {
+        Resource resource = generator.generateResource(game.getResourcePool(), row);
+        if (resource == null) {
+            return;
+        }
+        game.dropResource(row, col, resource);
+
+        // La ECIPlant reparte tres soles grandes una única vez si el jugador se queda sin soles
+        if (generator instanceof ECIPlant) {
+            ECIPlant eciPlant = (ECIPlant) generator;
+            Team plants = game.getPlayerOne().getTeam();
+            if (plants.getResourceCounterAmount() <= 0 && !eciPlant.hasGeneratedExtraSuns()) {
+                eciPlant.setExtraSunsGenerated(true);
+                game.dropResource(row, col, game.getResourcePool().obtain(Resource.THREE_BIG_SOL, Resource.THREE_BIG_VALUE));
+            }
+        }
+    }
+
+    /**
+     * Columna de la planta más cercana que el zombie tiene delante, o -1.
+     */
+    private int plantInFront(int row, double x) {
+        Board board = game.getBoard();
+        int start = Math.min(board.getEntryColumn() - 1, (int) Math.ceil(x) - 1);
+        int first = board.getFirstPlantColumn(row);
+        if (first <= start) {
+            // La planta más adelantada de la fila ya está delante del zombie
+            return first >= 1 ? first : -1;
+        }
+        for (int col = start; col >= 1; col--) {
+            if (board.getPlant(row, col) != null) {
+                return col;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Zombie vivo más cercano a la casa que aún no ha sido sobrepasado por la posición x.
+     */
+    private Zombie frontZombie(int row, double x) {
+        return game.getBoard().getFirstZombieAhead(row, x);
+    }
+
+    private boolean hasZombieAhead(int row, int col) {
+        return game.getBoard().hasZombieBeyond(row, col);
+    }
+
+    // Ticks que dura una espera de los segundos dados
+    static long ticks(double seconds) {
+        return Math.max(1, Math.round(seconds / FIXED_STEP));
+    }
+
+    /**
+     * Programa el primer evento de una entidad que entra al tablero: el armado de la
+     * PotatoMine, la generación de recursos o la recogida de un recurso.
+     */
+    void entityAdded(Entity entity) {
+        if (entity instanceof PotatoMine) {
+            schedule(entity, PotatoMine.ACTIVATION_TIME);
+        } else if (entity instanceof ResourceGenerator) {
+            schedule(entity, ResourceGenerator.GENERATION_TIME);
+        } else if (entity instanceof Resource) {
+            schedule(entity, Resource.COLLECT_TIME);
+        }
+    }
+
+    private void schedule(Entity entity, double seconds) {
+        scheduleAt(entity, tickCount + ticks(seconds));
+    }
+
+    private void scheduleAt(Entity entity, long deadline) {
+        TimingWheel.Timeout timeout = timeouts.get(entity);
+        if (timeout == null) {
+            timeout = idleTimeouts.poll();
+            if (timeout == null) {
+                timeout = new TimingWheel.Timeout(entity);
+            }
+            timeout.setEntity(entity);
+            timeouts.put(entity, timeout);
+        }
+        wheel.schedule(timeout, deadline);
+    }
+
+    // true mientras la entidad espera su recarga o su próxima mordida
+    private boolean isWaiting(Entity entity) {
+        TimingWheel.Timeout timeout = timeouts.get(entity);
+        return timeout != null && timeout.isPending();
+    }
+
+    // Segundos que le faltan al evento pendiente de la entidad, o NaN si no tiene
+    double getCountdown(Entity entity) {
+        TimingWheel.Timeout timeout = timeouts.get(entity);
+        return timeout != null && timeout.isPending() ? (timeout.getDeadline() - tickCount) * FIXED_STEP : Double.NaN;
+    }
+
+    void setCountdown(Entity entity, double remaining) {
+        if (!Double.isNaN(remaining) && remaining > 0) {
+            scheduleAt(entity, tickCount + Math.round(remaining / FIXED_STEP));
+        }
+    }
+
+    // Eventos pendientes en la rueda, incluido el de los recursos del cielo
+    public int getPendingEvents() {
+        return wheel.size();
+    }
+
+    double getPhaseElapsed() {
+        return phaseElapsed;
+    }
+
+    double getSkyCountdown() {
+        return (skyTimeout.getDeadline() - tickCount) * FIXED_STEP;
+    }
+
+    // Reanuda el reloj de una partida cargada desde un MatchCheckpoint
+    void restore(long tickCount, double elapsed, int phaseIndex, double phaseElapsed, double skyCountdown,
+            boolean gameOver, String winnerMessage) {
+        this.tickCount = tickCount;
+        this.elapsed = elapsed;
+        this.phaseIndex = phaseIndex;
+        this.phaseElapsed = phaseElapsed;
+        this.gameOver = gameOver;
+        wheel.reset(tickCount);
+        wheel.schedule(skyTimeout, tickCount + Math.round(skyCountdown / FIXED_STEP));
+        this.winnerMessage = winnerMessage;
+    }
+
+    // Cancela el evento de una entidad que salió del tablero y guarda el objeto para reutilizarlo
+    void forget(Entity entity) {
+        TimingWheel.Timeout timeout = entity != null ? timeouts.remove(entity) : null;
+        if (timeout != null) {
+            wheel.cancel(timeout);
+            timeout.setEntity(null);
+            if (idleTimeouts.size() < ResourcePool.MAX_IDLE) {
+                idleTimeouts.push(timeout);
+            }
+        }
+    }
+
+    /**
+     * Copia el estado visible de la partida para que la interfaz lo dibuje.
+     */
+    public BoardSnapshot snapshot() {
+        synchronized (game) {
+            List<EntitySnapshot> plants = new ArrayList<>();
+            List<EntitySnapshot> zombies = new ArrayList<>();
+            Board board = game.getBoard();
+            boolean[] lawnmowers = new boolean[board.getRows()];
+            for (int row = 0; row < board.getRows(); row++) {
+                lawnmowers[row] = board.getLawnmower(row) != null;
+                for (int col = 1; col < board.getEntryColumn(); col++) {
+                    Plant plant = board.getPlant(row, col);
+                    if (plant != null) {
+                        boolean armed = plant instanceof PotatoMine && ((PotatoMine) plant).isActivated();
+                        plants.add(new EntitySnapshot(plant.getId(), plant.getName(), row, col, col, 0,
+                                plant.getHealth(), armed));
+                    }
+                }
+                for (Zombie zombie : board.getZombies(row)) {
+                    if (!zombie.isDead()) {
+                        zombies.add(new EntitySnapshot(zombie.getId(), zombie.getName(), row,
+                                (int) zombie.getX(), zombie.getX(), zombie.getVelocity(), zombie.getHealth(), true));
+                    }
+                }
+            }
+            List<EntitySnapshot> projectiles = new ArrayList<>();
+            for (ProjectTile projectTile : game.getProjectiles()) {
+                projectiles.add(new EntitySnapshot(projectTile.getId(), projectTile.getName(), projectTile.getRow(),
+                        (int) projectTile.getX(), projectTile.getX(), projectTile.getVelocity(), 0, true));
+            }
+            List<EntitySnapshot> resources = new ArrayList<>();
+            for (Resource resource : game.getResources()) {
+                resources.add(new EntitySnapshot(resource.getId(), resource.getType(), resource.getRow(),
+                        resource.getCol(), resource.getCol(), 0, resource.getValue(), true));
+            }
+            MatchPhase phase = getCurrentPhase();
+            return new BoardSnapshot(tickCount, elapsed, tickNanos, phase != null ? phase.getMessage() : "",
+                    getPhaseRemaining(), plants, zombies, projectiles, resources, lawnmowers,
+                    game.getPlayerOne().getTeam().getResourceCounterAmount(),
+                    game.getPlayerTwo().getTeam().getResourceCounterAmount(),
+                    game.getPlayerOne().getScore(), game.getPlayerTwo().getScore(),
+                    gameOver, winnerMessage);
+        }
+    }
+
+    // Fase en curso, o null si la partida ya terminó
+    public MatchPhase getCurrentPhase() {
+        List<MatchPhase> phases = game.getPhases();
+        return phaseIndex < phases.size() ? phases.get(phaseIndex) : null;
+    }
+
+    public int getPhaseIndex() {
+        return phaseIndex;
+    }
+
+    // Segundos simulados que le quedan a la fase en curso
+    public double getPhaseRemaining() {
+        MatchPhase phase = getCurrentPhase();
+        return phase != null ? Math.max(0, phase.getDuration() - phaseElapsed) : 0;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    // Tiempo simulado transcurrido en segundos
+    public double getElapsedTime() {
+        return elapsed;
+    }
+
+    public boolean isGameOver() {
+        synchronized (game) {
+            return gameOver;
+        }
+    }
+
+    public String getWinnerMessage() {
+        return winnerMessage;
+    }
+
+}
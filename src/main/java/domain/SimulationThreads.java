@@ -0,0 +1,61 @@
+package domain;
+
+import java.lang.reflect.Method;
+
+/**
+ * Crea los hilos que ejecutan los bucles de simulación. El modo se elige con la
+ * propiedad del sistema poobvszombies.threads (platform o virtual). Los hilos
+ * virtuales solo existen desde Java 21; en versiones anteriores se usan hilos de
+ * plataforma aunque se pidan virtuales.
+ */
+public class SimulationThreads {
+    public static final String PLATFORM = "platform";
+    public static final String VIRTUAL = "virtual";
+
+    private static volatile String mode = System.getProperty("poobvszombies.threads", PLATFORM);
+
+    private SimulationThreads() {
+    }
+
+    public static String getMode() {
+        return mode;
+    }
+
+    public static void setMode(String newMode) {
+        if (!PLATFORM.equals(newMode) && !VIRTUAL.equals(newMode)) {
+            throw new IllegalArgumentException("Modo de hilos desconocido: " + newMode);
+        }
+        mode = newMode;
+    }
+
+    // Indica si la JVM actual soporta Thread.ofVirtual()
+    public static boolean isVirtualAvailable() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Crea (sin iniciar) un hilo para la tarea según el modo configurado.
+     */
+    public static Thread newThread(Runnable task, String name) {
+        if (VIRTUAL.equals(mode) && isVirtualAvailable()) {
+            try {
+                // Thread.ofVirtual().name(name).unstarted(task), por reflexión para compilar con Java 17
+                Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                Method setName = builderType.getMethod("name", String.class);
+                Method unstarted = builderType.getMethod("unstarted", Runnable.class);
+                return (Thread) unstarted.invoke(setName.invoke(builder, name), task);
+            } catch (ReflectiveOperationException e) {
+                // Si falla la reflexión se usa un hilo de plataforma
+            }
+        }
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -9,8 +9,8 @@ public class Sunflower extends Plant implements ResourceGenerator {
     }
 
     @Override
-    public Resource generateResource(int lane) {
+    public Resource generateResource(ResourcePool pool, int lane) {
         // Genera un sol de 25 en la posición actual
-        return new Resource(Resource.SOL, 25);
+        return pool.obtain(Resource.SOL, 25);
     }
 }
@@ -1,28 +1,37 @@
 package domain;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import javax.swing.Timer;
-
+/**
+ * Equipo de un jugador con su contador de recursos (soles o cerebros). El contador
+ * es atómico: lo modifican a la vez el bucle de simulación, los jugadores máquina
+ * y la interfaz, y las compras se hacen con {@link #tryDeduct(int)} sin candados.
+ * Cada cambio se avisa a los {@link ResourceListener} registrados.
+ */
 public abstract class Team {
     
-    protected int resourceCounter;
+    private final AtomicInteger resourceCounter = new AtomicInteger();
+    private final List<ResourceListener> listeners = new CopyOnWriteArrayList<>();
     protected ArrayList<String> characters;
-    public static final Timer RESOURCE_TIME_GENERATOR = new Timer(10000, null); // 10 segundos
+    public static final int RESOURCE_GENERATION_TIME = 10; // Segundos entre recursos que caen del cielo
 
     // public static final String SOL = "SOL";
     // public static final String BRAIN = "BRAIN";
-    public Team(ArrayList<String> characters){
-        this.characters = characters;
+    // Cada equipo guarda su propia copia de la lista: varias partidas no comparten estado
+    public Team(List<String> characters){
+        this.characters = new ArrayList<>(characters);
     }
-    public Team(int resourceCounter, ArrayList<String> characters){
-        this.resourceCounter = resourceCounter;
-        this.characters = characters;
+    public Team(int resourceCounter, List<String> characters){
+        this.resourceCounter.set(resourceCounter);
+        this.characters = new ArrayList<>(characters);
     }
     public abstract void increaseResourceAmount();
 
     public int getResourceCounterAmount(){
-        return resourceCounter;
+        return resourceCounter.get();
     }
 
     public ArrayList<String> getCharacters(){
@@ -30,24 +39,69 @@ public abstract class Team {
     }
 
     public void setCharacters(ArrayList<String> characters){
-        this.characters = characters;
+        this.characters = new ArrayList<>(characters);
     }
 
     public void setResourceCounter(int resourceCounter){
-        this.resourceCounter = resourceCounter;
+        int previous = this.resourceCounter.getAndSet(resourceCounter);
+        notifyListeners(previous, resourceCounter);
     }
 
     public abstract String getTeamName();
 
+    // Suma recursos y retorna el nuevo total
+    public int add(int amount){
+        int current = resourceCounter.addAndGet(amount);
+        notifyListeners(current - amount, current);
+        return current;
+    }
+
+    /**
+     * Descuenta amount solo si alcanzan los recursos. Lazo CAS: si otro hilo cambió
+     * el contador entre la lectura y la escritura, se reintenta con el valor nuevo.
+     *
+     * @return true si se descontó, false si no había suficientes recursos.
+     */
+    public boolean tryDeduct(int amount){
+        if (amount < 0) {
+            throw new IllegalArgumentException("Cantidad inválida: " + amount);
+        }
+        int current;
+        do {
+            current = resourceCounter.get();
+            if (current < amount) {
+                return false;
+            }
+        } while (!resourceCounter.compareAndSet(current, current - amount));
+        notifyListeners(current, current - amount);
+        return true;
+    }
+
+    public void addResourceListener(ResourceListener listener){
+        listeners.add(listener);
+    }
+
+    public void removeResourceListener(ResourceListener listener){
+        listeners.remove(listener);
+    }
+
+    private void notifyListeners(int previous, int current){
+        if (previous == current) {
+            return;
+        }
+        for (ResourceListener listener : listeners) {
+            listener.resourcesChanged(this, previous, current);
+        }
+    }
+
     // Método para agregar recursos
     public void addResource(Resource resource){
-        this.resourceCounter += resource.getValue();
+        add(resource.getValue());
     }
 
     public void deductResource(int amount) {
-        if (amount > resourceCounter) {
+        if (!tryDeduct(amount)) {
             throw new IllegalArgumentException("No hay suficientes recursos.");
         }
-        resourceCounter -= amount;
     }
 }
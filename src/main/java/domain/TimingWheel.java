@@ -0,0 +1,180 @@
+package domain;
+
+import java.util.List;
+
+/**
+ * Rueda de temporización jerárquica medida en ticks del SimulationEngine. Programar
+ * y cancelar un evento cuesta O(1): cada evento queda enlazado en la casilla de su
+ * vencimiento y avanzar un tick solo recorre la casilla que vence. Hay LEVELS
+ * niveles de SLOTS casillas; el nivel 0 cubre los próximos 64 ticks, el nivel 1 los
+ * próximos 64 * 64 y así sucesivamente, y cada vez que un nivel da la vuelta sus
+ * eventos bajan al nivel inferior. Como avanza con los ticks y no con el reloj, los
+ * eventos se pausan, aceleran y repiten junto con la partida.
+ */
+public class TimingWheel {
+    public static final int SLOT_BITS = 6;
+    public static final int SLOTS = 1 << SLOT_BITS;
+    public static final int LEVELS = 4; // 2^24 ticks: más de seis días de partida
+
+    private static final int MASK = SLOTS - 1;
+
+    private final Timeout[][] slots = new Timeout[LEVELS][SLOTS];
+    private long current; // Último tick procesado
+    private int size;
+
+    public TimingWheel(long current) {
+        this.current = current;
+    }
+
+    /**
+     * Evento de la rueda. Se reutiliza: al vencer o cancelarse puede volver a
+     * programarse, incluso para otra entidad, sin crear otro objeto.
+     */
+    public static class Timeout {
+        private Entity entity;
+        private long deadline;
+        private int level = -1; // -1 si no está en la rueda
+        private int slot;
+        private Timeout previous;
+        private Timeout next;
+
+        // entity puede ser null para eventos de la partida (p. ej. recursos del cielo)
+        public Timeout(Entity entity) {
+            this.entity = entity;
+        }
+
+        public Entity getEntity() {
+            return entity;
+        }
+
+        void setEntity(Entity entity) {
+            this.entity = entity;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public boolean isPending() {
+            return level >= 0;
+        }
+    }
+
+    public long getCurrent() {
+        return current;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Programa el evento para el tick dado (o el siguiente si ya pasó), cancelando
+     * antes su programación anterior.
+     */
+    public void schedule(Timeout timeout, long deadline) {
+        cancel(timeout);
+        timeout.deadline = Math.max(deadline, current + 1);
+        insert(timeout);
+        size++;
+    }
+
+    public void cancel(Timeout timeout) {
+        if (!timeout.isPending()) {
+            return;
+        }
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            slots[timeout.level][timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.level = -1;
+        size--;
+    }
+
+    /**
+     * Avanza un tick y agrega a due los eventos que vencen en él, ya fuera de la
+     * rueda. El orden dentro de due no está definido.
+     */
+    public void advance(List<Timeout> due) {
+        current++;
+        // Al dar la vuelta un nivel, la casilla siguiente del nivel superior baja
+        for (int level = 1; level < LEVELS && (current & ((1L << (level * SLOT_BITS)) - 1)) == 0; level++) {
+            int slot = (int) (current >>> (level * SLOT_BITS)) & MASK;
+            Timeout timeout = slots[level][slot];
+            slots[level][slot] = null;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                timeout.previous = null;
+                timeout.next = null;
+                insert(timeout);
+                timeout = next;
+            }
+        }
+        int slot = (int) current & MASK;
+        Timeout timeout = slots[0][slot];
+        slots[0][slot] = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.level = -1;
+            size--;
+            due.add(timeout);
+            timeout = next;
+        }
+    }
+
+    /**
+     * Cambia el tick actual (p. ej. al cargar una partida) y reubica los eventos
+     * pendientes según sus vencimientos.
+     */
+    public void reset(long tick) {
+        Timeout pending = null;
+        for (Timeout[] level : slots) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Timeout timeout = level[slot];
+                level[slot] = null;
+                while (timeout != null) {
+                    Timeout next = timeout.next;
+                    timeout.next = pending;
+                    pending = timeout;
+                    timeout = next;
+                }
+            }
+        }
+        current = tick;
+        while (pending != null) {
+            Timeout next = pending.next;
+            pending.previous = null;
+            pending.next = null;
+            pending.deadline = Math.max(pending.deadline, current + 1);
+            insert(pending);
+            pending = next;
+        }
+    }
+
+    // Enlaza el evento en la casilla que le corresponde según cuánto falta
+    private void insert(Timeout timeout) {
+        long delta = timeout.deadline - current;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << ((level + 1) * SLOT_BITS)) {
+            level++;
+        }
+        long deadline = Math.min(timeout.deadline, current + (1L << (LEVELS * SLOT_BITS)) - 1);
+        int slot = (int) (deadline >>> (level * SLOT_BITS)) & MASK;
+        timeout.level = level;
+        timeout.slot = slot;
+        timeout.previous = null;
+        timeout.next = slots[level][slot];
+        if (timeout.next != null) {
+            timeout.next.previous = timeout;
+        }
+        slots[level][slot] = timeout;
+    }
+}
@@ -0,0 +1,113 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Torneo de estrategias de las máquinas: cada orden de plantación de PlantsIntelligent
+ * juega contra cada conjunto de tipos de zombie de ZombiesOriginal. Cada partida es
+ * un POOBvsZombies independiente simulado sin interfaz, y las partidas se reparten
+ * en un ForkJoinPool dividiendo el rango a la mitad hasta unas pocas partidas por
+ * tarea, así que escala con los núcleos.
+ * La partida k de todos los enfrentamientos usa la misma semilla (seed + k), para
+ * que las estrategias se comparen bajo el mismo azar.
+ */
+public class Tournament {
+    // Partidas que una tarea juega seguidas sin dividirse; cada partida ya es bastante trabajo
+    static final int SEQUENTIAL_CUTOFF = 4;
+
+    private final float matchTime;
+    private final int hordersNumber;
+    private final int suns;
+    private final int brains;
+    private final List<List<String>> plantStrategies = new ArrayList<>();
+    private final List<List<String>> zombieStrategies = new ArrayList<>();
+
+    // Mismos parámetros que MatchRunner
+    public Tournament(float matchTime, int hordersNumber, int suns, int brains) {
+        this.matchTime = matchTime;
+        this.hordersNumber = hordersNumber;
+        this.suns = suns;
+        this.brains = brains;
+    }
+
+    // Las estrategias se validan al agregarlas, no cuando ya empezaron las partidas
+    public void addPlantStrategy(List<String> plantingOrder) {
+        PlantsIntelligent.validatePlantingOrder(plantingOrder);
+        plantStrategies.add(List.copyOf(plantingOrder));
+    }
+
+    public void addZombieStrategy(List<String> zombieTypes) {
+        ZombiesOriginal.validateZombieTypes(zombieTypes);
+        zombieStrategies.add(List.copyOf(zombieTypes));
+    }
+
+    public TournamentResult run(int matchesPerPairing, long seed) {
+        return run(matchesPerPairing, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Juega matchesPerPairing partidas de cada enfrentamiento en el pool dado.
+     */
+    public TournamentResult run(int matchesPerPairing, long seed, ForkJoinPool pool) {
+        if (plantStrategies.isEmpty() || zombieStrategies.isEmpty()) {
+            throw new IllegalStateException("The tournament needs at least one strategy per side");
+        }
+        if (matchesPerPairing <= 0) {
+            throw new IllegalArgumentException("matchesPerPairing must be positive: " + matchesPerPairing);
+        }
+        long start = System.nanoTime();
+        int total = plantStrategies.size() * zombieStrategies.size() * matchesPerPairing;
+        TournamentResult.Pairing[] pairings = pool.invoke(new Matches(0, total, matchesPerPairing, seed));
+        return new TournamentResult(List.of(pairings), System.nanoTime() - start);
+    }
+
+    private TournamentResult.Pairing[] emptyPairings() {
+        TournamentResult.Pairing[] pairings = new TournamentResult.Pairing[plantStrategies.size() * zombieStrategies.size()];
+        for (int i = 0; i < pairings.length; i++) {
+            pairings[i] = new TournamentResult.Pairing(plantStrategies.get(i / zombieStrategies.size()),
+                    zombieStrategies.get(i % zombieStrategies.size()));
+        }
+        return pairings;
+    }
+
+    // Partidas [from, to) del torneo; cada tarea devuelve sus propios acumulados y se combinan al unir
+    private class Matches extends RecursiveTask<TournamentResult.Pairing[]> {
+        private final int from;
+        private final int to;
+        private final int matchesPerPairing;
+        private final long seed;
+
+        private Matches(int from, int to, int matchesPerPairing, long seed) {
+            this.from = from;
+            this.to = to;
+            this.matchesPerPairing = matchesPerPairing;
+            this.seed = seed;
+        }
+
+        @Override
+        protected TournamentResult.Pairing[] compute() {
+            if (to - from <= SEQUENTIAL_CUTOFF) {
+                TournamentResult.Pairing[] pairings = emptyPairings();
+                for (int k = from; k < to; k++) {
+                    TournamentResult.Pairing pairing = pairings[k / matchesPerPairing];
+                    MatchRunner runner = new MatchRunner(matchTime, hordersNumber, suns, brains);
+                    runner.setStrategies(pairing.getPlantStrategy(), pairing.getZombieStrategy());
+                    pairing.add(runner.run(seed + k % matchesPerPairing));
+                }
+                return pairings;
+            }
+            int middle = (from + to) >>> 1;
+            Matches left = new Matches(from, middle, matchesPerPairing, seed);
+            left.fork();
+            TournamentResult.Pairing[] pairings = new Matches(middle, to, matchesPerPairing, seed).compute();
+            TournamentResult.Pairing[] other = left.join();
+            for (int i = 0; i < pairings.length; i++) {
+                pairings[i].merge(other[i]);
+            }
+            return pairings;
+        }
+    }
+}
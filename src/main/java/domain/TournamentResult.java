@@ -0,0 +1,164 @@
+package domain;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resultados de un {@link Tournament}: por cada enfrentamiento las victorias, la
+ * distribución de puntajes y el histograma de duración de las partidas.
+ */
+public class TournamentResult {
+    public static final int SCORE_BUCKET = 100; // Ancho de las barras de los histogramas de puntaje
+    public static final int DURATION_BUCKET = 10; // Segundos simulados por barra del histograma de duración
+
+    private final List<Pairing> pairings;
+    private final long wallTimeNanos;
+
+    TournamentResult(List<Pairing> pairings, long wallTimeNanos) {
+        this.pairings = pairings;
+        this.wallTimeNanos = wallTimeNanos;
+    }
+
+    public List<Pairing> getPairings() {
+        return pairings;
+    }
+
+    public long getWallTimeNanos() {
+        return wallTimeNanos;
+    }
+
+    /**
+     * Una estrategia de plantas contra una de zombies.
+     */
+    public static class Pairing {
+        private final List<String> plantStrategy;
+        private final List<String> zombieStrategy;
+        private final Map<String, Integer> wins = new TreeMap<>();
+        private final Distribution plantsScores = new Distribution(SCORE_BUCKET);
+        private final Distribution zombiesScores = new Distribution(SCORE_BUCKET);
+        private final Distribution durations = new Distribution(DURATION_BUCKET);
+        private int matches;
+
+        Pairing(List<String> plantStrategy, List<String> zombieStrategy) {
+            this.plantStrategy = plantStrategy;
+            this.zombieStrategy = zombieStrategy;
+        }
+
+        void add(MatchResult result) {
+            matches++;
+            wins.merge(result.getWinner(), 1, Integer::sum);
+            plantsScores.add(result.getPlantsScore());
+            zombiesScores.add(result.getZombiesScore());
+            durations.add(result.getDuration());
+        }
+
+        void merge(Pairing other) {
+            matches += other.matches;
+            other.wins.forEach((winner, count) -> wins.merge(winner, count, Integer::sum));
+            plantsScores.merge(other.plantsScores);
+            zombiesScores.merge(other.zombiesScores);
+            durations.merge(other.durations);
+        }
+
+        public List<String> getPlantStrategy() {
+            return plantStrategy;
+        }
+
+        public List<String> getZombieStrategy() {
+            return zombieStrategy;
+        }
+
+        public int getMatches() {
+            return matches;
+        }
+
+        // Victorias por ganador (nombre del jugador o "Empate")
+        public Map<String, Integer> getWins() {
+            return Collections.unmodifiableMap(wins);
+        }
+
+        public double getWinRate(String winner) {
+            return matches == 0 ? 0 : wins.getOrDefault(winner, 0) / (double) matches;
+        }
+
+        public Distribution getPlantsScores() {
+            return plantsScores;
+        }
+
+        public Distribution getZombiesScores() {
+            return zombiesScores;
+        }
+
+        // Duración de las partidas en segundos simulados
+        public Distribution getDurations() {
+            return durations;
+        }
+    }
+
+    /**
+     * Mínimo, máximo, media, desviación estándar e histograma de barras de ancho fijo.
+     */
+    public static class Distribution {
+        private final int bucket;
+        private final Map<Integer, Integer> histogram = new TreeMap<>();
+        private long count;
+        private double sum;
+        private double sumOfSquares;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        Distribution(int bucket) {
+            this.bucket = bucket;
+        }
+
+        void add(double value) {
+            count++;
+            sum += value;
+            sumOfSquares += value * value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            // El margen evita que 79.999... segundos acumulados por ticks caigan en la barra anterior
+            histogram.merge((int) Math.floor(value / bucket + 1e-9) * bucket, 1, Integer::sum);
+        }
+
+        void merge(Distribution other) {
+            count += other.count;
+            sum += other.sum;
+            sumOfSquares += other.sumOfSquares;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            other.histogram.forEach((start, n) -> histogram.merge(start, n, Integer::sum));
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMin() {
+            return count == 0 ? Double.NaN : min;
+        }
+
+        public double getMax() {
+            return count == 0 ? Double.NaN : max;
+        }
+
+        public double getMean() {
+            return count == 0 ? Double.NaN : sum / count;
+        }
+
+        public double getStandardDeviation() {
+            if (count == 0) {
+                return Double.NaN;
+            }
+            double mean = sum / count;
+            return Math.sqrt(Math.max(0, sumOfSquares / count - mean * mean));
+        }
+
+        // Inicio de cada barra -> cantidad de valores en [inicio, inicio + ancho)
+        public Map<Integer, Integer> getHistogram() {
+            return Collections.unmodifiableMap(histogram);
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package domain;
 
 public abstract class Zombie extends Character {
+    public static final double SPEED = 0.42; // Columnas por segundo (5px cada 150ms en celdas de 80px)
+    public static final double ATTACK_TIME = 0.5; // Segundos entre mordidas
+
     protected int damage;
+    // Posición horizontal en punto fijo (SUBCELLS por columna): 9 es la entrada, 0 la casa
+    protected int x;
+    // SUBCELLS por segundo; negativa mientras camina hacia la casa y 0 mientras come
+    protected int velocity;
 
     protected Zombie(int health, int cost, int damage) {
         super(health, cost);
@@ -12,6 +19,52 @@ public abstract class Zombie extends Character {
         return damage;
     }
 
+    public double getSpeed() {
+        return SPEED;
+    }
+
+    // Posición en columnas, para comparar con plantas y proyectiles
+    public double getX() {
+        return (double) x / SUBCELLS;
+    }
+
+    public int getFixedX() {
+        return x;
+    }
+
+    public void setX(double x) {
+        this.x = (int) Math.round(x * SUBCELLS);
+    }
+
+    public void setFixedX(int x) {
+        this.x = x;
+    }
+
+    // Velocidad en columnas por segundo, la usa la interfaz para interpolar
+    public double getVelocity() {
+        return (double) velocity / SUBCELLS;
+    }
+
+    int getFixedVelocity() {
+        return velocity;
+    }
+
+    void setFixedVelocity(int velocity) {
+        this.velocity = velocity;
+    }
+
+    public void walk() {
+        velocity = -(int) Math.round(getSpeed() * SUBCELLS);
+    }
+
+    public void stop() {
+        velocity = 0;
+    }
+
+    public void move(double seconds) {
+        x += (int) Math.round(velocity * seconds);
+    }
+
     // public void takeDamage(int damage) {
     //     this.health -= damage;
     // }
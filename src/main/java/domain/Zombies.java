@@ -1,6 +1,6 @@
 package domain;
 
-import java.util.ArrayList;
+import java.util.List;
 
 public class Zombies extends Team {
     public static final String NAME = "Zombies";
@@ -16,14 +16,14 @@ public class Zombies extends Team {
         super(MachinePlayer.ORIGINAL_ZOMBIES);
     }
 
-    public Zombies(ArrayList<String> characters,int brains){
+    public Zombies(List<String> characters,int brains){
         super(brains, characters);
     }
 
     @Override
     public void increaseResourceAmount(){
         // Implement the logic to increase resource amount for Zombies
-        resourceCounter += BRAIN_AMOUNT_INCREASE;
+        add(BRAIN_AMOUNT_INCREASE);
     }
 
     @Override
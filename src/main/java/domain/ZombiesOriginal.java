@@ -2,21 +2,24 @@ package domain;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-
-import javax.swing.JLabel;
-
-import presentation.GardenMenu;
+import java.util.List;
 
 public class ZombiesOriginal extends MachinePlayer{
     public static final int ORIGINAL_SPAWN_TIME = 10;
+    public static final int ZOMBIES_PER_HORDE = 10; // Cada horda tendrá 10 zombies (por horda configurada en MachineVsMachine)
+    public static final int SPAWN_INTERVAL = 3; // Segundos entre zombies de una horda
+    public static final List<String> DEFAULT_ZOMBIE_TYPES = List.of("Basic", "BucketHead", "Conehead");
+    // Tipos que POOBvsZombies.createZombieInstance sabe crear
+    public static final List<String> SUPPORTED_ZOMBIES = List.of("Basic", "Brainstein", "BucketHead", "Conehead", "ECIZombie");
     private int hordersNumber;
     private float horderTime;
-    private GardenMenu gardenMenu;
     private ArrayList<String> zombieTypes;  // Tipos de zombies posibles
-    private POOBvsZombies game; // Referencia al juego para acceder a métodos necesarios
 
-        
-    private JLabel zombieLabel;
+    private int lastHordePhase = -1; // Índice de la última fase de horda lanzada
+    private int pendingZombies; // Zombies de la horda actual que faltan por salir
+    private double nextSpawn; // Segundos hasta el próximo zombie
+    private Zombie waitingZombie; // Zombie ya elegido que espera cerebros para salir
+    private int waitingRow;
         
     
         public ZombiesOriginal(int hordersNumber, float matchTime) {
@@ -28,15 +31,34 @@ public class ZombiesOriginal extends MachinePlayer{
             this.zombieTypes = new ArrayList<>(Arrays.asList("Basic", "BucketHead", "Conehead", "ECIZombie"));  // ejemplo de tipos de zombies
         }
     
-        public ZombiesOriginal(int hordersNumber, float matchTime, ArrayList<String> zombiesMachine, int brains) {
+        public ZombiesOriginal(int hordersNumber, float matchTime, List<String> zombiesMachine, int brains) {
+            this(hordersNumber, matchTime, zombiesMachine, brains, DEFAULT_ZOMBIE_TYPES);
+        }
+
+        // zombieTypes: tipos entre los que se elige al azar cada zombie de las hordas
+        public ZombiesOriginal(int hordersNumber, float matchTime, List<String> zombiesMachine, int brains,
+                List<String> zombieTypes) {
             super("OZombies");
-            Team zombiesHordersTeam = new Zombies(zombiesMachine, brains); // Assuming Zombies class has a constructor that accepts ArrayList<Zombie>
+            validateZombieTypes(zombieTypes);
+            Team zombiesHordersTeam = new Zombies(zombiesMachine, brains);
             this.team = zombiesHordersTeam;
             this.hordersNumber = hordersNumber;
             this.horderTime = matchTime / hordersNumber;
-            this.zombieTypes = new ArrayList<>(Arrays.asList("Basic", "BucketHead", "Conehead"));  // ejemplo de tipos de zombies
+            this.zombieTypes = new ArrayList<>(zombieTypes);
         }
         
+        // Rechaza una lista vacía o con tipos desconocidos al configurar la partida
+        public static void validateZombieTypes(List<String> zombieTypes) {
+            if (zombieTypes.isEmpty()) {
+                throw new IllegalArgumentException("The zombie types must not be empty");
+            }
+            for (String zombieType : zombieTypes) {
+                if (!SUPPORTED_ZOMBIES.contains(zombieType)) {
+                    throw new IllegalArgumentException("Unsupported zombie type: " + zombieType);
+                }
+            }
+        }
+
         public void setOriginalStrategy() {
             // Implementation for setting the original strategy
         }
@@ -65,118 +87,116 @@ public class ZombiesOriginal extends MachinePlayer{
             // Implementation for playing a turn
         }
     
-        public void startAutomaticHordes(POOBvsZombies game) {
-            this.game = game; // Asignar la referencia al juego
-            new Thread(() -> {
-                    try {
-                        // Esperar 20 segundos antes de iniciar la primera horda
-                        Thread.sleep(20000);
-                        for (int i = 0; i < hordersNumber; i++) {
-                            // Determinar la modalidad para usar el método adecuado
-                            if ("PlayerVsMachine".equals(game.getModality())) {
-                                spawnHordePlayerVsMachine(game);
-                            } else if ("MachineVsMachine".equals(game.getModality())) {
-                                spawnHordeMachineVsMachine(game);
-                            }
-                            // Esperar el tiempo asignado por horda antes de la siguiente
-                            Thread.sleep((long) (horderTime * 1000));
-                        }
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
-            }).start();
-        }
-    
-        // Método para PlayerVsMachine (ya implementado previamente)
-        private void spawnHordePlayerVsMachine(POOBvsZombies game) {
-            spawnHorde(game);
-        }
-    
-        private void spawnHorde(POOBvsZombies game) {
-
-            // Supongamos que cada horda tiene 10 zombies
-            // Cada zombie aparecerá de forma aleatoria en una de las 5 filas (0 a 4)
-            // y será de un tipo aleatorio de la lista zombieTypes.
-            // Además, cada zombie aparece cada 3 segundos.
-            int zombiesInHorde = 10;  // Cada horda tendrá 10 zombies (ejemplo dado)
-            for (int i = 0; i < zombiesInHorde; i++) {
-                try {
-                    int row = (int) (Math.random() * 5); 
-                    String zombieType = zombieTypes.get((int) (Math.random() * zombieTypes.size()));
-                    Zombie zombie = game.createZombieInstance(zombieType);
-                    
-                    // Añadir el zombie al tablero en la última columna (col = 9)
-                    // Esto ya incrementa el score en addEntity si así está configurado.
-                    // Pero debemos sumar el costo del zombie en cerebros a OZombies
-                    game.addEntity(row, 9, zombie);
-        
-                    // Sumar el costo del zombie en cerebros al jugador OZombies
-                    Player zombiesPlayer = game.getPlayerTwo();
-                    zombiesPlayer.getTeam().addResource(new Resource(Resource.BRAIN, zombie.getCost()));
-                    
-                    // Ahora invocar método para que se refleje en la interfaz gráfica
-                    // Este método lo crearemos en POOBvsZombies
-                    game.spawnZombieUI(row, 9, zombie);
-        
-                    Thread.sleep(3000);  // Esperar 3 segundos antes del siguiente zombie
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    return;
+        /**
+         * Lanza una horda al comenzar cada fase de horda y saca sus zombies uno cada
+         * SPAWN_INTERVAL segundos simulados. En MachineVsMachine, si faltan cerebros,
+         * espera a que el equipo los tenga en vez de reintentar cada segundo.
+         * Como en la versión con hilos, en MachineVsMachine cada horda trae
+         * ZOMBIES_PER_HORDE zombies por cada horda configurada.
+         */
+        @Override
+        public void act(POOBvsZombies game, double dt) {
+            MatchPhase phase = game.getSimulationEngine().getCurrentPhase();
+            int phaseIndex = game.getSimulationEngine().getPhaseIndex();
+            if (phase != null && phase.isHorde() && phaseIndex != lastHordePhase) {
+                lastHordePhase = phaseIndex;
+                boolean machines = "MachineVsMachine".equals(game.getModality());
+                pendingZombies += machines ? ZOMBIES_PER_HORDE * hordersNumber : ZOMBIES_PER_HORDE;
+            }
+            if (pendingZombies == 0) {
+                return;
+            }
+            nextSpawn -= dt;
+            if (nextSpawn > 0 || isWaitingForResources()) {
+                return;
+            }
+            // Determinar la modalidad para usar el método adecuado
+            if ("MachineVsMachine".equals(game.getModality())) {
+                if (spawnZombieMachineVsMachine(game)) {
+                    nextSpawn = SPAWN_INTERVAL;
                 }
+            } else {
+                spawnZombiePlayerVsMachine(game);
+                nextSpawn = SPAWN_INTERVAL;
             }
         }
-        
-    
-        // Nuevo Método para MachineVsMachine
-    private void spawnHordeMachineVsMachine(POOBvsZombies game) {
-        // Continuar generando zombies hasta que se agoten las hordas
-        for (int i = 0; i < hordersNumber; i++) {
-            // Cada horda tendrá varios zombies según los cerebros disponibles
-            // En este ejemplo, cada horda tendrá 10 zombies si los cerebros lo permiten
-            int zombiesInHorde = 10;
-            for (int j = 0; j < zombiesInHorde; j++) {
-                try {
-                    // Verificar si hay suficientes cerebros para el siguiente zombie
-                    int row = (int) (Math.random() * 5); 
-                    String zombieType = zombieTypes.get((int) (Math.random() * zombieTypes.size()));
-                    Zombie zombie = game.createZombieInstance(zombieType);
-
-                    int zombieCost = zombie.getCost();
-
-                    Player zombiesPlayer = game.getPlayerTwo(); // OZombies es el segundo jugador
-                    synchronized (zombiesPlayer.getTeam()) { // Sincronizar para evitar condiciones de carrera
-                        if (zombiesPlayer.getTeam().getResourceCounterAmount() >= zombieCost) {
-                            // Deduct the cost
-                            zombiesPlayer.getTeam().deductResource(zombieCost);
-
-                            // Añadir zombie en el dominio
-                            game.addEntity(row, 9, zombie);
-
-                            // Crear la interfaz gráfica del zombie
-                            game.spawnZombieUI(row, 9, zombie);
-
-                            // Actualizar las etiquetas de recursos
-                            if (game.getGardenMenu() != null) {
-                                game.getGardenMenu().updateScoreLabels();
-                            }
-
-                            // Esperar 3 segundos antes de generar el siguiente zombie
-                            Thread.sleep(3000);
-                        } else {
-                            // No hay suficientes cerebros, esperar hasta que se acumulen más recursos
-                            // Aquí, podríamos implementar una espera activa o esperar a un evento
-                            // Para simplificar, haremos una espera de 1 segundo y reintentar
-                            Thread.sleep(1000);
-                            j--; // Reintentar el mismo zombie
-                        }
-                    }
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    return;
-                }
+
+        ArrayList<String> getZombieTypes() {
+            return zombieTypes;
+        }
+
+        int getLastHordePhase() {
+            return lastHordePhase;
+        }
+
+        int getPendingZombies() {
+            return pendingZombies;
+        }
+
+        double getNextSpawn() {
+            return nextSpawn;
+        }
+
+        Zombie getWaitingZombie() {
+            return waitingZombie;
+        }
+
+        int getWaitingRow() {
+            return waitingRow;
+        }
+
+        // Estado de las hordas de una partida cargada desde un MatchCheckpoint
+        void restore(float horderTime, ArrayList<String> zombieTypes, int lastHordePhase, int pendingZombies,
+                double nextSpawn, Zombie waitingZombie, int waitingRow) {
+            this.horderTime = horderTime;
+            this.zombieTypes = zombieTypes;
+            this.lastHordePhase = lastHordePhase;
+            this.pendingZombies = pendingZombies;
+            this.nextSpawn = nextSpawn;
+            this.waitingZombie = waitingZombie;
+            this.waitingRow = waitingRow;
+        }
+
+        // Cada zombie aparece en una fila aleatoria y es de un tipo aleatorio de zombieTypes
+        private Zombie randomZombie(POOBvsZombies game) {
+            String zombieType = zombieTypes.get(game.getRandom().nextInt(zombieTypes.size()));
+            return game.createZombieInstance(zombieType);
+        }
+
+        private void spawnZombiePlayerVsMachine(POOBvsZombies game) {
+            int row = game.getRandom().nextInt(game.getBoard().getRows());
+            Zombie zombie = randomZombie(game);
+
+            // Añadir el zombie al tablero en la última columna (la entrada)
+            // Esto ya incrementa el score en addEntity si así está configurado.
+            game.addEntity(row, game.getBoard().getEntryColumn(), zombie);
+
+            // Sumar el costo del zombie en cerebros al jugador OZombies
+            Player zombiesPlayer = game.getPlayerTwo();
+            zombiesPlayer.getTeam().addResource(new Resource(Resource.BRAIN, zombie.getCost()));
+            pendingZombies--;
+        }
+
+        // En MachineVsMachine cada zombie se paga con cerebros; devuelve false si no alcanzan
+        private boolean spawnZombieMachineVsMachine(POOBvsZombies game) {
+            if (waitingZombie == null) {
+                waitingRow = game.getRandom().nextInt(game.getBoard().getRows());
+                waitingZombie = randomZombie(game);
             }
+            int zombieCost = waitingZombie.getCost();
+
+            Player zombiesPlayer = game.getPlayerTwo(); // OZombies es el segundo jugador
+            if (!zombiesPlayer.getTeam().tryDeduct(zombieCost)) {
+                // No hay suficientes cerebros: el mismo zombie sale apenas se acumulen
+                waitForResources(zombieCost);
+                return false;
+            }
+            // Añadir zombie en el dominio
+            game.addEntity(waitingRow, game.getBoard().getEntryColumn(), waitingZombie);
+            waitingZombie = null;
+            pendingZombies--;
+            return true;
         }
-    }
 
     @Override
     public void setScore() {
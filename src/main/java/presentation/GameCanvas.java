@@ -0,0 +1,146 @@
+package presentation;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.VolatileImage;
+
+import javax.swing.JComponent;
+
+import domain.BoardSnapshot;
+import domain.EntitySnapshot;
+
+/**
+ * Ruta de dibujo alternativa de GardenMenu: un único componente que pinta fondo,
+ * plantas, zombies, proyectiles y recursos a partir de una instantánea del dominio.
+ * Cada fotograma se dibuja en un VolatileImage (doble búfer en la tarjeta gráfica)
+ * y se copia a pantalla de inmediato, en vez de mover decenas de componentes.
+ * Se activa con la propiedad del sistema poobvszombies.canvas=true.
+ */
+public class GameCanvas extends JComponent {
+    public static final int TARGET_FPS = 60;
+
+    // Geometría del tablero en píxeles, la misma que usa la vista con etiquetas
+    private static final int ORIGIN_X = 40;
+    private static final int ORIGIN_Y = 80;
+    private static final int CELL_WIDTH = 80;
+    private static final int CELL_HEIGHT = 100;
+    private static final int PEA_SIZE = 30;
+    private static final Font READOUT_FONT = new Font("Arial", Font.BOLD, 12);
+
+    private final Image background;
+    private VolatileImage buffer;
+    // Duración promedio de un fotograma y fotogramas por segundo medidos
+    private double frameMillis;
+    private double fps;
+    private long lastFrameStart;
+
+    public GameCanvas(String backgroundPath) {
+        this.background = SpriteCache.getImage(backgroundPath, -1, -1);
+        setOpaque(true);
+    }
+
+    /**
+     * Dibuja la instantánea en el búfer y la muestra. Zombies y proyectiles se
+     * adelantan lag segundos según su velocidad. Se llama en el EDT.
+     */
+    public void render(BoardSnapshot snapshot, double lag) {
+        long start = System.nanoTime();
+        if (getWidth() <= 0 || getHeight() <= 0) {
+            return;
+        }
+        do {
+            if (buffer == null || buffer.getWidth() != getWidth() || buffer.getHeight() != getHeight()
+                    || buffer.validate(getGraphicsConfiguration()) == VolatileImage.IMAGE_INCOMPATIBLE) {
+                buffer = createVolatileImage(getWidth(), getHeight());
+                if (buffer == null) {
+                    return; // Aún no está en pantalla
+                }
+            }
+            Graphics2D g = buffer.createGraphics();
+            try {
+                draw(g, snapshot, lag);
+            } finally {
+                g.dispose();
+            }
+        } while (buffer.contentsLost());
+        paintImmediately(0, 0, getWidth(), getHeight());
+
+        long end = System.nanoTime();
+        frameMillis = frameMillis * 0.9 + (end - start) / 1e6 * 0.1;
+        if (lastFrameStart != 0) {
+            fps = fps * 0.9 + 1e9 / (start - lastFrameStart) * 0.1;
+        }
+        lastFrameStart = start;
+    }
+
+    private void draw(Graphics2D g, BoardSnapshot snapshot, double lag) {
+        g.drawImage(background, 0, 0, getWidth(), getHeight(), null);
+        for (EntitySnapshot plant : snapshot.getPlants()) {
+            Image image = SpriteCache.getImage(GardenMenu.plantImagePath(plant), -1, -1);
+            drawCentered(g, image, cellX(plant.getCol()), cellY(plant.getRow()));
+        }
+        for (EntitySnapshot zombie : snapshot.getZombies()) {
+            Image image = SpriteCache.getImage(GardenMenu.zombieImagePath(zombie.getName()), -1, -1);
+            drawCentered(g, image, movingX(zombie, lag), cellY(zombie.getRow()));
+        }
+        Image pea = SpriteCache.getImage("resources/images/pea.png", PEA_SIZE, PEA_SIZE);
+        for (EntitySnapshot projectile : snapshot.getProjectiles()) {
+            g.drawImage(pea, movingX(projectile, lag), cellY(projectile.getRow()) + 35, this);
+        }
+        for (EntitySnapshot resource : snapshot.getResources()) {
+            int size = GardenMenu.resourceSize(resource.getName());
+            Image image = SpriteCache.getImage(GardenMenu.resourceImagePath(resource.getName()), size, size);
+            drawCentered(g, image, cellX(resource.getCol()), cellY(resource.getRow()));
+        }
+
+        // Indicador de rendimiento
+        g.setColor(Color.BLACK);
+        g.setFont(READOUT_FONT);
+        g.drawString(String.format("%.1f ms  %.0f fps  %s", frameMillis, fps, SpriteCache.describe()),
+                10, getHeight() - 40);
+    }
+
+    private void drawCentered(Graphics2D g, Image image, int cellX, int cellY) {
+        int width = image.getWidth(this);
+        int height = image.getHeight(this);
+        g.drawImage(image, cellX + (CELL_WIDTH - width) / 2, cellY + (CELL_HEIGHT - height) / 2, this);
+    }
+
+    private int cellX(int col) {
+        return ORIGIN_X + col * CELL_WIDTH;
+    }
+
+    private int cellY(int row) {
+        return ORIGIN_Y + row * CELL_HEIGHT;
+    }
+
+    private int movingX(EntitySnapshot entity, double lag) {
+        return ORIGIN_X + (int) Math.round((entity.getX() + entity.getVelocity() * lag) * CELL_WIDTH);
+    }
+
+    public double getFrameMillis() {
+        return frameMillis;
+    }
+
+    public double getFps() {
+        return fps;
+    }
+
+    // No recibe eventos del ratón; las celdas de encima siguen aceptando arrastrar y soltar
+    @Override
+    public boolean contains(int x, int y) {
+        return false;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (buffer != null && !buffer.contentsLost()) {
+            g.drawImage(buffer, 0, 0, null);
+        } else {
+            g.drawImage(background, 0, 0, getWidth(), getHeight(), null);
+        }
+    }
+}
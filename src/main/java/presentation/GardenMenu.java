@@ -15,17 +15,31 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator; // Add this import
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.swing.Box; // Add this import
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JComponent;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -39,27 +53,30 @@ import javax.swing.TransferHandler.TransferSupport;
 import javax.swing.border.LineBorder;
 
 import domain.Basic;
+import domain.BoardSnapshot;
 import domain.Brainstein;
 import domain.Buckethead;
 import domain.Conehead;
 import domain.ECIPlant;
 import domain.ECIZombie;
-import domain.Entity;
+import domain.EntitySnapshot;
+import domain.GameClock;
+import domain.Log;
+import domain.MatchCheckpoint;
+import domain.MatchContext;
+import domain.MatchEventLog;
+import domain.MatchRecording;
 import domain.POOBvsZombies;
 import domain.POOBvsZombiesException;
 import domain.Peashooter;
 import domain.Plant;
-import domain.Plants;
 import domain.Player;
 import domain.PotatoMine;
-import domain.ProjectTile;
-import domain.ProjectTileThreadManager;
 import domain.Resource;
-import domain.ResourceGenerator;
+import domain.SimulationEngine;
 import domain.Sunflower;
 import domain.WallNut;
 import domain.Zombie;
-import domain.ZombieThreadManager;
 
 public class GardenMenu extends JFrame {
     private ArrayList<String> selectedPlants;
@@ -67,7 +84,7 @@ public class GardenMenu extends JFrame {
     private String modality; // "PlayerVsPlayer" or "PlayerVsMachine"
     private JLabel shovelLabel;
     private Point originalShovelPosition;
-    private JPanel[][] gridCells = new JPanel[5][10];
+    private JPanel[][] gridCells;
     private boolean shovelSelected = false;
     private List<JLabel> movingZombies = new ArrayList<>();
     private POOBvsZombies poobvszombies;
@@ -75,12 +92,30 @@ public class GardenMenu extends JFrame {
     private JLabel playerOneSunsLabel, playerTwoBrainsLabel;
     private JLabel playerOneScoreLabel, playerTwoScoreLabel;
     private Timer resourceGenerationTimer; // Timer cada 20 segundos
-    // Mapa para gestionar timers individuales por entidad
-    private Map<Entity, Timer> entityTimers = new HashMap<>();
-
-    // UPDATE
-    private ZombieThreadManager zombieThreadManager;
-    private ProjectTileThreadManager projectTileThreadManager;
+    private MatchEventLog eventLog; // Exportación de eventos en curso, o null
+
+    // Dibujo a partir de las instantáneas del SimulationEngine
+    public static final int RENDER_FPS = 60; // Entre ticks se interpola con la velocidad de cada entidad
+    private JPanel mainPanel;
+    private Timer renderTimer;
+    // Tamaño del tablero de la partida; todos los arreglos por casilla se dimensionan con él
+    private final int rows;
+    private final int columns;
+    private int[][] plantIds;
+    private boolean[][] armedMines;
+    private JLabel[][] plantLabels;
+    private Map<Integer, JLabel> zombieLabels = new HashMap<>();
+    private ProjectileOverlay projectileOverlay;
+    private static final Logger logger = Logger.getLogger(GardenMenu.class.getName());
+    // Con poobvszombies.canvas=true todo el tablero se pinta en un GameCanvas en vez de etiquetas
+    private static final boolean USE_CANVAS = Boolean.getBoolean("poobvszombies.canvas");
+    // Con poobvszombies.record=true cada partida se graba en replays/; se guardan las últimas MAX_REPLAYS
+    private static final boolean RECORD = Boolean.getBoolean("poobvszombies.record");
+    private static final int MAX_REPLAYS = 20;
+    private GameCanvas gameCanvas;
+    private Map<Integer, JLabel> resourceLabels = new HashMap<>();
+    // Etiquetas de recursos ya recogidos, por tipo, para reutilizarlas en la siguiente caída
+    private Map<String, ArrayDeque<JLabel>> idleResourceLabels = new HashMap<>();
 
 
     public static final List<List<String>> ZOMBIES_VIEW = Arrays.asList(
@@ -136,16 +171,13 @@ public class GardenMenu extends JFrame {
                     "resources/images/plants/ECIPlant/ECIPlant.png",
                     "resources/images/cards/Plants/card_ECIPlant.png",
                     "resources/images/plants/ECIPlant/ECIPlantAnimated.gif"));
-    private List<TimerTask> timerTasks = new ArrayList<>();
     
     // Arreglo estatico de lawnmovers para poder acceder a ellos desde cualquier parte
-    private JLabel[] lawnmowersArrayJLabels = new JLabel[5];
+    private JLabel[] lawnmowersArrayJLabels;
 
     // Etiquetas para mostrar el mensaje y el tiempo
     private JLabel messageLabel;
     private JLabel timeLabel;
-    // Añade este mapa en la declaración de variables de la clase GardenMenu
-    private Map<Entity, Timer> imageChangeTimers = new HashMap<>();
 
 
     public GardenMenu(POOBvsZombies poobvszombies) {
@@ -155,14 +187,15 @@ public class GardenMenu extends JFrame {
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
 
-        //Inicializar ZombieThreadManager
-        this.zombieThreadManager = new ZombieThreadManager(poobvszombies, this);
-
-        // Inicializar ProjectTileThreadManager
-        this.projectTileThreadManager = new ProjectTileThreadManager(poobvszombies, this, zombieThreadManager);
-        
         this.poobvszombies = poobvszombies;
         this.modality = poobvszombies.getModality();
+        this.rows = poobvszombies.getBoard().getRows();
+        this.columns = poobvszombies.getBoard().getColumns();
+        this.gridCells = new JPanel[rows][columns];
+        this.plantIds = new int[rows][columns];
+        this.armedMines = new boolean[rows][columns];
+        this.plantLabels = new JLabel[rows][columns];
+        this.lawnmowersArrayJLabels = new JLabel[rows];
         Player playerOne = poobvszombies.getPlayerOne();
         Player playerTwo = poobvszombies.getPlayerTwo();
         this.selectedPlants = playerOne.getTeam().getCharacters();
@@ -170,15 +203,29 @@ public class GardenMenu extends JFrame {
 
         // Panel with custom background
         JPanel panel = new JPanel() {
-            Image backgroundImage = new ImageIcon("resources/images/gardenPvsP.png").getImage();
+            Image backgroundImage = SpriteCache.getIcon("resources/images/gardenPvsP.png").getImage();
 
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
                 g.drawImage(backgroundImage, 0, 0, getWidth(), getHeight(), this);
             }
+
+            // Zombies, recursos y el lienzo se superponen a la cuadrícula
+            @Override
+            public boolean isOptimizedDrawingEnabled() {
+                return false;
+            }
         };
         panel.setLayout(null);
+        this.mainPanel = panel;
+
+        if (!USE_CANVAS) {
+            // Todos los guisantes se pintan en una sola capa sobre el tablero
+            projectileOverlay = new ProjectileOverlay(30, 40, 80 + 35, 80, 100);
+            projectileOverlay.setBounds(0, 0, 900, 700);
+            panel.add(projectileOverlay);
+        }
 
         // Display plant cards based on selection and make them draggable
         addPlantsCards(panel);
@@ -195,6 +242,9 @@ public class GardenMenu extends JFrame {
         // Add icons for returning to menus, saving, and exporting
         addTopRightButtons(panel);
 
+        // Pausa y velocidad de la partida
+        addClockButtons(panel);
+
         // Add zombie components only if in "PlayerVsPlayer" mode
 
         if ("PlayerVsPlayer".equals(modality)) {
@@ -218,15 +268,32 @@ public class GardenMenu extends JFrame {
         }
 
         // addTimerSection(panel, poobvszombies);
-        initializeTimers(poobvszombies);
+        // Las fases las lleva el SimulationEngine; las etiquetas se actualizan al dibujar
         setupTimerLabels(panel);
-        startSequentialTimers(0);
         
+        if (USE_CANVAS) {
+            // Al fondo de todo: las cartas, botones y celdas quedan encima
+            gameCanvas = new GameCanvas("resources/images/gardenPvsP.png");
+            gameCanvas.setBounds(0, 0, 900, 700);
+            panel.add(gameCanvas);
+        }
+
         add(panel);
         //startZombieMovement();
 
         
         poobvszombies.setGardenMenu(this);
+
+        // Si se pidió, se graban las acciones de los jugadores para poder repetir la partida
+        if (RECORD) {
+            poobvszombies.startRecording();
+        }
+
+        // Un único bucle de simulación avanza la partida; aquí solo se dibuja su estado
+        poobvszombies.getSimulationEngine().start();
+        int fps = USE_CANVAS ? GameCanvas.TARGET_FPS : RENDER_FPS;
+        renderTimer = new Timer(1000 / fps, e -> renderSnapshot(poobvszombies.getSimulationEngine().snapshot()));
+        renderTimer.start();
     }
 
     private void addPlantsCards(JPanel panel) {
@@ -252,9 +319,7 @@ public class GardenMenu extends JFrame {
                 if (plant == null)
                     continue;
 
-                ImageIcon icon = new ImageIcon(plant.get(2));
-                JLabel cardLabel = new JLabel(
-                        new ImageIcon(icon.getImage().getScaledInstance(60, 85, Image.SCALE_SMOOTH)));
+                JLabel cardLabel = new JLabel(SpriteCache.getIcon(plant.get(2), 60, 85));
                 cardLabel.setBounds(x, y, 100, 150);
                 panel.add(cardLabel);
 
@@ -264,7 +329,7 @@ public class GardenMenu extends JFrame {
                 cardLabel.setTransferHandler(new TransferHandler("icon") {
                     @Override
                     protected Transferable createTransferable(JComponent c) {
-                        ImageIcon dragIcon = new ImageIcon(dragImagePath);
+                        ImageIcon dragIcon = SpriteCache.getIcon(dragImagePath);
                         EntityData entityData = new EntityData("plant", plantName, dragIcon.getImage());
                         return new EntityTransferable(entityData);
                     }
@@ -296,12 +361,8 @@ public class GardenMenu extends JFrame {
         // Path of the shovel
         String shovelImagePath = "resources/images/shovel.png";
 
-        // Load and scale the shovel
-        ImageIcon shovelIcon = new ImageIcon(shovelImagePath);
-        Image scaledShovelImage = shovelIcon.getImage().getScaledInstance(65, 65, Image.SCALE_SMOOTH);
-
-        // Create a JLabel to display the shovel
-        shovelLabel = new JLabel(new ImageIcon(scaledShovelImage));
+        // Create a JLabel to display the shovel, scaled once by the cache
+        shovelLabel = new JLabel(SpriteCache.getIcon(shovelImagePath, 65, 65));
         shovelLabel.setBounds(520, 28, 50, 50); // Place at the top right corner
         originalShovelPosition = shovelLabel.getLocation();
 
@@ -319,8 +380,8 @@ public class GardenMenu extends JFrame {
         panel.add(shovelLabel);
     }
 
-    // Method to delete a lawnmower from the interface and the domain, it is gonna be used in ZombieThreadManager
-    public void deleteLawnmover(int row) {
+    // Method to delete a lawnmower from the interface once the domain has used it
+    private void deleteLawnmover(int row) {
         if (row >= 0 && row < lawnmowersArrayJLabels.length) {
             JLabel lawnmowerLabel = lawnmowersArrayJLabels[row];
             if (lawnmowerLabel != null) {
@@ -330,24 +391,23 @@ public class GardenMenu extends JFrame {
                     parentPanel.revalidate();
                     parentPanel.repaint();
                 }
-                poobvszombies.deleteEntity(row, 0);
                 lawnmowersArrayJLabels[row] = null;
             }
         }
     }
 
     private void addGridLayout(JPanel panel) {
-        // Create a panel with a 5x10 GridLayout
-        JPanel gridPanel = new JPanel(new GridLayout(5, 10, 5, 5)); // 5 rows, 10 columns, 5px spacing
-        gridPanel.setBounds(40, 80, 800, 500); // Adjust position and size
+        // Create a panel with one cell per board square, 80x100 px each
+        JPanel gridPanel = new JPanel(new GridLayout(rows, columns, 5, 5)); // 5px spacing
+        gridPanel.setBounds(40, 80, columns * 80, rows * 100); // Adjust position and size
         gridPanel.setOpaque(false); // Transparent to make the background visible
 
         // Path of the lawn mower
         String lawnMowerImagePath = "resources/images/Lawnmower.jpg";
 
         // Add cells to the grid with specific restrictions for plants and zombies
-        for (int row = 0; row < 5; row++) {
-            for (int col = 0; col < 10; col++) {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
                 final int finalRow = row;
                 final int finalCol = col;
 
@@ -358,15 +418,16 @@ public class GardenMenu extends JFrame {
 
                 if (col == 0) {
                     // Add the lawn mower to the first column of each row
-                    ImageIcon mowerIcon = new ImageIcon(lawnMowerImagePath);
-                    Image scaledMowerImage = mowerIcon.getImage().getScaledInstance(50, 50, Image.SCALE_SMOOTH);
-                    JLabel mowerLabel = new JLabel(new ImageIcon(scaledMowerImage));
+                    JLabel mowerLabel = new JLabel(SpriteCache.getIcon(lawnMowerImagePath, 50, 50));
                     cellPanel.add(mowerLabel, BorderLayout.CENTER);
 
                     // Add the lawnmower to the array
                     lawnmowersArrayJLabels[row] = mowerLabel;
 
-                    poobvszombies.addEntity(finalRow, finalCol, "LownMover");
+                    // Una partida cargada ya trae sus podadoras (y sin las que se usaron)
+                    if (poobvszombies.getSimulationEngine().getTickCount() == 0) {
+                        poobvszombies.addEntity(finalRow, finalCol, "LownMover");
+                    }
                 } else if (col >= 1 && col <= 8) {
                     // Allow dragging and dropping plants only in columns 1 to 8
                     cellPanel.setTransferHandler(new TransferHandler("icon") {
@@ -380,8 +441,7 @@ public class GardenMenu extends JFrame {
                             }
 
                             // Validate if the cell already has a plant
-                            JPanel targetPanel = (JPanel) support.getComponent();
-                            if (targetPanel.getComponentCount() > 0) {
+                            if (poobvszombies.getEntity(finalRow, finalCol) != null) {
                                 return false; // There's already a plant in this cell
                             }
 
@@ -420,7 +480,7 @@ public class GardenMenu extends JFrame {
                                 return "plant".equals(entityData.getType()); // Only accept plants
 
                             } catch (Exception e) {
-                                e.printStackTrace();
+                                Log.record(e, poobvszombies);
                             }
                             return false;
                         }
@@ -435,92 +495,12 @@ public class GardenMenu extends JFrame {
                                 EntityData entityData = (EntityData) support.getTransferable()
                                         .getTransferData(EntityTransferable.ENTITY_FLAVOR);
                             
-                                 // Añadir a dominio
-                                 poobvszombies.addEntity(finalRow, finalCol, entityData.getName());
-                                 updateScoreLabels();
-                                 
-                                Image image = entityData.getImage();
-
-                                JLabel label = new JLabel(new ImageIcon(image));
-                                label.setHorizontalAlignment(JLabel.CENTER);
-                                JPanel targetPanel = (JPanel) support.getComponent();
-                                targetPanel.add(label);
-                                targetPanel.revalidate();
-                                targetPanel.repaint();
-
-                               
-                                //showEntityMatrix();
-
-                                if (entityData.getName().equals("Peashooter")){
-                                    ProjectTile uselessProjectTile = new ProjectTile();
-                                    projectTileThreadManager.registerProjectTile(finalRow, finalCol, uselessProjectTile, targetPanel.getX(), targetPanel.getY());
-                                }
-
-                                // NUEVO: Deducir recursos
                                 String plantName = entityData.getName();
-                                Plant plant = createPlantInstance(plantName);
-                                if (plant != null) {
-                                    Player playerOne = poobvszombies.getPlayerOne();
-                                    // Deducir el costo de la planta
-                                    playerOne.getTeam().deductResource(plant.getCost());
-                                    updateScoreLabels();
-                                    // Actualizar la etiqueta de soles
-                                    playerOneSunsLabel.setText("" + playerOne.getTeam().getResourceCounterAmount());
-                                }
-
-                                // Iniciar Timer si la entidad es un generador de recursos
-                                if (plant instanceof ResourceGenerator) {
-                                    Timer plantTimer = createEntityTimer((ResourceGenerator) plant, finalRow, finalCol);
-                                    entityTimers.put(plant, plantTimer);
-                                    plantTimer.start();
-                                }
-                                if (plant instanceof PotatoMine) {
-                                    Timer imageChangeTimer = new Timer(14000, new ActionListener() {
-                                        @Override
-                                        public void actionPerformed(ActionEvent e) {
-                                            System.out.println("Timer disparado para cambiar la imagen de PotatoMine.");
-                                            
-                                            // Crear el ImageIcon directamente con el GIF animado
-                                            ImageIcon newIcon = new ImageIcon("resources/images/plants/PotatoMine/potato-mineAnimated.gif");
-                                            
-                                            // Verificar que la imagen se haya cargado correctamente
-                                            if (newIcon.getIconWidth() == -1) {
-                                                System.err.println("No se pudo cargar la imagen: resources/images/plants/PotatoMine/potato-mineAnimated.gif");
-                                                return;
-                                            } else {
-                                                System.out.println("Imagen potato-mineAnimated.gif cargada correctamente.");
-                                            }
-                                
-                                            // Asignar el ImageIcon directamente sin escalar
-                                            label.setIcon(newIcon);
-                                            
-                                            // Ajustar el tamaño del JLabel si es necesario
-                                            label.setPreferredSize(new Dimension(newIcon.getIconWidth()-10, newIcon.getIconHeight()-10));
-                                            label.revalidate();
-                                            label.repaint();
-                                            System.out.println("Icono del JLabel actualizado con el GIF animado.");
-                                
-                                            // Traer el JLabel al frente
-                                            targetPanel.setComponentZOrder(label, 0);
-                                            targetPanel.revalidate();
-                                            targetPanel.repaint();
-                                            System.out.println("JLabel traído al frente.");
-                                
-                                            // Detener el Timer ya que es una acción única
-                                            ((Timer) e.getSource()).stop();
-                                            System.out.println("Timer de cambio de imagen detenido.");
-                                        }
-                                    });
-                                    imageChangeTimer.setRepeats(false); // Ejecutar solo una vez
-                                    imageChangeTimer.start();
-                                    imageChangeTimers.put(plant, imageChangeTimer);
-                                    System.out.println("Timer de cambio de imagen iniciado para PotatoMine.");
-                                }
-                                
-                                
-                                return true;
+                                // Cobrar y añadir a dominio; otro hilo pudo gastar los soles desde canImport.
+                                // La planta se dibuja desde la instantánea
+                                return poobvszombies.buyEntity(finalRow, finalCol, plantName);
                             } catch (Exception ex) {
-                                ex.printStackTrace();
+                                Log.record(ex, poobvszombies);
                             }
                             return false;
                         }
@@ -530,47 +510,28 @@ public class GardenMenu extends JFrame {
                     cellPanel.addMouseListener(new MouseAdapter() {
                         @Override
                         public void mouseClicked(MouseEvent e) {
-                            if (shovelSelected) {
-                                if (cellPanel.getComponentCount() > 0) {
-                                    // Obtener la entidad de dominio
-                                    Entity entity = (Entity) poobvszombies.getEntitiesMatrix().get(finalRow).get(finalCol);  
-                                    if (entity != null) {
-                                        // Detener y remover el Timer asociado (generación de recursos)
-                                        Timer resourceTimer = entityTimers.get(entity);
-                                        if (resourceTimer != null) {
-                                            resourceTimer.stop();
-                                            entityTimers.remove(entity);
-                                            System.out.println("Timer de recursos detenido y removido para la entidad: " + entity.getName());
-                                        }
-
-                                        // Detener y remover el Timer de cambio de imagen si es PotatoMine
-                                        if (entity instanceof PotatoMine) {
-                                            Timer imageChangeTimer = imageChangeTimers.get(entity);
-                                            if (imageChangeTimer != null) {
-                                                imageChangeTimer.stop();
-                                                imageChangeTimers.remove(entity);
-                                                System.out.println("Timer de cambio de imagen detenido y removido para PotatoMine.");
-                                            }
-                                        }
-                                    }
-
-                                    // Remover la planta visualmente
-                                    cellPanel.removeAll();
-                                    cellPanel.revalidate();
-                                    cellPanel.repaint();
-                                    poobvszombies.deleteEntity(finalRow, finalCol); // Implementa este método en POOBvsZombies
+                            if (!shovelSelected) {
+                                return;
+                            }
+                            MatchContext previous = poobvszombies.getContext().enter();
+                            try {
+                                if (poobvszombies.getEntity(finalRow, finalCol) != null) {
+                                    // Remover la planta del dominio; la siguiente instantánea la quita visualmente
+                                    poobvszombies.deleteEntity(finalRow, finalCol);
                                     shovelSelected = false;
                                     setCursor(Cursor.getDefaultCursor()); // Restablecer el cursor
                                     System.out.println("Planta eliminada en la celda (" + finalRow + ", " + finalCol + ").");
                                 } else {
                                     JOptionPane.showMessageDialog(null, "No hay planta en esta celda.");
                                 }
+                            } finally {
+                                MatchContext.leave(previous);
                             }
                         }
                     });
 
 
-                } else if (col == 9) {
+                } else if (col == poobvszombies.getBoard().getEntryColumn()) {
                     if ("PlayerVsPlayer".equals(modality)) {
                         // Allow dragging and dropping zombies only in the last column
                         cellPanel.setTransferHandler(new TransferHandler("icon") {
@@ -583,9 +544,8 @@ public class GardenMenu extends JFrame {
                                     return false;
                                 }
 
-                                // Validate if the cell already has a zombie
-                                JPanel targetPanel = (JPanel) support.getComponent();
-                                if (targetPanel.getComponentCount() > 0) {
+                                // Los zombies se dibujan sobre mainPanel: se pregunta al dominio
+                                if (poobvszombies.isEntryOccupied(finalRow)) {
                                     return false; // There's already a zombie in this cell
                                 }
 
@@ -607,7 +567,7 @@ public class GardenMenu extends JFrame {
 
                                     return "zombie".equals(entityData.getType());
                                 } catch (Exception e) {
-                                    e.printStackTrace();
+                                    Log.record(e, poobvszombies);
                                 }
                                 return false;
                             }
@@ -622,66 +582,11 @@ public class GardenMenu extends JFrame {
                                     EntityData entityData = (EntityData) support.getTransferable()
                                             .getTransferData(EntityTransferable.ENTITY_FLAVOR);
                                     String zombieName = entityData.getName();
-                                    Zombie zombie = createZombieInstance(zombieName);
-                                    // Añadir a dominio
-                                    poobvszombies.addEntity(finalRow, finalCol, entityData.getName());
-                                    updateScoreLabels();
-                                    //showEntityMatrix();
-                                    // Image image = entityData.getImage();
-                                    // JLabel zombieLabel = new JLabel(new ImageIcon(image));
-                                    // zombieLabel.setHorizontalAlignment(JLabel.CENTER);
-                                    // // Get the cell's position relative to the main panel
-                                    // JPanel targetCell = (JPanel) support.getComponent();
-                                    // Point cellLocation = targetCell.getLocation();
-                                    // int x = gridPanel.getX() + cellLocation.x;
-                                    // int y = gridPanel.getY() + cellLocation.y;
-                                    // // Set the zombie's bounds
-                                    // zombieLabel.setBounds(x, y, targetCell.getWidth(), targetCell.getHeight());
-                                    // // Add the zombie to the main panel
-                                    // panel.add(zombieLabel);
-                                    // panel.setComponentZOrder(zombieLabel, 0); // Bring to front if necessary
-                                    // panel.revalidate();
-                                    // panel.repaint();
-
-                                    // Crear el JLabel del zombi
-                                    Image image = entityData.getImage();
-                                    JLabel zombieLabel = new JLabel(new ImageIcon(image));
-                                    zombieLabel.setHorizontalAlignment(JLabel.CENTER);
-
-                                    JPanel targetCell = (JPanel) support.getComponent();
-                                    Point cellLocation = targetCell.getLocation();
-                                    int x = gridPanel.getX() + cellLocation.x;
-                                    int y = gridPanel.getY() + cellLocation.y;
-                                    zombieLabel.setBounds(x, y, targetCell.getWidth(), targetCell.getHeight());
-
-                                    panel.add(zombieLabel);
-                                    panel.setComponentZOrder(zombieLabel, 0);
-                                    panel.revalidate();
-                                    panel.repaint();
-
-                                    // Registrar el zombi en el ZombieThreadManager para moverlo
-                                    zombieThreadManager.registerZombie(finalRow, zombie, zombieLabel);
-
-                                    // NUEVO: Deducir recursos
-                                    // String zombieName = entityData.getName();
-                                    // Zombie zombie = createZombieInstance(zombieName);
-                                    if (zombie != null) {
-                                        Player playerTwo = poobvszombies.getPlayerTwo();
-                                        playerTwo.getTeam().deductResource(zombie.getCost());
-                                        playerTwoBrainsLabel
-                                                .setText("" + playerTwo.getTeam().getResourceCounterAmount());
-                                    }
-                                    // Add the zombie to the movingZombies list
-                                    movingZombies.add(zombieLabel);
-                                    // Iniciar Timer si la entidad es un generador de recursos
-                                    if (zombie instanceof ResourceGenerator) {
-                                        Timer zombieTimer = createEntityTimer((ResourceGenerator) zombie, finalRow, finalCol);
-                                        entityTimers.put(zombie, zombieTimer);
-                                        zombieTimer.start();
-                                    }
-                                    return true;
+                                    // Cobrar y añadir a dominio; otro hilo pudo gastar los cerebros desde canImport.
+                                    // El SimulationEngine lo mueve y la instantánea lo dibuja
+                                    return poobvszombies.buyEntity(finalRow, finalCol, zombieName);
                                 } catch (Exception ex) {
-                                    ex.printStackTrace();
+                                    Log.record(ex, poobvszombies);
                                 }
                                 return false;
                             }
@@ -705,46 +610,32 @@ public class GardenMenu extends JFrame {
             JTextField rowField = new JTextField(2);
             JTextField colField = new JTextField(2);
             JPanel inputPanel = new JPanel();
-            inputPanel.add(new JLabel("Row (0-4):"));
+            inputPanel.add(new JLabel("Row (0-" + (rows - 1) + "):"));
             inputPanel.add(rowField);
             inputPanel.add(Box.createHorizontalStrut(15)); // Space between fields
-            inputPanel.add(new JLabel("Column (1-9):"));
+            inputPanel.add(new JLabel("Column (1-" + (columns - 1) + "):"));
             inputPanel.add(colField);
     
             int result = JOptionPane.showConfirmDialog(this, inputPanel, "Enter Row and Column to Remove Plant",
                     JOptionPane.OK_CANCEL_OPTION);
             if (result == JOptionPane.OK_OPTION) {
+                // Las excepciones creadas aquí se registran con la partida
+                MatchContext previous = poobvszombies.getContext().enter();
                 try {
                     int row = Integer.parseInt(rowField.getText());
                     int col = Integer.parseInt(colField.getText());
-    
+
                     // Validate limits and conditions
-                    if (row < 0 || row > 4 || col < 1 || col > 9) {
+                    if (row < 0 || row >= rows || col < 1 || col >= columns) {
                         throw new POOBvsZombiesException(POOBvsZombiesException.INVALID_COORDINATES);
                     } else if (col == 0) {
                         throw new POOBvsZombiesException(POOBvsZombiesException.INVALID_LAWNMOWER);
                     } else {
-                        JPanel targetPanel = gridCells[row][col];
-                        if (targetPanel.getComponentCount() == 0) {
+                        if (poobvszombies.getPlantAt(row, col) == null) {
                             throw new POOBvsZombiesException(POOBvsZombiesException.NO_PLANT_TO_REMOVE);
                         } else {
-                            // Remove the plant
-                            // Obtener la entidad de dominio
-                            Entity entity = (Entity) poobvszombies.getEntitiesMatrix().get(row).get(col);    
-                            if (entity != null) {
-                                // Detener y remover el Timer asociado
-                                Timer timer = entityTimers.get(entity);
-                                if (timer != null) {
-                                    timer.stop();
-                                    entityTimers.remove(entity);
-                                }
-                            }
-    
-                            // Remover la planta visualmente
-                            targetPanel.removeAll();
-                            targetPanel.revalidate();
-                            targetPanel.repaint();
-                            poobvszombies.deleteEntity(row, col); // Implementa este método en POOBvsZombies
+                            // Remove the plant; the next snapshot removes it visually
+                            poobvszombies.deleteEntity(row, col);
                         }
                     }
                 } catch (NumberFormatException ex) {
@@ -755,6 +646,8 @@ public class GardenMenu extends JFrame {
                     }
                 } catch (POOBvsZombiesException exc) {
                     JOptionPane.showMessageDialog(this, exc.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                } finally {
+                    MatchContext.leave(previous);
                 }
             }
         });
@@ -763,6 +656,35 @@ public class GardenMenu extends JFrame {
     }
     
 
+    private void addClockButtons(JPanel panel) {
+        GameClock clock = poobvszombies.getSimulationEngine().getClock();
+        JButton pauseButton = new JButton("Pause");
+        pauseButton.setBounds(690, 55, 90, 30);
+        pauseButton.addActionListener(e -> {
+            if (clock.isPaused()) {
+                clock.resume();
+                pauseButton.setText("Pause");
+            } else {
+                clock.pause();
+                pauseButton.setText("Resume");
+            }
+        });
+        panel.add(pauseButton);
+
+        // Cada clic pasa a la siguiente velocidad: 0.5x, 1x, 2x, ... 16x y vuelve a 0.5x
+        JButton speedButton = new JButton("1x");
+        speedButton.setBounds(790, 55, 70, 30);
+        speedButton.addActionListener(e -> {
+            double scale = clock.getScale() * 2;
+            if (scale > GameClock.MAX_SCALE) {
+                scale = GameClock.MIN_SCALE;
+            }
+            clock.setScale(scale);
+            speedButton.setText(scale < 1 ? "0.5x" : (int) scale + "x");
+        });
+        panel.add(speedButton);
+    }
+
     private void addTopRightButtons(JPanel panel) {
         String[] buttonImagePaths = {
                 "resources/images/buttons/export-icon.png", // Export
@@ -776,9 +698,7 @@ public class GardenMenu extends JFrame {
         int buttonSize = 40;
 
         for (String imagePath : buttonImagePaths) {
-            ImageIcon icon = new ImageIcon(imagePath);
-            JButton button = new JButton(
-                    new ImageIcon(icon.getImage().getScaledInstance(buttonSize, buttonSize, Image.SCALE_SMOOTH)));
+            JButton button = new JButton(SpriteCache.getIcon(imagePath, buttonSize, buttonSize));
             button.setBounds(x, y, buttonSize, buttonSize);
             button.setContentAreaFilled(false);
             button.setBorderPainted(false);
@@ -786,24 +706,17 @@ public class GardenMenu extends JFrame {
 
             // Agregar eventos de acción a los botones
             if (imagePath.contains("export-icon")) {
-                button.addActionListener(e -> {
-                    // Implementar funcionalidad para exportar el estado del juego
-                    JOptionPane.showMessageDialog(this, "Funcionalidad de exportar aún no implementada.", "Exportar",
-                            JOptionPane.INFORMATION_MESSAGE);
-                });
+                button.addActionListener(e -> toggleEventExport());
             }
 
             if (imagePath.contains("save-icon")) {
-                button.addActionListener(e -> {
-                    // Implementar funcionalidad para guardar el estado del juego
-                    JOptionPane.showMessageDialog(this, "Funcionalidad de guardar aún no implementada.", "Guardar",
-                            JOptionPane.INFORMATION_MESSAGE);
-                });
+                button.addActionListener(e -> saveMatch());
             }
 
             // Add action events to buttons
             if (imagePath.contains("return-icon")) {
                 button.addActionListener(e -> {
+                    stopMatch();
                     dispose(); // Close the current window
                     if ("PlayerVsMachine".equals(modality)) {
                         PlayerVSMachine pvmMenu = new PlayerVSMachine();
@@ -821,6 +734,7 @@ public class GardenMenu extends JFrame {
             if (imagePath.contains("home-icon")) {
                 button.addActionListener(e -> {
                     // Back to main menu
+                    stopMatch();
                     dispose(); // Close the current window
                     POOBvsZombiesGUI POOBvsZombiesGUI = new POOBvsZombiesGUI(); // Open the main menu
                     POOBvsZombiesGUI.setVisible(true);
@@ -832,6 +746,98 @@ public class GardenMenu extends JFrame {
         }
     }
 
+    /**
+     * Primer clic: empieza a exportar los eventos de la partida a un archivo
+     * .ndjson.gz que se va escribiendo mientras se juega. Segundo clic (o el fin de la
+     * partida): termina el archivo.
+     */
+    private void toggleEventExport() {
+        if (eventLog != null) {
+            long events = eventLog.getEvents();
+            stopEventExport();
+            JOptionPane.showMessageDialog(this, "Exportación terminada: " + events + " eventos.", "Exportar",
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("partida.ndjson.gz"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            eventLog = new MatchEventLog(chooser.getSelectedFile().toPath());
+            poobvszombies.startEventLog(eventLog);
+            JOptionPane.showMessageDialog(this, "Exportando eventos. Pulse de nuevo para terminar.", "Exportar",
+                    JOptionPane.INFORMATION_MESSAGE);
+        } catch (IOException ex) {
+            Log.record(ex, poobvszombies);
+            JOptionPane.showMessageDialog(this, "No se pudo exportar: " + ex.getMessage(), "Exportar",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void stopEventExport() {
+        if (eventLog == null) {
+            return;
+        }
+        poobvszombies.stopEventLog();
+        try {
+            eventLog.close();
+        } catch (IOException ex) {
+            Log.record(ex, poobvszombies);
+        }
+        eventLog = null;
+    }
+
+    // Guarda un punto de la partida; la simulación sigue corriendo mientras se escribe
+    private void saveMatch() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("partida.pvz"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            MatchCheckpoint.save(poobvszombies, chooser.getSelectedFile().toPath());
+            JOptionPane.showMessageDialog(this, String.format("Partida guardada en %.1f ms.",
+                    (System.nanoTime() - start) / 1e6), "Guardar", JOptionPane.INFORMATION_MESSAGE);
+        } catch (IOException ex) {
+            Log.record(ex, poobvszombies);
+            JOptionPane.showMessageDialog(this, "No se pudo guardar la partida: " + ex.getMessage(), "Guardar",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    // Deja la grabación de la partida en replays/ para repetirla desde el menú principal
+    private void saveRecording() {
+        MatchRecording recording = poobvszombies.stopRecording();
+        if (recording == null) {
+            return;
+        }
+        try {
+            Path directory = Paths.get("replays");
+            Files.createDirectories(directory);
+            recording.save(directory.resolve("match-" + Long.toHexString(poobvszombies.getSeed()) + "-"
+                    + System.currentTimeMillis() + ".pvzr"));
+            pruneRecordings(directory);
+        } catch (IOException ex) {
+            Log.record(ex, poobvszombies);
+        }
+    }
+
+    // Borra las grabaciones más viejas para que replays/ no crezca sin límite
+    private static void pruneRecordings(Path directory) throws IOException {
+        List<Path> recordings;
+        try (Stream<Path> files = Files.list(directory)) {
+            recordings = files.filter(file -> file.getFileName().toString().endsWith(".pvzr"))
+                    .sorted(Comparator.comparing((Path file) -> file.toFile().lastModified()).reversed())
+                    .collect(Collectors.toList());
+        }
+        for (Path old : recordings.subList(Math.min(MAX_REPLAYS, recordings.size()), recordings.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+
     private void addPlayerInfo(JPanel panel) {
         if (("PlayerVsPlayer".equals(modality) || "PlayerVsMachine".equals(modality))
                 || "MachineVsMachine".equals(modality)) {
@@ -920,6 +926,8 @@ public class GardenMenu extends JFrame {
     
     public void showWinnerMessage(String winnerMessage) {
         JOptionPane.showMessageDialog(this, winnerMessage, "Resultado Final", JOptionPane.INFORMATION_MESSAGE);
+        POOBvsZombiesGUI pooBvsZombiesGUI = new POOBvsZombiesGUI(); // Volver al menú principal
+        pooBvsZombiesGUI.setVisible(true);
     }
     
     // Auxiliary class to handle the Transferable object of image type with type
@@ -999,15 +1007,13 @@ public class GardenMenu extends JFrame {
 
                     // Add drag functionality
                     String dragImagePath = zombie.get(3);
-                    ImageIcon icon = new ImageIcon(zombie.get(2));
-                    JLabel cardLabel = new JLabel(
-                            new ImageIcon(icon.getImage().getScaledInstance(60, 85, Image.SCALE_SMOOTH)));
+                    JLabel cardLabel = new JLabel(SpriteCache.getIcon(zombie.get(2), 60, 85));
                     cardLabel.setBounds(x, y - 85, 100, 150);
                     panel.add(cardLabel);
                     cardLabel.setTransferHandler(new TransferHandler("icon") {
                         @Override
                         protected Transferable createTransferable(JComponent c) {
-                            ImageIcon dragIcon = new ImageIcon(dragImagePath);
+                            ImageIcon dragIcon = SpriteCache.getIcon(dragImagePath);
                             EntityData entityData = new EntityData("zombie", zombieName, dragIcon.getImage());
                             return new EntityTransferable(entityData);
                         }
@@ -1041,12 +1047,8 @@ public class GardenMenu extends JFrame {
             // Path of the zombie table image
             String zombieTableImagePath = "resources/images/zombie-table.png";
 
-            // Load and scale the image
-            ImageIcon zombieTableIcon = new ImageIcon(zombieTableImagePath);
-            Image scaledZombieTableImage = zombieTableIcon.getImage().getScaledInstance(460, 80, Image.SCALE_SMOOTH);
-
-            // Create a JLabel to display the zombie table
-            JLabel zombieTableLabel = new JLabel(new ImageIcon(scaledZombieTableImage));
+            // Create a JLabel to display the zombie table, scaled once by the cache
+            JLabel zombieTableLabel = new JLabel(SpriteCache.getIcon(zombieTableImagePath, 460, 80));
             zombieTableLabel.setBounds(10, 575, 460, 80); // Adjust position and size
 
             panel.add(zombieTableLabel);
@@ -1058,12 +1060,8 @@ public class GardenMenu extends JFrame {
             // Path of the brain image
             String brainImagePath = "resources/images/brain.png";
 
-            // Load and scale the image
-            ImageIcon brainIcon = new ImageIcon(brainImagePath);
-            Image scaledBrainImage = brainIcon.getImage().getScaledInstance(40, 40, Image.SCALE_SMOOTH);
-
-            // Create a JLabel to display the brain
-            JLabel brainLabel = new JLabel(new ImageIcon(scaledBrainImage));
+            // Create a JLabel to display the brain, scaled once by the cache
+            JLabel brainLabel = new JLabel(SpriteCache.getIcon(brainImagePath, 40, 40));
             brainLabel.setBounds(50, 585, 40, 40); // Adjust position and size
 
             // Create a JLabel to display the text "100"
@@ -1101,168 +1099,6 @@ public class GardenMenu extends JFrame {
     //     timer.start();
     // }
 
-    // Clase interna para representar cada temporizador
-    private class TimerTask {
-        private String message;
-        private int durationInSeconds;
-
-        public TimerTask(String message, int durationInSeconds) {
-            this.message = message;
-            this.durationInSeconds = durationInSeconds;
-        }
-
-        public String getMessage() {
-            return message;
-        }
-
-        public int getDurationInSeconds() {
-            return durationInSeconds;
-        }
-    }
-
-    // Método para crear y mostrar el recurso en el tablero
-    private void spawnResource(Resource resource) {
-        // Seleccionar una celda aleatoria (5 filas, columnas de 1 a 9)
-        int row = (int) (Math.random() * 5);
-        int col = 1 + (int) (Math.random() * 9);
-
-        final JPanel targetCell = gridCells[row][col];
-        if (targetCell.getComponentCount() > 0) {
-            // Si la celda está ocupada, intentar nuevamente (una única reintento por
-            // simplicidad)
-            row = (int) (Math.random() * 5);
-            col = 1 + (int) (Math.random() * 9);
-            JPanel newTargetCell = gridCells[row][col];
-        }
-
-        // Crear JLabel con la imagen del recurso
-        String imagePath = (resource.getType().equals(Resource.SOL)) ? "resources/images/sun.png"
-                : "resources/images/brain.png";
-        ImageIcon icon = new ImageIcon(imagePath);
-        Image scaledImage = icon.getImage().getScaledInstance(60, 60, Image.SCALE_SMOOTH);
-        JLabel resourceLabel = new JLabel(new ImageIcon(scaledImage));
-        resourceLabel.setHorizontalAlignment(JLabel.CENTER);
-        targetCell.add(resourceLabel);
-        targetCell.revalidate();
-        targetCell.repaint();
-
-        // Timer de 3 segundos para recoger el recurso automáticamente
-        Timer collectTimer = new Timer(3000, (ActionEvent e) -> {
-            // Remover el recurso del tablero
-            targetCell.remove(resourceLabel);
-            targetCell.revalidate();
-            targetCell.repaint();
-
-            // Llamar al método collect del recurso
-            resource.collect();
-
-            // Sumar valor al equipo correspondiente
-            // Determinar a quién sumar:
-            // Asumiendo: PlayerOne = Plantas, PlayerTwo = Zombies
-            // Si es SOL -> plantas (PlayerOne), si es BRAIN -> zombies (PlayerTwo)
-            Player playerOne = poobvszombies.getPlayerOne();
-            Player playerTwo = poobvszombies.getPlayerTwo();
-
-            if (Resource.SOL.equals(resource.getType())) {
-                // Sumar al equipo de plantas
-                playerOne.getTeam().addResource(resource);
-                playerOneSunsLabel.setText("" + playerOne.getTeam().getResourceCounterAmount());
-                updateScoreLabels(); // Reflejar el puntaje actualizado
-
-            } else if (Resource.BRAIN.equals(resource.getType())) {
-                // Sumar al equipo de zombies
-                playerTwo.getTeam().addResource(resource);
-                playerTwoBrainsLabel.setText("" + playerTwo.getTeam().getResourceCounterAmount());
-                updateScoreLabels(); // Reflejar el puntaje actualizado
-
-            }
-
-            ((Timer) e.getSource()).stop();
-        });
-        collectTimer.setRepeats(false);
-        collectTimer.start();
-    }
-
-    // Método para inicializar los temporizadores
-    private void initializeTimers(POOBvsZombies poobvsZombies) {
-        if ("PlayerVsPlayer".equals(modality)) {
-            timerTasks.add(new TimerTask("Planting time 1", Plants.PLANTING_TIME));
-            timerTasks.add(new TimerTask("Round time", (int) poobvsZombies.getRoundTime()));
-            timerTasks.add(new TimerTask("Planting time 2", Plants.PLANTING_TIME));
-            timerTasks.add(new TimerTask("Last round", (int) poobvsZombies.getRoundTime()));
-
-            // Timer para generar recursos cada 10s en PlayerVsPlayer
-            Timer resourceTimer = new Timer(10000, e -> {
-                String currentPhase = messageLabel.getText();
-                if (currentPhase.contains("Planting time")) {
-                    // Planting time -> soles
-                    spawnResource(new Resource(Resource.SOL));
-                } else if (currentPhase.contains("Round") || currentPhase.contains("Last round")) {
-                    // Round time/Last round -> cerebros
-                    spawnResource(new Resource(Resource.BRAIN));
-                }
-            });
-            resourceTimer.start();
-
-        } else if ("PlayerVsMachine".equals(modality) || "MachineVsMachine".equals(modality)) {
-            int matchTimeInSeconds = (int) poobvsZombies.getMatchTime();
-            int hordersNumber = poobvsZombies.getHordersNumber();
-
-            // Primero, 20 segundos para colocar plantas
-            timerTasks.add(new TimerTask("Planting time", 20));
-
-            // Validar que el tiempo total sea al menos 20 segundos y haya al menos una
-            // horda
-            if (matchTimeInSeconds < 1 || hordersNumber <= 0) {
-                try {
-                    throw new POOBvsZombiesException(POOBvsZombiesException.TIME_LIMIT);
-                } catch (POOBvsZombiesException e) {
-                    // TODO Auto-generated catch block
-                    e.printStackTrace();
-                }
-                
-            }
-
-            // Calcular el tiempo restante después de la fase de plantación
-            int remainingTime = matchTimeInSeconds;
-
-            // Dividir el tiempo restante entre el número de hordas
-            int hordeDuration = remainingTime / hordersNumber;
-            int extraSeconds = remainingTime % hordersNumber; // Para segundos sobrantes
-
-            for (int i = 1; i <= hordersNumber; i++) {
-                int duration = hordeDuration;
-                if (i <= extraSeconds) {
-                    duration += 1; // Distribuir segundos sobrantes
-                }
-                timerTasks.add(new TimerTask("Horda " + i, duration));
-            }
-
-            // Timers para generar recursos cada 10s en PlayerVsMachine o MachineVsMachine
-            if ("PlayerVsMachine".equals(modality)) {
-                // En PlayerVsMachine: Soles cada 10 segundos
-                Timer resourceTimer = new Timer(10000, e -> {
-                    spawnResource(new Resource(Resource.SOL));
-                });
-                resourceTimer.start();
-
-            } else if ("MachineVsMachine".equals(modality)) {
-                // En MachineVsMachine: Soles y Cerebros cada 10 segundos
-                Timer resourceTimer = new Timer(10000, e -> {
-                    String currentPhase = messageLabel.getText();
-                    if (currentPhase.contains("Planting time")) {
-                        spawnResource(new Resource(Resource.SOL));
-                    }
-
-                    else if (currentPhase.contains("Horda"))
-                        spawnResource(new Resource(Resource.SOL));
-                    spawnResource(new Resource(Resource.BRAIN));
-                });
-                resourceTimer.start();
-            }
-        }
-    }
-
     // Método para configurar las etiquetas en la interfaz
     private void setupTimerLabels(JPanel panel) {
         int startX = 670;
@@ -1289,50 +1125,6 @@ public class GardenMenu extends JFrame {
         timeLabel.setVisible(false);
     }
 
-    // Método para iniciar los temporizadores secuencialmente
-    private void startSequentialTimers(int index) {
-        if (index >= timerTasks.size()) {
-            // Todos los temporizadores han finalizado
-            // Ocultar las etiquetas
-            poobvszombies.calculateScores();
-            String winnerMessage = poobvszombies.determineWinner();
-            poobvszombies.endGame(winnerMessage);
-            return;
-        }
-
-        TimerTask currentTask = timerTasks.get(index);
-        int duration = currentTask.durationInSeconds;
-
-        // Actualizar las etiquetas y hacerlas visibles
-        messageLabel.setText(currentTask.message);
-        timeLabel.setText(formatTime(duration));
-        messageLabel.setVisible(true);
-        timeLabel.setVisible(true);
-
-        Timer timer = new Timer(1000, null);
-        timer.addActionListener(new ActionListener() {
-            int remainingTime = duration;
-
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                if (remainingTime > 0) {
-                    remainingTime--;
-                    timeLabel.setText(formatTime(remainingTime));
-                } else {
-                    timer.stop();
-                    // Ocultar las etiquetas
-                    messageLabel.setVisible(false);
-                    timeLabel.setVisible(false);
-                    // Iniciar el siguiente temporizador
-                    startSequentialTimers(index + 1);
-                }
-            }
-        });
-
-        timer.setInitialDelay(0);
-        timer.start();
-    }
-
     // Método para formatear el tiempo
     private String formatTime(int seconds) {
         int minutes = seconds / 60;
@@ -1344,12 +1136,11 @@ public class GardenMenu extends JFrame {
     private void showEntityMatrix() {
         StringBuilder matrixString = new StringBuilder();
 
-        // Assuming the grid is 5 rows by 10 columns
-        for (int row = 0; row < 5; row++) {
-            for (int col = 0; col < 10; col++) {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
                 String entity = poobvszombies.getEntity(row, col);
                 matrixString.append(entity != null ? entity : "-");
-                if (col < 9) {
+                if (col < columns - 1) {
                     matrixString.append(" ");
                 }
             }
@@ -1417,270 +1208,219 @@ public class GardenMenu extends JFrame {
     //     resourceGenerationTimer.start();
     // }
 
-    public void spawnSpecificResource(int row, int col, Resource resource) {
-        JPanel targetCell = gridCells[row][col];
-        // Determinar la ruta de la imagen basada en el tipo de recurso
-        String imagePath;
-        if (Resource.SOL.equals(resource.getType())) {
-            imagePath = "resources/images/sun.png"; // Imagen regular del sol
-        } else if (Resource.BIG_SOL.equals(resource.getType())) {
-            imagePath = "resources/images/big-sun.png"; // Imagen para Big Sun
-        } else if (Resource.BRAIN.equals(resource.getType())) {
-            imagePath = "resources/images/brain.png"; // Imagen del cerebro
-        } else if (Resource.THREE_BIG_SOL.equals(resource.getType())){
-            imagePath = "resources/images/three-big-sun.png"; // Imagen para THREE_BIG_SOL
-        }    
-        else {
-            imagePath = "resources/images/default.png"; // Imagen por defecto
+    /**
+     * Sincroniza los componentes de la ventana con una instantánea del SimulationEngine.
+     * Se llama desde el renderTimer en el EDT; no modifica el dominio.
+     */
+    private void renderSnapshot(BoardSnapshot snapshot) {
+        // Segundos simulados desde el último tick; zombies y proyectiles se dibujan adelantados según su velocidad
+        GameClock clock = poobvszombies.getSimulationEngine().getClock();
+        double lag = snapshot.isGameOver() || clock.isPaused() ? 0
+                : Math.min(SimulationEngine.FIXED_STEP,
+                        (System.nanoTime() - snapshot.getTickNanos()) / 1e9 * clock.getScale());
+        if (gameCanvas != null) {
+            gameCanvas.render(snapshot, lag);
+        } else {
+            renderPlants(snapshot.getPlants());
+            renderMovingEntities(snapshot.getZombies(), zombieLabels, 80, 100, 0, lag);
+            projectileOverlay.setProjectiles(snapshot.getProjectiles(), lag);
+            renderResources(snapshot.getResources());
         }
-    
-        ImageIcon icon = new ImageIcon(imagePath);
-        // Verificar si la imagen existe
-        if (icon.getIconWidth() == -1) {
-            // Imagen no encontrada, usar una imagen de placeholder
-            System.err.println("Imagen no encontrada: " + imagePath);
-            imagePath = "resources/images/default.png"; // Ruta alternativa
-            icon = new ImageIcon(imagePath);
+        for (int row = 0; row < rows; row++) {
+            if (!snapshot.hasLawnmower(row)) {
+                deleteLawnmover(row);
+            }
         }
-    
-        Image scaledImage;
-    
-        if (Resource.THREE_BIG_SOL.equals(resource.getType())) {
-            scaledImage = icon.getImage().getScaledInstance(30, 30, Image.SCALE_SMOOTH); // Reducir tamaño para THREE_BIG_SOL
-        } else {
-            scaledImage = icon.getImage().getScaledInstance(60, 60, Image.SCALE_SMOOTH);
+
+        messageLabel.setText(snapshot.getPhaseMessage());
+        timeLabel.setText(formatTime((int) Math.ceil(snapshot.getPhaseRemaining())));
+        messageLabel.setVisible(!snapshot.isGameOver());
+        timeLabel.setVisible(!snapshot.isGameOver());
+
+        playerOneSunsLabel.setText("" + snapshot.getSuns());
+        if (playerTwoBrainsLabel != null) {
+            playerTwoBrainsLabel.setText("" + snapshot.getBrains());
         }
-    
-        JLabel resourceLabel = new JLabel(new ImageIcon(scaledImage));
-        resourceLabel.setHorizontalAlignment(JLabel.CENTER);
-        targetCell.add(resourceLabel);
-        targetCell.revalidate();
-        targetCell.repaint();
-        targetCell.setComponentZOrder(resourceLabel, 0);
-    
-        if (Resource.THREE_BIG_SOL.equals(resource.getType())) {
-            // Directamente sumar 150 soles al contador del jugador sin esperar a la recolección
-            Player playerOne = poobvszombies.getPlayerOne();
-            playerOne.getTeam().addResource(new Resource(Resource.SOL, 150));
-            playerOneSunsLabel.setText("" + playerOne.getTeam().getResourceCounterAmount());
-            System.out.println("Se han sumado 150 soles al contador del jugador debido a THREE_BIG_SOL.");
-    
-            // Iniciar Timer para remover THREE_BIG_SOL después de 3 segundos
-            Timer collectTimer = new Timer(3000, (ActionEvent ev) -> {
-                targetCell.remove(resourceLabel);
-                targetCell.revalidate();
-                targetCell.repaint();
-                targetCell.setComponentZOrder(resourceLabel, 0);
-                resource.collect();
-    
-                ((Timer) ev.getSource()).stop();
-                System.out.println("THREE_BIG_SOL removido después de 3 segundos.");
-            });
-            collectTimer.setRepeats(false);
-            collectTimer.start();
-        } else {
-            // Iniciar Timer de recolección automática para SOL, BIG_SOL y BRAIN
-            Timer collectTimer = new Timer(3000, (ActionEvent ev) -> {
-                // Sumar el valor al jugador correspondiente
-                Player playerOne = poobvszombies.getPlayerOne();
-                Player playerTwo = poobvszombies.getPlayerTwo();
-                if (Resource.SOL.equals(resource.getType()) || Resource.BIG_SOL.equals(resource.getType())) {
-                    playerOne.getTeam().addResource(resource);
-                    playerOneSunsLabel.setText("" + playerOne.getTeam().getResourceCounterAmount());
-                } else if (Resource.BRAIN.equals(resource.getType())) {
-                    playerTwo.getTeam().addResource(resource);
-                    playerTwoBrainsLabel.setText("" + playerTwo.getTeam().getResourceCounterAmount());
-                }
-    
-                // Remover el recurso del tablero
-                targetCell.remove(resourceLabel);
-                targetCell.revalidate();
-                targetCell.repaint();
-                resource.collect();
-    
-                ((Timer) ev.getSource()).stop();
-                System.out.println("Recurso " + resource.getType() + " removido después de 3 segundos.");
-            });
-            collectTimer.setRepeats(false);
-            collectTimer.start();
+        updateScoreLabels();
+
+        if (snapshot.isGameOver()) {
+            stopMatch();
+            poobvszombies.endGame(snapshot.getWinnerMessage());
         }
     }
-    
-    
-    
-    private Timer createEntityTimer(ResourceGenerator generator, int row, int col) {
-        return new Timer(20000, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                Resource res = generator.generateResource(row);
-                if (res != null) {
-                    spawnSpecificResource(row, col, res);
-                    System.out.println("Generando recurso: " + res.getType() + " en (" + row + ", " + col + ")");
-    
-                    // Manejar condiciones especiales para ECIPlant
-                    if (generator instanceof ECIPlant) {
-                        ECIPlant eciPlant = (ECIPlant) generator;
-                        Player playerOne = poobvszombies.getPlayerOne();
-                        System.out.println("Contador de soles antes de verificar: " + playerOne.getTeam().getResourceCounterAmount());
-    
-                        // Verificar si el contador es <= 0 y si aún no se han generado los soles extras
-                        if (playerOne.getTeam().getResourceCounterAmount() <= 0 && !eciPlant.hasGeneratedExtraSuns()) {
-                            eciPlant.setExtraSunsGenerated(true);
-                            System.out.println("ECIPlant detectó contador de soles <= 0. Generando THREE_BIG_SOL.");
-    
-                            // Generar THREE_BIG_SOL
-                            Resource threeBigSol = new Resource(Resource.THREE_BIG_SOL, Resource.THREE_BIG_VALUE);
-                            spawnSpecificResource(row, col, threeBigSol);
-    
-                            // Sumar 150 soles directamente al contador
-                            playerOne.getTeam().addResource(new Resource(Resource.SOL, 150));
-                            playerOneSunsLabel.setText("" + playerOne.getTeam().getResourceCounterAmount());
-                            System.out.println("ECIPlant ha sumado 150 soles al contador.");
-                        }
-                    }
+
+    private void renderPlants(List<EntitySnapshot> plants) {
+        boolean[][] present = new boolean[rows][columns];
+        for (EntitySnapshot plant : plants) {
+            int row = plant.getRow();
+            int col = plant.getCol();
+            present[row][col] = true;
+            if (plantIds[row][col] != plant.getId() || armedMines[row][col] != plant.isActive()) {
+                removePlantAt(row, col);
+                JLabel label = new JLabel(SpriteCache.getIcon(plantImagePath(plant)));
+                label.setHorizontalAlignment(JLabel.CENTER);
+                gridCells[row][col].add(label);
+                gridCells[row][col].revalidate();
+                gridCells[row][col].repaint();
+                plantLabels[row][col] = label;
+                plantIds[row][col] = plant.getId();
+                armedMines[row][col] = plant.isActive();
+            }
+        }
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                if (!present[row][col] && plantIds[row][col] != 0) {
+                    removePlantAt(row, col);
                 }
             }
-        });
-    }
-    
-    
-    public void removePlantAt(int row, int col) {
-        JPanel cell = gridCells[row][col];
-        cell.removeAll();
-        cell.revalidate();
-        cell.repaint();
-    }
-
-    private int getZombieRow(JLabel zombieLabel) {
-        Point location = zombieLabel.getLocation();
-        int gridStartY = 80;
-        int cellHeight = (500 + 20) / 5;
-        int relativeY = location.y - gridStartY;
-        int row = relativeY / cellHeight;
-        return row;
+        }
     }
 
-    // Añade este método dentro de la clase GardenMenu:
-    public void spawnZombieAutomatically(int row, int col, Zombie zombie) {
-        // Buscar la definición gráfica del zombie según su clase
-        // Usamos el método entityName() de POOBvsZombies o podemos mapear directamente.
-        String zombieName = null;
-        if (zombie instanceof Basic) zombieName = "Basic";
-        else if (zombie instanceof Brainstein) zombieName = "Brainstein";
-        else if (zombie instanceof Buckethead) zombieName = "BucketHead";
-        else if (zombie instanceof Conehead) zombieName = "Conehead";
-        else if (zombie instanceof ECIZombie) zombieName = "ECIZombie";
-
-        // Encontrar las imágenes del zombie en ZOMBIES_VIEW
-        List<String> zombieData = null;
-        for (List<String> zData : ZOMBIES_VIEW) {
-            if (zData.get(0).equals(zombieName)) {
-                zombieData = zData;
-                break;
-            }
+    static String plantImagePath(EntitySnapshot plant) {
+        if ("PotatoMine".equals(plant.getName()) && plant.isActive()) {
+            return "resources/images/plants/PotatoMine/potato-mineAnimated.gif";
         }
-        if (zombieData == null) {
-            System.err.println("No se encontró representación gráfica para el zombie: " + zombieName);
-            return;
+        for (List<String> pData : PLANTS_VIEW) {
+            if (pData.get(0).equals(plant.getName())) {
+                return pData.get(3); // Usar la imagen animada
+            }
         }
+        return "resources/images/default.png";
+    }
 
-        // zombieData: [0]: Nombre, [1]: imagen estatica, [2]: card, [3]: gif animado
-        String dragImagePath = zombieData.get(3);
-        ImageIcon icon = new ImageIcon(dragImagePath);
-
-        // Obtener la celda destino para determinar posición
-        JPanel targetCell = gridCells[row][col];
-        Point cellLocation = targetCell.getLocation();
-        // La posición absoluta en el panel principal
-        int x = 40 + col * 80; // Basado en el cálculo del grid (ya definido en zombieLogic)
-        int y = 80 + row * 100; // Ajustar acorde a las dimensiones reales de cada celda
-        // Notar: en el código original se tomaban offsets, aquí mantenemos consistencia con el grid definido.
-        // Del código original: gridPanel.setBounds(40,80,800,500); 
-        // Cada celda ~ 80x100, calculamos posición absoluta:
-        // fila: startY=80 + row* (500/5=100)
-        // col: startX=40 + col*(800/10=80)
-
-        JLabel zombieLabel = new JLabel(icon);
-        zombieLabel.setHorizontalAlignment(JLabel.CENTER);
-        zombieLabel.setBounds(x, y, 80, 100); 
-        // Añadir el zombieLabel al panel principal (el primero que agregamos en el constructor)
-        Container parentPanel = (Container) this.getContentPane().getComponent(0); // El panel principal
-        if (parentPanel instanceof JPanel) {
-            JPanel mainPanel = (JPanel) parentPanel;
-            mainPanel.add(zombieLabel);
-            mainPanel.setComponentZOrder(zombieLabel, 0);
-            mainPanel.revalidate();
-            mainPanel.repaint();
+    // Zombies: etiquetas sueltas sobre el panel principal ubicadas según su x
+    private void renderMovingEntities(List<EntitySnapshot> entities, Map<Integer, JLabel> labels,
+            int width, int height, int yOffset, double lag) {
+        Set<Integer> alive = new HashSet<>();
+        for (EntitySnapshot entity : entities) {
+            alive.add(entity.getId());
+            JLabel label = labels.get(entity.getId());
+            if (label == null) {
+                label = createZombieLabel(entity);
+                labels.put(entity.getId(), label);
+                mainPanel.add(label);
+                mainPanel.setComponentZOrder(label, 0);
+            }
+            int x = 40 + (int) Math.round((entity.getX() + entity.getVelocity() * lag) * 80);
+            int y = 80 + entity.getRow() * 100 + yOffset;
+            label.setBounds(x, y, width, height);
         }
+        removeMissingLabels(labels, alive);
+    }
 
-        // Registrar el zombie en ZombieThreadManager para que se mueva y ataque
-        zombieThreadManager.registerZombie(row, zombie, zombieLabel);
-        
-        // Añadir el zombieLabel a la lista movingZombies si es necesario
-        movingZombies.add(zombieLabel);
+    private JLabel createZombieLabel(EntitySnapshot entity) {
+        JLabel label = new JLabel(SpriteCache.getIcon(zombieImagePath(entity.getName())));
+        label.setHorizontalAlignment(JLabel.CENTER);
+        return label;
     }
 
-    /**
-     * Método nuevo para manejar la generación automática de plantas.
-     *
-     * @param row   Fila donde se coloca la planta.
-     * @param col   Columna donde se coloca la planta.
-     * @param plant Instancia de la planta a visualizar.
-     */
-    public void spawnPlantAutomatically(int row, int col, Plant plant) {
-        // Buscar la definición gráfica de la planta según su clase
-        String plantName = null;
-        if (plant instanceof Sunflower) plantName = "Sunflower";
-        else if (plant instanceof Peashooter) plantName = "Peashooter";
-        else if (plant instanceof WallNut) plantName = "WallNut";
-        // Agrega otros tipos de plantas si es necesario
-
-        // Encontrar las imágenes de la planta en PLANTS_VIEW
-        List<String> plantData = null;
-        for (List<String> pData : PLANTS_VIEW) {
-            if (pData.get(0).equals(plantName)) {
-                plantData = pData;
-                break;
+    private void renderResources(List<EntitySnapshot> resources) {
+        Set<Integer> alive = new HashSet<>();
+        for (EntitySnapshot resource : resources) {
+            alive.add(resource.getId());
+            if (!resourceLabels.containsKey(resource.getId())) {
+                JLabel label = idleResourceLabels.computeIfAbsent(resource.getName(), k -> new ArrayDeque<>()).poll();
+                if (label == null) {
+                    label = createResourceLabel(resource.getName());
+                    label.putClientProperty(Resource.class, resource.getName());
+                    mainPanel.add(label);
+                }
+                label.setBounds(40 + resource.getCol() * 80, 80 + resource.getRow() * 100, 80, 100);
+                label.setVisible(true);
+                resourceLabels.put(resource.getId(), label);
+                mainPanel.setComponentZOrder(label, 0);
             }
         }
-        if (plantData == null) {
-            System.err.println("No se encontró representación gráfica para la planta: " + plantName);
-            return;
+        // Las etiquetas de recursos recogidos se ocultan y esperan al siguiente recurso del mismo tipo
+        Iterator<Map.Entry<Integer, JLabel>> it = resourceLabels.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, JLabel> entry = it.next();
+            if (!alive.contains(entry.getKey())) {
+                JLabel label = entry.getValue();
+                label.setVisible(false);
+                idleResourceLabels.get((String) label.getClientProperty(Resource.class)).push(label);
+                it.remove();
+            }
         }
+    }
 
-        // plantData: [0]: Nombre, [1]: imagen estática, [2]: card, [3]: gif animado
-        String plantImagePath = plantData.get(3); // Usar la imagen animada
+    private JLabel createResourceLabel(String type) {
+        int size = resourceSize(type);
+        JLabel resourceLabel = new JLabel(SpriteCache.getIcon(resourceImagePath(type), size, size));
+        resourceLabel.setHorizontalAlignment(JLabel.CENTER);
+        return resourceLabel;
+    }
 
-        ImageIcon icon = new ImageIcon(plantImagePath);
+    // Determinar la ruta de la imagen basada en el tipo de recurso
+    static String resourceImagePath(String type) {
+        if (Resource.SOL.equals(type)) {
+            return "resources/images/sun.png"; // Imagen regular del sol
+        } else if (Resource.BIG_SOL.equals(type)) {
+            return "resources/images/big-sun.png"; // Imagen para Big Sun
+        } else if (Resource.BRAIN.equals(type)) {
+            return "resources/images/brain.png"; // Imagen del cerebro
+        } else if (Resource.THREE_BIG_SOL.equals(type)) {
+            return "resources/images/three-big-sun.png"; // Imagen para THREE_BIG_SOL
+        }
+        return "resources/images/default.png"; // Imagen por defecto
+    }
 
-        // Obtener la celda destino para determinar posición
-        JPanel targetCell = gridCells[row][col];
-        Point cellLocation = targetCell.getLocation();
+    // Reducir tamaño para THREE_BIG_SOL
+    static int resourceSize(String type) {
+        return Resource.THREE_BIG_SOL.equals(type) ? 30 : 60;
+    }
 
-        // Calcular posición absoluta
-        int x = 40 + col * 80; // Basado en el cálculo del grid (ya definido en zombieLogic)
-        int y = 80 + row * 100; // Ajustar acorde a las dimensiones reales de cada celda
+    static String zombieImagePath(String name) {
+        for (List<String> zData : ZOMBIES_VIEW) {
+            if (zData.get(0).equals(name)) {
+                return zData.get(3); // [3]: gif animado
+            }
+        }
+        return "resources/images/default.png";
+    }
 
-        JLabel plantLabel = new JLabel(icon);
-        plantLabel.setHorizontalAlignment(JLabel.CENTER);
-        plantLabel.setBounds(x, y, 80, 100); // Ajustar tamaño según el grid
+    private void removeMissingLabels(Map<Integer, JLabel> labels, Set<Integer> alive) {
+        Iterator<Map.Entry<Integer, JLabel>> it = labels.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, JLabel> entry = it.next();
+            if (!alive.contains(entry.getKey())) {
+                mainPanel.remove(entry.getValue());
+                mainPanel.repaint(entry.getValue().getBounds());
+                it.remove();
+            }
+        }
+    }
 
-        // Añadir el plantLabel al panel principal
-        Container parentPanel = (Container) this.getContentPane().getComponent(0); // El primer componente es el panel principal
-        if (parentPanel instanceof JPanel) {
-            JPanel mainPanel = (JPanel) parentPanel;
-            mainPanel.add(plantLabel);
-            mainPanel.setComponentZOrder(plantLabel, 0); // Traer al frente
-            mainPanel.revalidate();
-            mainPanel.repaint();
+    // Detiene la simulación y el dibujo de la partida
+    private void stopMatch() {
+        poobvszombies.getSimulationEngine().stop();
+        stopEventExport();
+        saveRecording();
+        logger.log(Level.FINE, SpriteCache.describe());
+        if (renderTimer != null) {
+            renderTimer.stop();
         }
+    }
 
-        // Si la planta es un generador de recursos, crear un temporizador para generar recursos
-        if (plant instanceof ResourceGenerator) {
-            Timer plantTimer = createEntityTimer((ResourceGenerator) plant, row, col);
-            entityTimers.put(plant, plantTimer);
-            plantTimer.start();
+    public void removePlantAt(int row, int col) {
+        JPanel cell = gridCells[row][col];
+        if (plantLabels[row][col] != null) {
+            cell.remove(plantLabels[row][col]);
+            plantLabels[row][col] = null;
         }
+        plantIds[row][col] = 0;
+        armedMines[row][col] = false;
+        cell.revalidate();
+        cell.repaint();
+    }
+
+    private int getZombieRow(JLabel zombieLabel) {
+        Point location = zombieLabel.getLocation();
+        int gridStartY = 80;
+        int cellHeight = (rows * 100 + 20) / rows;
+        int relativeY = location.y - gridStartY;
+        int row = relativeY / cellHeight;
+        return row;
     }
 
     // /**
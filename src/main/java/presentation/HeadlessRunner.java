@@ -0,0 +1,108 @@
+package presentation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import domain.MatchRecording;
+import domain.MatchReplay;
+import domain.MatchResult;
+import domain.MatchRunner;
+import domain.POOBvsZombies;
+import domain.SimulationEngine;
+
+/**
+ * Punto de entrada por consola para simular partidas MachineVsMachine sin ventanas.
+ * Uso: mvn exec:java -Dexec.mainClass=presentation.HeadlessRunner -Dexec.args="--matches 100"
+ * Opciones: --matches, --minutes, --hordes, --suns, --brains, --seed y --events. Con --seed
+ * la partida i usa la semilla seed + i - 1, así que --matches 1 --seed S repite una partida.
+ * Con --events CARPETA cada partida exporta sus eventos a CARPETA/match-SEMILLA.ndjson.gz.
+ * Con --replay ARCHIVO repite una partida grabada (.pvzr) en lugar de simular nuevas.
+ */
+public class HeadlessRunner {
+
+    public static void main(String[] args) {
+        int matches = 10;
+        float minutes = 1;
+        int hordes = 2;
+        int suns = 50;
+        int brains = 50;
+        long seed = new SplittableRandom().nextLong();
+        Path events = null;
+        Path replay = null;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--matches":
+                    matches = Integer.parseInt(value);
+                    break;
+                case "--minutes":
+                    minutes = Float.parseFloat(value);
+                    break;
+                case "--hordes":
+                    hordes = Integer.parseInt(value);
+                    break;
+                case "--suns":
+                    suns = Integer.parseInt(value);
+                    break;
+                case "--brains":
+                    brains = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--events":
+                    events = Paths.get(value);
+                    break;
+                case "--replay":
+                    replay = Paths.get(value);
+                    break;
+                default:
+                    System.err.println("Opción desconocida: " + args[i]);
+                    return;
+            }
+        }
+
+        if (replay != null) {
+            replay(replay);
+            return;
+        }
+
+        MatchRunner runner = new MatchRunner(minutes, hordes, suns, brains);
+        runner.setEventsDirectory(events);
+        Map<String, Integer> wins = new TreeMap<>();
+        double simulated = 0;
+        long start = System.nanoTime();
+        for (int match = 1; match <= matches; match++) {
+            MatchResult result = runner.run(seed + match - 1);
+            wins.merge(result.getWinner(), 1, Integer::sum);
+            simulated += result.getDuration();
+            System.out.printf("match=%d seed=%d winner=%s plants=%d zombies=%d duration=%.1fs ticks=%d wall=%.1fms%n",
+                    match, result.getSeed(), result.getWinner(), result.getPlantsScore(), result.getZombiesScore(),
+                    result.getDuration(), result.getTicks(), result.getWallTimeNanos() / 1e6);
+        }
+        double wallSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d partidas en %.2fs (%.1f partidas/s, %.0fx tiempo real) victorias=%s%n",
+                matches, wallSeconds, matches / wallSeconds, simulated / wallSeconds, wins);
+    }
+
+    private static void replay(Path file) {
+        try {
+            long start = System.nanoTime();
+            MatchReplay replay = new MatchReplay(MatchRecording.load(file));
+            replay.runToEnd();
+            POOBvsZombies game = replay.getGame();
+            SimulationEngine engine = game.getSimulationEngine();
+            System.out.printf("seed=%d winner=%s plants=%d zombies=%d ticks=%d acciones=%d wall=%.1fms%n",
+                    game.getSeed(), engine.isGameOver() ? engine.getWinnerMessage() : "-",
+                    game.getPlayerOne().getScore(), game.getPlayerTwo().getScore(), replay.getTick(),
+                    replay.getInputCount(), (System.nanoTime() - start) / 1e6);
+        } catch (IOException e) {
+            System.err.println("No se pudo repetir " + file + ": " + e.getMessage());
+        }
+    }
+}
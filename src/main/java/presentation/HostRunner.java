@@ -0,0 +1,87 @@
+package presentation;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import domain.MatchHost;
+import domain.MatchServer;
+import domain.MatchSession;
+
+/**
+ * Punto de entrada por consola para alojar partidas PlayerVsPlayer en red. El
+ * jugador de las plantas y el de los zombies se conectan con un MatchClient al
+ * puerto indicado y al id de la partida que se imprime al abrirla.
+ * Uso: java -cp target/classes presentation.HostRunner --port 7777 --matches 1
+ * Opciones: --port, --matches, --time, --suns, --brains, --threads, --plants y
+ * --zombies (listas separadas por comas).
+ */
+public class HostRunner {
+
+    public static void main(String[] args) {
+        int port = 7777;
+        int matches = 1;
+        float time = 300;
+        int suns = 50;
+        int brains = 50;
+        int threads = Runtime.getRuntime().availableProcessors();
+        ArrayList<String> plants = new ArrayList<>(Arrays.asList("Sunflower", "Peashooter", "WallNut", "PotatoMine"));
+        ArrayList<String> zombies = new ArrayList<>(Arrays.asList("Basic", "Conehead", "BucketHead"));
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(value);
+                    break;
+                case "--matches":
+                    matches = Integer.parseInt(value);
+                    break;
+                case "--time":
+                    time = Float.parseFloat(value);
+                    break;
+                case "--suns":
+                    suns = Integer.parseInt(value);
+                    break;
+                case "--brains":
+                    brains = Integer.parseInt(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--plants":
+                    plants = new ArrayList<>(Arrays.asList(value.split(",")));
+                    break;
+                case "--zombies":
+                    zombies = new ArrayList<>(Arrays.asList(value.split(",")));
+                    break;
+                default:
+                    System.err.println("Opción desconocida: " + args[i]);
+                    return;
+            }
+        }
+
+        try (MatchServer server = new MatchServer(threads);
+                MatchHost host = new MatchHost(server, new InetSocketAddress(port))) {
+            for (int i = 0; i < matches; i++) {
+                MatchSession session = server.open(time, "Plants", plants, suns, "Zombies", brains, zombies);
+                System.out.printf("partida=%d puerto=%d%n", session.getId(), host.getAddress().getPort());
+            }
+            // Cada 10 segundos, conexiones y latencia de los ticks hasta que terminen todas
+            while (!server.getSessions().isEmpty()) {
+                Thread.sleep(10_000);
+                for (MatchSession session : server.getSessions()) {
+                    System.out.printf("partida=%d ticks=%d latencia media=%.2fms máx=%.2fms tick medio=%.3fms%n",
+                            session.getId(), session.getTicks(), session.getMeanLatencyNanos() / 1e6,
+                            session.getMaxLatencyNanos() / 1e6, session.getMeanTickNanos() / 1e6);
+                }
+                System.out.printf("conexiones=%d%n", host.getConnections());
+            }
+        } catch (IOException e) {
+            System.err.println("No se pudo alojar las partidas: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -142,6 +142,7 @@ public class MachineVSMachine extends JFrame {
                 JOptionPane.showMessageDialog(this, e.getMessage(), "Error", JOptionPane.WARNING_MESSAGE);
             }
         } catch (Exception ex) {
+            Log.record(ex, poobvsZombies);
             JOptionPane.showMessageDialog(this, "An error occurred: " + ex.getMessage(), "Error",
                     JOptionPane.ERROR_MESSAGE);
         }
@@ -261,9 +262,7 @@ public class MachineVSMachine extends JFrame {
         int y = 5;
         int buttonSize = 40;
 
-        ImageIcon icon = new ImageIcon(buttonImagePath);
-        JButton button = new JButton(
-                new ImageIcon(icon.getImage().getScaledInstance(buttonSize, buttonSize, Image.SCALE_SMOOTH)));
+        JButton button = new JButton(SpriteCache.getIcon(buttonImagePath, buttonSize, buttonSize));
         button.setBounds(x, y, buttonSize, buttonSize);
         button.setContentAreaFilled(false);
         button.setBorderPainted(false);
@@ -321,7 +320,7 @@ public class MachineVSMachine extends JFrame {
 
         public BackgroundPanel() {
             // Cargar la imagen desde la ruta especificada
-            backgroundImage = new ImageIcon("resources/images/menu/MachineVSMachineMenu.png").getImage();
+            backgroundImage = SpriteCache.getIcon("resources/images/menu/MachineVSMachineMenu.png").getImage();
             setLayout(null); // Configurar el layout del panel
         }
 
@@ -346,7 +345,7 @@ public class MachineVSMachine extends JFrame {
             this.plantPath = imagePath;
             this.plantName = plantName;
             this.selected = true; // Siempre seleccionado
-            plantImage = new ImageIcon(imagePath).getImage().getScaledInstance(50, 50, Image.SCALE_SMOOTH);
+            plantImage = SpriteCache.getImage(imagePath, 50, 50);
             setPreferredSize(new Dimension(50, 50));
             setOpaque(false);
         }
@@ -387,7 +386,7 @@ public class MachineVSMachine extends JFrame {
             this.zombiePath = imagePath;
             this.zombieName = zombieName;
             this.selected = true; // Siempre seleccionado
-            zombieImage = new ImageIcon(imagePath).getImage().getScaledInstance(50, 50, Image.SCALE_SMOOTH);
+            zombieImage = SpriteCache.getImage(imagePath, 50, 50);
             setPreferredSize(new Dimension(50, 50));
             setOpaque(false);
         }
@@ -8,19 +8,27 @@ import java.awt.Image;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.File;
+import java.io.IOException;
 
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.Clip;
 import javax.sound.sampled.LineUnavailableException;
 import javax.sound.sampled.UnsupportedAudioFileException;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
 
+import domain.Log;
+import domain.MatchCheckpoint;
+import domain.MatchRecording;
+import domain.MatchReplay;
+import domain.POOBvsZombies;
+import domain.SimulationEngine;
+
 public class POOBvsZombiesGUI extends JFrame {
 
     private static Clip clip;
@@ -34,7 +42,7 @@ public class POOBvsZombiesGUI extends JFrame {
 
         // Custom panel with background image
         JPanel panel = new JPanel() {
-            Image backgroundImage = new ImageIcon("resources/images/menu/modalityMenu.png").getImage();
+            Image backgroundImage = SpriteCache.getIcon("resources/images/menu/modalityMenu.png").getImage();
 
             @Override
             protected void paintComponent(Graphics g) {
@@ -124,9 +132,7 @@ public class POOBvsZombiesGUI extends JFrame {
         int buttonSize = 40;
 
         for (String imagePath : buttonImagePaths) {
-            ImageIcon icon = new ImageIcon(imagePath);
-            JButton button = new JButton(
-                    new ImageIcon(icon.getImage().getScaledInstance(buttonSize, buttonSize, Image.SCALE_SMOOTH)));
+            JButton button = new JButton(SpriteCache.getIcon(imagePath, buttonSize, buttonSize));
             button.setBounds(x, y, buttonSize, buttonSize);
             button.setContentAreaFilled(false);
             button.setBorderPainted(false);
@@ -134,17 +140,11 @@ public class POOBvsZombiesGUI extends JFrame {
 
             // Agregar eventos de acción a los botones
             if (imagePath.contains("import-icon")) {
-                button.addActionListener(e -> {
-                    // Implementar funcionalidad para exportar el estado del juego
-                    JOptionPane.showMessageDialog(this, "Funcionalidad de importar aún no implementada.", "Importar", JOptionPane.INFORMATION_MESSAGE);
-                });
+                button.addActionListener(e -> replayMatch());
             }
 
             if (imagePath.contains("open-icon")) {
-                button.addActionListener(e -> {
-                    // Implementar funcionalidad para guardar el estado del juego
-                    JOptionPane.showMessageDialog(this, "Funcionalidad de abrir aún no implementada.", "Abrir", JOptionPane.INFORMATION_MESSAGE);
-                });
+                button.addActionListener(e -> openMatch());
             }
             
 
@@ -153,6 +153,46 @@ public class POOBvsZombiesGUI extends JFrame {
         }
     }
 
+    // Carga una partida guardada desde GardenMenu y la reanuda donde quedó
+    private void openMatch() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        POOBvsZombies game = null;
+        try {
+            game = MatchCheckpoint.load(chooser.getSelectedFile().toPath());
+            new GardenMenu(game).setVisible(true);
+            dispose();
+        } catch (IOException ex) {
+            Log.record(ex, game);
+            JOptionPane.showMessageDialog(this, "No se pudo abrir la partida: " + ex.getMessage(), "Abrir",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    // Repite sin interfaz una partida grabada (replays/*.pvzr) y muestra cómo terminó
+    private void replayMatch() {
+        JFileChooser chooser = new JFileChooser(new File("replays"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        MatchReplay replay = null;
+        try {
+            long start = System.nanoTime();
+            replay = new MatchReplay(MatchRecording.load(chooser.getSelectedFile().toPath()));
+            replay.runToEnd();
+            SimulationEngine engine = replay.getGame().getSimulationEngine();
+            String result = engine.isGameOver() ? engine.getWinnerMessage() : "Partida sin terminar";
+            JOptionPane.showMessageDialog(this, String.format("%s%nTick %d, repetida en %.1f ms.", result,
+                    replay.getTick(), (System.nanoTime() - start) / 1e6), "Importar", JOptionPane.INFORMATION_MESSAGE);
+        } catch (IOException ex) {
+            Log.record(ex, replay != null ? replay.getGame() : null);
+            JOptionPane.showMessageDialog(this, "No se pudo repetir la partida: " + ex.getMessage(), "Importar",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     // Method to play background music
     private void playMusic(String filePath) {
         if (clip == null) {
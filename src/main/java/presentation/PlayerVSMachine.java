@@ -126,6 +126,7 @@ public class PlayerVSMachine extends JFrame {
                 JOptionPane.showMessageDialog(this, e.getMessage(), "Error", JOptionPane.WARNING_MESSAGE);
             }
         } catch (Exception ex) {
+            Log.record(ex, poobvsZombies);
             JOptionPane.showMessageDialog(this, "An error occurred: " + ex.getMessage(), "Error",
                     JOptionPane.ERROR_MESSAGE);
         }
@@ -225,9 +226,7 @@ public class PlayerVSMachine extends JFrame {
         int y = 5;
         int buttonSize = 40;
 
-        ImageIcon icon = new ImageIcon(buttonImagePath);
-        JButton button = new JButton(
-                new ImageIcon(icon.getImage().getScaledInstance(buttonSize, buttonSize, Image.SCALE_SMOOTH)));
+        JButton button = new JButton(SpriteCache.getIcon(buttonImagePath, buttonSize, buttonSize));
         button.setBounds(x, y, buttonSize, buttonSize);
         button.setContentAreaFilled(false);
         button.setBorderPainted(false);
@@ -278,7 +277,7 @@ public class PlayerVSMachine extends JFrame {
         private Image backgroundImage;
 
         public BackgroundPanel() {
-            backgroundImage = new ImageIcon("resources/images/menu/PlayervsMachineMenu.png").getImage();
+            backgroundImage = SpriteCache.getIcon("resources/images/menu/PlayervsMachineMenu.png").getImage();
         }
 
         protected void paintComponent(Graphics g) {
@@ -298,7 +297,7 @@ public class PlayerVSMachine extends JFrame {
         public PlantPanel(String imagePath, String plantName) {
             this.plantPath = imagePath;
             this.plantName = plantName;
-            plantImage = new ImageIcon(imagePath).getImage().getScaledInstance(50, 50, Image.SCALE_SMOOTH);
+            plantImage = SpriteCache.getImage(imagePath, 50, 50);
             setPreferredSize(new Dimension(50, 50));
             setOpaque(false);
 
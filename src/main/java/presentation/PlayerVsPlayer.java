@@ -144,6 +144,7 @@ public class PlayerVsPlayer extends JFrame {
                 JOptionPane.showMessageDialog(this, e.getMessage(), "Error", JOptionPane.WARNING_MESSAGE);
             }
         } catch (Exception ex) {
+            Log.record(ex, poobvsZombies);
             JOptionPane.showMessageDialog(this, "An error occurred: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
@@ -240,9 +241,7 @@ public class PlayerVsPlayer extends JFrame {
         int y = 5;
         int buttonSize = 40;
 
-        ImageIcon icon = new ImageIcon(buttonImagePath);
-        JButton button = new JButton(
-                new ImageIcon(icon.getImage().getScaledInstance(buttonSize, buttonSize, Image.SCALE_SMOOTH)));
+        JButton button = new JButton(SpriteCache.getIcon(buttonImagePath, buttonSize, buttonSize));
         button.setBounds(x, y, buttonSize, buttonSize);
         button.setContentAreaFilled(false);
         button.setBorderPainted(false);
@@ -336,7 +335,7 @@ public class PlayerVsPlayer extends JFrame {
         private Image backgroundImage;
 
         public BackgroundPanel() {
-            backgroundImage = new ImageIcon("resources/images/menu/PlayerVsPlayerMenu.png").getImage();
+            backgroundImage = SpriteCache.getIcon("resources/images/menu/PlayerVsPlayerMenu.png").getImage();
         }
 
         protected void paintComponent(Graphics g) {
@@ -354,7 +353,7 @@ public class PlayerVsPlayer extends JFrame {
 
         public SelectablePanel(String imagePath) {
             this.itemPath = imagePath;
-            this.itemImage = new ImageIcon(imagePath).getImage().getScaledInstance(50, 50, Image.SCALE_SMOOTH);
+            this.itemImage = SpriteCache.getImage(imagePath, 50, 50);
             setPreferredSize(new Dimension(50, 50));
             setOpaque(false);
 
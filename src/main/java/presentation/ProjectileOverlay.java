@@ -0,0 +1,87 @@
+package presentation;
+
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JComponent;
+
+import domain.EntitySnapshot;
+
+/**
+ * Capa transparente sobre el tablero que pinta todos los proyectiles en vuelo.
+ * Disparar no crea ni destruye componentes: cada fotograma solo cambian las
+ * posiciones y se repinta el área que ocupaban y ocupan los guisantes.
+ * No recibe eventos del ratón, así que no interfiere con arrastrar y soltar.
+ */
+public class ProjectileOverlay extends JComponent {
+    private static final String PEA_IMAGE = "resources/images/pea.png";
+
+    private final int size;
+    private final int originX;
+    private final int originY;
+    private final int cellWidth;
+    private final int cellHeight;
+    private final Image pea;
+    private List<Rectangle> drawn = new ArrayList<>();
+
+    /**
+     * @param size       Lado en píxeles de cada guisante.
+     * @param originX    Píxel donde empieza la columna 0.
+     * @param originY    Píxel donde se dibujan los guisantes de la fila 0.
+     * @param cellWidth  Ancho de una columna en píxeles.
+     * @param cellHeight Alto de una fila en píxeles.
+     */
+    public ProjectileOverlay(int size, int originX, int originY, int cellWidth, int cellHeight) {
+        this.size = size;
+        this.originX = originX;
+        this.originY = originY;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.pea = SpriteCache.getImage(PEA_IMAGE, size, size);
+        setOpaque(false);
+    }
+
+    /**
+     * Actualiza los proyectiles a dibujar, adelantados lag segundos según su velocidad.
+     */
+    public void setProjectiles(List<EntitySnapshot> projectiles, double lag) {
+        List<Rectangle> next = new ArrayList<>(projectiles.size());
+        for (EntitySnapshot projectile : projectiles) {
+            int x = originX + (int) Math.round((projectile.getX() + projectile.getVelocity() * lag) * cellWidth);
+            int y = originY + projectile.getRow() * cellHeight;
+            next.add(new Rectangle(x, y, size, size));
+        }
+        for (Rectangle area : drawn) {
+            repaint(area);
+        }
+        for (Rectangle area : next) {
+            repaint(area);
+        }
+        drawn = next;
+    }
+
+    public void clear() {
+        for (Rectangle area : drawn) {
+            repaint(area);
+        }
+        drawn = new ArrayList<>();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        for (Rectangle area : drawn) {
+            if (clip == null || clip.intersects(area)) {
+                g.drawImage(pea, area.x, area.y, this);
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(int x, int y) {
+        return false;
+    }
+}
@@ -0,0 +1,78 @@
+package presentation;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.swing.ImageIcon;
+
+/**
+ * Caché compartida de imágenes, por ruta y tamaño. Cada imagen se lee del disco y
+ * se escala una sola vez; las ventanas reutilizan el mismo ImageIcon en todas sus
+ * etiquetas. Los GIF animados se escalan con getScaledInstance para conservar la
+ * animación; el resto se dibuja en un BufferedImage ya escalado.
+ */
+public class SpriteCache {
+    private static final Map<String, ImageIcon> ICONS = new ConcurrentHashMap<>();
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+
+    private SpriteCache() {
+    }
+
+    // Imagen a su tamaño original
+    public static ImageIcon getIcon(String path) {
+        return getIcon(path, -1, -1);
+    }
+
+    public static ImageIcon getIcon(String path, int width, int height) {
+        String key = path + "@" + width + "x" + height;
+        ImageIcon icon = ICONS.get(key);
+        if (icon != null) {
+            HITS.incrementAndGet();
+            return icon;
+        }
+        MISSES.incrementAndGet();
+        return ICONS.computeIfAbsent(key, k -> load(path, width, height));
+    }
+
+    public static Image getImage(String path, int width, int height) {
+        return getIcon(path, width, height).getImage();
+    }
+
+    private static ImageIcon load(String path, int width, int height) {
+        ImageIcon original = new ImageIcon(path);
+        if (width <= 0 || height <= 0) {
+            return original;
+        }
+        if (path.endsWith(".gif")) {
+            return new ImageIcon(original.getImage().getScaledInstance(width, height, Image.SCALE_SMOOTH));
+        }
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(original.getImage(), 0, 0, width, height, null);
+        g.dispose();
+        return new ImageIcon(scaled);
+    }
+
+    public static long getHits() {
+        return HITS.get();
+    }
+
+    public static long getMisses() {
+        return MISSES.get();
+    }
+
+    // Texto para mostrar el rendimiento de la caché, p. ej. "sprites 120/4 (97%)"
+    public static String describe() {
+        long hits = HITS.get();
+        long total = hits + MISSES.get();
+        return "sprites " + hits + "/" + MISSES.get() + " (" + (total == 0 ? 0 : hits * 100 / total) + "%)";
+    }
+}
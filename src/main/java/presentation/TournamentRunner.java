@@ -0,0 +1,113 @@
+package presentation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import domain.PlantsIntelligent;
+import domain.Tournament;
+import domain.TournamentResult;
+import domain.ZombiesOriginal;
+
+/**
+ * Punto de entrada por consola para comparar estrategias de las máquinas en un torneo.
+ * Uso: mvn exec:java -Dexec.mainClass=presentation.TournamentRunner
+ *      -Dexec.args="--plants Sunflower,Peashooter,WallNut;Peashooter,WallNut --zombies Basic,Conehead --matches 50"
+ * Opciones: --plants y --zombies (estrategias separadas por ';', tipos por ','), --matches
+ * (partidas por enfrentamiento), --threads, --minutes, --hordes, --suns, --brains y --seed.
+ */
+public class TournamentRunner {
+
+    public static void main(String[] args) {
+        String plants = String.join(",", PlantsIntelligent.DEFAULT_PLANTING_ORDER);
+        String zombies = String.join(",", ZombiesOriginal.DEFAULT_ZOMBIE_TYPES);
+        int matches = 20;
+        int threads = Runtime.getRuntime().availableProcessors();
+        float minutes = 1;
+        int hordes = 2;
+        int suns = 50;
+        int brains = 50;
+        long seed = new SplittableRandom().nextLong();
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--plants":
+                    plants = value;
+                    break;
+                case "--zombies":
+                    zombies = value;
+                    break;
+                case "--matches":
+                    matches = Integer.parseInt(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--minutes":
+                    minutes = Float.parseFloat(value);
+                    break;
+                case "--hordes":
+                    hordes = Integer.parseInt(value);
+                    break;
+                case "--suns":
+                    suns = Integer.parseInt(value);
+                    break;
+                case "--brains":
+                    brains = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    System.err.println("Opción desconocida: " + args[i]);
+                    return;
+            }
+        }
+
+        Tournament tournament = new Tournament(minutes, hordes, suns, brains);
+        try {
+            for (List<String> strategy : parseStrategies(plants)) {
+                tournament.addPlantStrategy(strategy);
+            }
+            for (List<String> strategy : parseStrategies(zombies)) {
+                tournament.addZombieStrategy(strategy);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Estrategia inválida: " + e.getMessage());
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        TournamentResult result;
+        try {
+            result = tournament.run(matches, seed, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        int total = 0;
+        for (TournamentResult.Pairing pairing : result.getPairings()) {
+            total += pairing.getMatches();
+            System.out.printf("plantas=%s zombies=%s partidas=%d victorias=%s%n", pairing.getPlantStrategy(),
+                    pairing.getZombieStrategy(), pairing.getMatches(), pairing.getWins());
+            print("  puntaje plantas", pairing.getPlantsScores());
+            print("  puntaje zombies", pairing.getZombiesScores());
+            print("  duración (s)", pairing.getDurations());
+        }
+        double wallSeconds = result.getWallTimeNanos() / 1e9;
+        System.out.printf("%d partidas en %.2fs con %d hilos (%.1f partidas/s), semilla %d%n", total, wallSeconds,
+                threads, total / wallSeconds, seed);
+    }
+
+    private static void print(String label, TournamentResult.Distribution distribution) {
+        System.out.printf("%s: media=%.1f desv=%.1f min=%.0f max=%.0f histograma=%s%n", label,
+                distribution.getMean(), distribution.getStandardDeviation(), distribution.getMin(),
+                distribution.getMax(), distribution.getHistogram());
+    }
+
+    // "A,B;C" -> [[A, B], [C]]
+    private static List<List<String>> parseStrategies(String text) {
+        return Arrays.stream(text.split(";")).map(strategy -> Arrays.asList(strategy.split(","))).toList();
+    }
+}
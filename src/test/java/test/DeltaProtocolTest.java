@@ -0,0 +1,57 @@
+package test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static test.TestSupport.describe;
+import org.junit.jupiter.api.Test;
+
+import domain.BoardSnapshot;
+import domain.DeltaReceiver;
+import domain.DeltaSender;
+import domain.POOBvsZombies;
+import domain.SimulationEngine;
+
+/**
+ * Pruebas del protocolo binario de deltas.
+ */
+public class DeltaProtocolTest {
+    @Test
+    public void testDeltaSyncRebuildsTheBoardWithinBandwidth() throws Exception {
+        ArrayList<String> plants = new ArrayList<>(List.of("Peashooter"));
+        ArrayList<String> zombies = new ArrayList<>(List.of("Basic"));
+        POOBvsZombies match = new POOBvsZombies(60, "Plants", plants, 500, "Zombies", 500, zombies);
+        match.setSeed(11);
+        match.placeLawnmowers();
+        for (int row = 0; row < 5; row++) {
+            match.addEntity(row, 2, "Peashooter");
+            for (int i = 0; i < 20; i++) {
+                match.addEntity(row, 9, "Basic");
+            }
+        }
+        SimulationEngine engine = match.getSimulationEngine();
+        DeltaSender sender = new DeltaSender();
+        DeltaReceiver receiver = new DeltaReceiver();
+        receiver.receive(ByteBuffer.wrap(sender.encode(engine.snapshot())));
+        sender.ack(receiver.getAck());
+        long fullBytes = sender.getBytes();
+        for (int tick = 1; tick <= 180; tick++) {
+            engine.tick(SimulationEngine.FIXED_STEP);
+            BoardSnapshot snapshot = engine.snapshot();
+            byte[] packet = sender.encode(snapshot);
+            if (tick % 7 == 0) {
+                continue; // Paquete perdido: el siguiente se aplica sobre la última confirmada
+            }
+            BoardSnapshot copy = receiver.receive(ByteBuffer.wrap(packet));
+            assertEquals(describe(snapshot), describe(copy));
+            sender.ack(receiver.getAck());
+        }
+        assertEquals(100, engine.snapshot().getZombies().size());
+        // 180 ticks son 6 segundos de partida
+        double bytesPerSecond = (sender.getBytes() - fullBytes) / 6.0;
+        assertTrue(bytesPerSecond < 4096, bytesPerSecond + " B/s");
+    }
+}
@@ -0,0 +1,98 @@
+package test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import domain.Log;
+import domain.MatchContext;
+import domain.POOBvsZombies;
+import domain.POOBvsZombiesException;
+
+/**
+ * Pruebas del registro de errores asíncrono.
+ */
+public class LogTest {
+    @Test
+    public void testLogCollapsesRepeatedErrors(@TempDir Path dir) throws Exception {
+        String previous = Log.getPath();
+        Log.setPath(dir.resolve("errors.log").toString());
+        try {
+            for (int i = 0; i < 3; i++) {
+                new POOBvsZombiesException(POOBvsZombiesException.INVALID_INPUTS);
+            }
+            assertTrue(Log.flush(5000));
+            List<String> lines = Files.readAllLines(dir.resolve("errors.log"));
+            // Una sola línea JSON con la traza completa y el contador de repeticiones
+            assertEquals(1, lines.size());
+            assertTrue(lines.get(0).startsWith("{\"time\":"));
+            assertTrue(lines.get(0).contains("\"repeat\":3"));
+            assertTrue(lines.get(0).contains("\"stack\":["));
+        } finally {
+            Log.setPath(previous);
+        }
+    }
+
+    @Test
+    public void testLogRecordsMatchOutsideTick(@TempDir Path dir) throws Exception {
+        String previous = Log.getPath();
+        Log.setPath(dir.resolve("errors.log").toString());
+        POOBvsZombies game = new POOBvsZombies(1, 3, 300, 300, 0x2aL);
+        try {
+            // Como la interfaz: la acción del jugador asocia la partida al hilo
+            MatchContext before = game.getContext().enter();
+            try {
+                new POOBvsZombiesException(POOBvsZombiesException.NO_PLANT_TO_REMOVE);
+            } finally {
+                MatchContext.leave(before);
+            }
+            assertNull(MatchContext.current());
+            Log.record(new IOException("disk full"), game);
+            // Ya registrada al crearse (sin partida): la interfaz no la repite
+            POOBvsZombiesException own = new POOBvsZombiesException(POOBvsZombiesException.INVALID_INPUTS);
+            Log.record(own, game);
+            assertTrue(Log.flush(5000));
+            List<String> lines = Files.readAllLines(dir.resolve("errors.log"));
+            assertEquals(3, lines.size());
+            assertEquals(2, lines.stream().filter(line -> line.contains("\"match\":\"2a\"")).count());
+        } finally {
+            Log.setPath(previous);
+        }
+    }
+
+    @Test
+    public void testLogConcurrentFlushesAllComplete(@TempDir Path dir) throws Exception {
+        String previous = Log.getPath();
+        Log.setPath(dir.resolve("errors.log").toString());
+        try {
+            // Cada hilo registra su propio error y espera a que esté escrito
+            ExecutorService threads = Executors.newFixedThreadPool(4);
+            List<Future<Boolean>> flushed = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                String message = "flush " + i;
+                flushed.add(threads.submit(() -> {
+                    Log.record(new IOException(message), (MatchContext) null);
+                    return Log.flush(5000);
+                }));
+            }
+            for (Future<Boolean> result : flushed) {
+                assertTrue(result.get());
+            }
+            threads.shutdown();
+            assertEquals(4, Files.readAllLines(dir.resolve("errors.log")).size());
+        } finally {
+            Log.setPath(previous);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static test.TestSupport.describe;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import domain.MatchCheckpoint;
+import domain.MatchEventLog;
+import domain.MatchRecording;
+import domain.MatchReplay;
+import domain.MatchResult;
+import domain.MatchRunner;
+import domain.POOBvsZombies;
+import domain.SimulationEngine;
+
+/**
+ * Pruebas de los puntos de guardado, las repeticiones y la exportación de eventos.
+ */
+public class MatchCheckpointTest {
+    @Test
+    public void testMatchCheckpointRestoresRunningMatch(@TempDir Path dir) throws Exception {
+        POOBvsZombies original = new POOBvsZombies(1, 3, 300, 300, 11L);
+        original.placeLawnmowers();
+        for (int i = 0; i < 1200; i++) {
+            original.getSimulationEngine().tick(SimulationEngine.FIXED_STEP);
+        }
+        Path file = dir.resolve("match.pvz");
+        MatchCheckpoint.save(original, file);
+        POOBvsZombies loaded = MatchCheckpoint.load(file);
+        assertFalse(loaded.getSimulationEngine().snapshot().getZombies().isEmpty());
+        assertEquals(describe(original.getSimulationEngine().snapshot()), describe(loaded.getSimulationEngine().snapshot()));
+
+        // Ambas siguen exactamente igual, incluido el azar
+        for (int i = 0; i < 900; i++) {
+            original.getSimulationEngine().tick(SimulationEngine.FIXED_STEP);
+            loaded.getSimulationEngine().tick(SimulationEngine.FIXED_STEP);
+        }
+        assertEquals(describe(original.getSimulationEngine().snapshot()), describe(loaded.getSimulationEngine().snapshot()));
+        assertEquals(original.getWinner(), loaded.getWinner());
+
+        // Un archivo de la versión 1 guarda otro estado del azar y se rechaza
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putShort(4, (short) 1);
+        Path old = dir.resolve("old.pvz");
+        Files.write(old, bytes);
+        assertThrows(IOException.class, () -> MatchCheckpoint.load(old));
+    }
+
+    @Test
+    public void testMatchCheckpointSkipsRecordsFromNewerVersions(@TempDir Path dir) throws Exception {
+        POOBvsZombies original = new POOBvsZombies(1, 3, 300, 300, 5L);
+        for (int i = 0; i < 600; i++) {
+            original.getSimulationEngine().tick(SimulationEngine.FIXED_STEP);
+        }
+        Path file = dir.resolve("match.pvz");
+        MatchCheckpoint.save(original, file);
+        byte[] bytes = Files.readAllBytes(file);
+
+        // Una versión posterior con un registro que esta no conoce justo después de la cabecera
+        ByteBuffer newer = ByteBuffer.allocate(bytes.length + 8);
+        newer.put(bytes, 0, 6).putShort(4, (short) (MatchCheckpoint.VERSION + 1));
+        newer.put((byte) 99).putInt(3).put(new byte[] {1, 2, 3});
+        newer.put(bytes, 6, bytes.length - 6);
+        Path future = dir.resolve("future.pvz");
+        Files.write(future, newer.array());
+        POOBvsZombies loaded = MatchCheckpoint.load(future);
+        assertEquals(describe(original.getSimulationEngine().snapshot()), describe(loaded.getSimulationEngine().snapshot()));
+    }
+
+    @Test
+    public void testMatchCheckpointRejectsDamagedFiles(@TempDir Path dir) throws Exception {
+        POOBvsZombies original = new POOBvsZombies(1, 3, 300, 300, 5L);
+        original.placeLawnmowers();
+        for (int i = 0; i < 600; i++) {
+            original.getSimulationEngine().tick(SimulationEngine.FIXED_STEP);
+        }
+        Path file = dir.resolve("match.pvz");
+        MatchCheckpoint.save(original, file);
+        byte[] bytes = Files.readAllBytes(file);
+
+        // Cortado a la mitad
+        Path truncated = dir.resolve("truncated.pvz");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows(IOException.class, () -> MatchCheckpoint.load(truncated));
+
+        // Un registro que dice medir más que el archivo no se reserva
+        byte[] huge = bytes.clone();
+        ByteBuffer.wrap(huge).putInt(7, Integer.MAX_VALUE);
+        Path oversized = dir.resolve("oversized.pvz");
+        Files.write(oversized, huge);
+        assertThrows(IOException.class, () -> MatchCheckpoint.load(oversized));
+
+        // Cualquier byte alterado carga o falla con IOException, nunca con otra excepción
+        Path damaged = dir.resolve("damaged.pvz");
+        for (int i = 6; i < bytes.length; i += 5) {
+            byte[] copy = bytes.clone();
+            copy[i] ^= (byte) 0xA5;
+            Files.write(damaged, copy);
+            try {
+                MatchCheckpoint.load(damaged);
+            } catch (IOException expected) {
+                // Rechazado como punto de guardado dañado
+            }
+        }
+    }
+
+    @Test
+    public void testMatchReplayReproducesRecordedInputs(@TempDir Path dir) throws Exception {
+        POOBvsZombies original = new POOBvsZombies(1, 3, 300, 300, 21L);
+        original.placeLawnmowers();
+        original.startRecording();
+        String atTick700 = null;
+        for (int i = 0; i < 1500; i++) {
+            if (i == 30) {
+                assertTrue(original.buyEntity(2, 1, "Peashooter"));
+            } else if (i == 90) {
+                assertTrue(original.buyEntity(4, original.getBoard().getEntryColumn(), "Conehead"));
+            } else if (i == 400) {
+                original.deleteEntity(2, 1);
+            } else if (i == 700) {
+                atTick700 = describe(original.getSimulationEngine().snapshot());
+            }
+            original.getSimulationEngine().tick(SimulationEngine.FIXED_STEP);
+        }
+        Path file = dir.resolve("match.pvzr");
+        original.stopRecording().save(file);
+
+        MatchReplay replay = new MatchReplay(MatchRecording.load(file));
+        assertEquals(3, replay.getInputCount());
+        replay.seek(1500);
+        String atEnd = describe(original.getSimulationEngine().snapshot());
+        assertEquals(atEnd, describe(replay.getGame().getSimulationEngine().snapshot()));
+
+        // Volver atrás parte de un cuadro clave y reaplica las acciones desde ahí
+        replay.seek(700);
+        assertEquals(atTick700, describe(replay.getGame().getSimulationEngine().snapshot()));
+        replay.seek(1500);
+        assertEquals(atEnd, describe(replay.getGame().getSimulationEngine().snapshot()));
+    }
+
+    @Test
+    public void testMatchEventLogExportsCompressedEvents(@TempDir Path dir) throws Exception {
+        MatchRunner runner = new MatchRunner(1, 3, 300, 300);
+        runner.setEventsDirectory(dir);
+        MatchResult result = runner.run(11L);
+        Path file = dir.resolve("match-11.ndjson.gz");
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            reader.lines().forEach(lines::add);
+        }
+        assertTrue(lines.stream().allMatch(line -> line.startsWith("{\"tick\":") && line.endsWith("}")));
+        for (String event : new String[] {MatchEventLog.STATE, MatchEventLog.PHASE, MatchEventLog.PLANT,
+                MatchEventLog.SPAWN, MatchEventLog.SHOT, MatchEventLog.DAMAGE, MatchEventLog.PICKUP,
+                MatchEventLog.SCORE, MatchEventLog.END}) {
+            assertTrue(lines.stream().anyMatch(line -> line.contains("\"event\":\"" + event + "\"")), event);
+        }
+        assertTrue(lines.get(lines.size() - 1).contains("\"value\":" + result.getZombiesScore()));
+    }
+}
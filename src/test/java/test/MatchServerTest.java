@@ -0,0 +1,176 @@
+package test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import domain.BoardSnapshot;
+import domain.EntitySnapshot;
+import domain.MatchConnection;
+import domain.MatchDelta;
+import domain.MatchClient;
+import domain.MatchHost;
+import domain.MatchInput;
+import domain.MatchListener;
+import domain.MatchServer;
+import domain.MatchSession;
+
+/**
+ * Pruebas del servidor de partidas y del host en red.
+ */
+public class MatchServerTest {
+    @Test
+    public void testMatchServerTicksManyMatchesOnASharedPool() throws Exception {
+        ArrayList<String> plants = new ArrayList<>(List.of("Sunflower", "Peashooter"));
+        ArrayList<String> zombies = new ArrayList<>(List.of("Basic"));
+        try (MatchServer server = new MatchServer(4)) {
+            for (int i = 0; i < 64; i++) {
+                server.open(60, "Plants", plants, 100, "Zombies", 300, zombies);
+            }
+            MatchSession session = server.getSessions().get(0);
+            // Copia del tablero que arma el cliente solo con los deltas
+            Map<Integer, EntitySnapshot> copy = new ConcurrentHashMap<>();
+            List<String> rejected = new CopyOnWriteArrayList<>();
+            CountDownLatch spawned = new CountDownLatch(2);
+            MatchListener client = new MatchListener() {
+                @Override
+                public void stateChanged(MatchDelta delta) {
+                    for (EntitySnapshot entity : delta.getSpawned()) {
+                        copy.put(entity.getId(), entity);
+                        if (entity.getName().equals("Sunflower") || entity.getName().equals("Basic")) {
+                            spawned.countDown();
+                        }
+                    }
+                    for (EntitySnapshot entity : delta.getUpdated()) {
+                        copy.put(entity.getId(), entity);
+                    }
+                    delta.getRemoved().forEach(copy::remove);
+                }
+
+                @Override
+                public void commandRejected(MatchInput command, String reason) {
+                    rejected.add(command.getType());
+                }
+            };
+            MatchConnection plantsPlayer = session.connect(MatchConnection.PLANTS, client);
+            MatchConnection zombiesPlayer = session.connect(MatchConnection.ZOMBIES, client);
+            assertThrows(IllegalStateException.class, () -> zombiesPlayer.shovel(2, 3));
+            plantsPlayer.plant(2, 3, "WallNut"); // No lo eligió el jugador
+            plantsPlayer.plant(2, 3, "Sunflower");
+            zombiesPlayer.zombie(1, "Basic");
+            assertTrue(spawned.await(TestSupport.TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertEquals(List.of("WallNut"), rejected);
+            assertTrue(copy.values().stream().anyMatch(e -> e.getName().equals("Sunflower") && e.getRow() == 2));
+
+            // Un segundo de partida en todas; el ritmo se compara por ticks, no por tiempo de pared
+            assertTrue(TestSupport.await(() -> server.getSessions().stream().allMatch(match -> match.getTicks() >= 30)));
+            long fewest = Long.MAX_VALUE;
+            long most = 0;
+            for (MatchSession match : server.getSessions()) {
+                fewest = Math.min(fewest, match.getTicks());
+                most = Math.max(most, match.getTicks());
+                assertTrue(match.getMaxTickNanos() > 0);
+                assertTrue(match.getMeanLatencyNanos() <= match.getMaxLatencyNanos());
+            }
+            assertEquals(64, server.getSessions().size());
+            // Todas las partidas avanzan al mismo ritmo
+            assertTrue(fewest > 0 && fewest * 2 >= most, fewest + " / " + most);
+        }
+    }
+
+    @Test
+    public void testPlayersJoinAHostOverLocalhost() throws Exception {
+        ArrayList<String> plants = new ArrayList<>(List.of("Sunflower", "Peashooter"));
+        ArrayList<String> zombies = new ArrayList<>(List.of("Basic"));
+        try (MatchServer server = new MatchServer(2);
+                MatchHost host = new MatchHost(server, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            MatchSession session = server.open(60, "Plants", plants, 100, "Zombies", 300, zombies);
+            List<String> rejected = new CopyOnWriteArrayList<>();
+            MatchListener listener = new MatchListener() {
+                @Override
+                public void stateChanged(MatchDelta delta) {
+                }
+
+                @Override
+                public void commandRejected(MatchInput command, String reason) {
+                    rejected.add(command.getType());
+                }
+            };
+            InetSocketAddress address = host.getAddress();
+            List<MatchClient> clients = new ArrayList<>();
+            try {
+                MatchClient plantsPlayer = MatchClient.connect(address, session.getId(), MatchConnection.PLANTS, listener);
+                MatchClient zombiesPlayer = MatchClient.connect(address, session.getId(), MatchConnection.ZOMBIES, null);
+                clients.add(plantsPlayer);
+                clients.add(zombiesPlayer);
+                // Varios espectadores más sobre el mismo hilo de red
+                for (int i = 0; i < 30; i++) {
+                    clients.add(MatchClient.connect(address, session.getId(), MatchConnection.SPECTATOR, null));
+                }
+                assertThrows(IOException.class, () -> MatchClient.connect(address, 999, MatchConnection.PLANTS, null));
+
+                plantsPlayer.plant(2, 3, "WallNut"); // No lo eligió el jugador
+                plantsPlayer.plant(2, 3, "Sunflower");
+                plantsPlayer.flush();
+                zombiesPlayer.zombie(1, "Basic");
+                zombiesPlayer.flush();
+                MatchClient spectator = clients.get(clients.size() - 1);
+                assertTrue(TestSupport.await(() -> !spectator.getLatest().getPlants().isEmpty()
+                        && !spectator.getLatest().getZombies().isEmpty() && !rejected.isEmpty()));
+                BoardSnapshot seen = spectator.getLatest();
+                assertEquals("Sunflower", seen.getPlants().get(0).getName());
+                assertEquals(2, seen.getPlants().get(0).getRow());
+                assertEquals("Basic", seen.getZombies().get(0).getName());
+                assertEquals(100 - 50, seen.getSuns());
+                assertEquals(List.of("WallNut"), rejected);
+                assertEquals(32, host.getConnections());
+                assertEquals(32, session.getConnections().size());
+            } finally {
+                for (MatchClient client : clients) {
+                    client.close();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testHostSurvivesMalformedFrames() throws Exception {
+        ArrayList<String> plants = new ArrayList<>(List.of("Sunflower"));
+        ArrayList<String> zombies = new ArrayList<>(List.of("Basic"));
+        try (MatchServer server = new MatchServer(1);
+                MatchHost host = new MatchHost(server, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            MatchSession session = server.open(60, "Plants", plants, 100, "Zombies", 300, zombies);
+            InetSocketAddress address = host.getAddress();
+            // JOIN de 7 bytes cuyo equipo dice medir casi 2 GB
+            ByteBuffer frame = ByteBuffer.allocate(11).putInt(7).put((byte) 1).put((byte) session.getId())
+                    .put(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07});
+            frame.flip();
+            try (SocketChannel attacker = SocketChannel.open(address)) {
+                while (frame.hasRemaining()) {
+                    attacker.write(frame);
+                }
+                // El host cierra esa conexión sin intentar reservar la cadena
+                assertEquals(-1, attacker.read(ByteBuffer.allocate(64)));
+            }
+            // Y sigue atendiendo a los demás
+            try (MatchClient client = MatchClient.connect(address, session.getId(), MatchConnection.SPECTATOR, null)) {
+                assertNotNull(client.getLatest());
+            }
+        }
+    }
+}
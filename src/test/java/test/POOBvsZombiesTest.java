@@ -1,9 +1,11 @@
 package test;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -12,11 +14,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import domain.Basic;
+import domain.Board;
+import domain.MatchContext;
 import domain.POOBvsZombies;
 import domain.Plant;
+import domain.PlantsIntelligent;
 import domain.Player;
+import domain.SimulationEngine;
 import domain.Sunflower;
+import domain.Team;
 import domain.Zombie;
+import domain.ZombiesOriginal;
 
 /**
  *
@@ -66,6 +74,38 @@ public class POOBvsZombiesTest {
         assertEquals(5, firstPlantCol);
     }
 
+    @Test
+    public void testRowFrontierFollowsRemovalsAndDeaths() {
+        game.addEntity(2, 2, "Peashooter");
+        game.addEntity(2, 5, "Sunflower");
+        game.deleteEntity(2, 5);
+        assertEquals(2, game.getFirstPlantInRow(2));
+        game.deleteEntity(2, 2);
+        assertEquals(-1, game.getFirstPlantInRow(2));
+
+        Zombie front = game.createZombieInstance("Basic");
+        Zombie back = game.createZombieInstance("Basic");
+        game.addEntity(2, 6, back);
+        game.addEntity(2, 4, front);
+        assertSame(front, game.getFirstZombieInRow(2));
+        front.takeDamage(front.getHealth());
+        game.getBoard().updateFrontZombie(2);
+        assertSame(back, game.getFirstZombieInRow(2));
+        game.removeZombiesInRow(2);
+        assertNull(game.getFirstZombieInRow(2));
+    }
+
+    @Test
+    public void testEntryOccupiedUntilZombieLeavesLastColumn() {
+        assertFalse(game.isEntryOccupied(3));
+        Zombie zombie = game.createZombieInstance("Basic");
+        game.addEntity(3, 9, zombie);
+        assertTrue(game.isEntryOccupied(3));
+        assertFalse(game.isEntryOccupied(2));
+        zombie.setX(8);
+        assertFalse(game.isEntryOccupied(3));
+    }
+
     @Test
     public void testGetLawnmowerInRow() {
         // Verificamos si hay cortadora de césped en la fila 0
@@ -74,11 +114,16 @@ public class POOBvsZombiesTest {
     }
 
     @Test
-    public void testGetInstance() {
-        POOBvsZombies instance1 = POOBvsZombies.getInstance();
-        assertNotNull(instance1);
-        POOBvsZombies instance2 = POOBvsZombies.getInstance();
-        assertSame(instance1, instance2);
+    public void testEachGameHasItsOwnContext() {
+        POOBvsZombies other = new POOBvsZombies(1, 2, 50, 50, PlantsIntelligent.DEFAULT_PLANTING_ORDER,
+                ZombiesOriginal.DEFAULT_ZOMBIE_TYPES);
+        assertNotNull(game.getContext());
+        assertNotSame(game.getContext(), other.getContext());
+        assertNotSame(game.getBoard(), other.getBoard());
+        assertNotSame(game.getSimulationEngine().getClock(), other.getSimulationEngine().getClock());
+        // Fuera de un tick ningún contexto queda asociado al hilo
+        other.getSimulationEngine().tick(SimulationEngine.FIXED_STEP);
+        assertNull(MatchContext.current());
     }
 
     @Test
@@ -172,10 +217,25 @@ public class POOBvsZombiesTest {
     }
 
     @Test
-    public void testGetEntitiesMatrix() {
-        ArrayList<ArrayList<Object>> entitiesMatrix = game.getEntitiesMatrix();
-        assertNotNull(entitiesMatrix);
-        assertEquals(5, entitiesMatrix.size());
+    public void testGetBoard() {
+        Board board = game.getBoard();
+        assertNotNull(board);
+        assertEquals(5, board.getRows());
+        assertEquals(10, board.getColumns());
+    }
+
+    @Test
+    public void testBoardKeepsZombiesSortedByX() {
+        Zombie back = game.createZombieInstance("Basic");
+        Zombie front = game.createZombieInstance("Conehead");
+        game.addEntity(4, 9, back);
+        game.addEntity(4, 3, front);
+        Board board = game.getBoard();
+        assertSame(front, board.getFrontZombie(4));
+        assertSame(back, board.getFirstZombieAhead(4, 5));
+        assertTrue(board.hasZombieBeyond(4, 8));
+        assertFalse(board.hasZombieBeyond(4, 9));
+        assertEquals("Conehead", game.getEntity(4, 9));
     }
 
     @Test
@@ -192,13 +252,61 @@ public class POOBvsZombiesTest {
     //     assertSame(mockGardenMenu, game.getGardenMenu());
     // }
 
-    // no trabaja por el updateEntityLabelScore
-    // @Test
-    // public void testRemoveZombiesInRow() {
-    //     Zombie zombie = game.createZombieInstance("Basic");
-    //     game.addEntity(0, 9, zombie);
-    //     game.removeZombiesInRow(0);
-    //     String entityName = game.getEntity(0, 9);
-    //     assertNull(entityName);
-    // }
-}
\ No newline at end of file
+    @Test
+    public void testRemoveZombiesInRow() {
+        Zombie zombie = game.createZombieInstance("Basic");
+        game.addEntity(0, 9, zombie);
+        game.removeZombiesInRow(0);
+        String entityName = game.getEntity(0, 9);
+        assertNull(entityName);
+    }
+
+    @Test
+    public void testTeamTryDeductNeverOverspends() throws InterruptedException {
+        Team team = game.getPlayerOne().getTeam();
+        team.setResourceCounter(1000);
+        AtomicInteger purchases = new AtomicInteger();
+        Thread[] buyers = new Thread[8];
+        for (int i = 0; i < buyers.length; i++) {
+            buyers[i] = new Thread(() -> {
+                for (int j = 0; j < 100; j++) {
+                    if (team.tryDeduct(25)) {
+                        purchases.incrementAndGet();
+                    }
+                }
+            });
+            buyers[i].start();
+        }
+        for (Thread buyer : buyers) {
+            buyer.join();
+        }
+        // 1000 soles alcanzan exactamente para 40 compras de 25
+        assertEquals(40, purchases.get());
+        assertEquals(0, team.getResourceCounterAmount());
+        assertFalse(team.tryDeduct(25));
+        assertThrows(IllegalArgumentException.class, () -> team.deductResource(25));
+    }
+
+    @Test
+    public void testMachinePlayerWaitsForResources() {
+        POOBvsZombies machines = new POOBvsZombies(1, 3, 0, 0, 1L);
+        PlantsIntelligent plants = (PlantsIntelligent) machines.getPlayerOne();
+        Team team = plants.getTeam();
+        int[] changes = new int[1];
+        team.addResourceListener((changed, previous, current) -> changes[0]++);
+
+        // Sin soles no planta y queda esperando por el girasol
+        plants.act(machines, PlantsIntelligent.PLANTING_INTERVAL);
+        assertTrue(plants.isWaitingForResources());
+        plants.act(machines, PlantsIntelligent.PLANTING_INTERVAL);
+        assertNull(machines.getBoard().getPlant(0, 1));
+
+        // Al llegar los soles despierta y planta en el siguiente tick
+        team.add(50);
+        assertFalse(plants.isWaitingForResources());
+        plants.act(machines, SimulationEngine.FIXED_STEP);
+        assertNotNull(machines.getBoard().getPlant(0, 1));
+        assertEquals(0, team.getResourceCounterAmount());
+        assertEquals(2, changes[0]);
+    }
+}
@@ -0,0 +1,108 @@
+package test;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+import javax.swing.ImageIcon;
+import javax.swing.JComponent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import domain.BoardSnapshot;
+import domain.EntitySnapshot;
+import domain.POOBvsZombies;
+import presentation.GameCanvas;
+import presentation.ProjectileOverlay;
+import presentation.SpriteCache;
+
+/**
+ * Pruebas de la caché de imágenes y de las capas de dibujo, sin mostrar ventanas.
+ */
+public class PresentationTest {
+    private static final String PEA = "resources/images/pea.png";
+
+    @Test
+    public void testSpriteCacheCountsHitsAndMisses() {
+        // Un tamaño que ninguna ventana usa, para que la primera búsqueda sea un fallo
+        long hits = SpriteCache.getHits();
+        long misses = SpriteCache.getMisses();
+        ImageIcon first = SpriteCache.getIcon(PEA, 37, 41);
+        assertEquals(misses + 1, SpriteCache.getMisses());
+        assertEquals(hits, SpriteCache.getHits());
+        assertEquals(37, first.getIconWidth());
+        assertEquals(41, first.getIconHeight());
+
+        // La misma ruta y tamaño reutilizan el mismo ImageIcon
+        assertSame(first, SpriteCache.getIcon(PEA, 37, 41));
+        assertSame(first.getImage(), SpriteCache.getImage(PEA, 37, 41));
+        assertEquals(hits + 2, SpriteCache.getHits());
+        assertEquals(misses + 1, SpriteCache.getMisses());
+
+        // Otro tamaño es otra entrada
+        assertNotSame(first, SpriteCache.getIcon(PEA, 41, 37));
+        assertEquals(misses + 2, SpriteCache.getMisses());
+        assertTrue(SpriteCache.describe().startsWith("sprites "));
+    }
+
+    @Test
+    public void testProjectileOverlayDrawsPeasAheadByLag() {
+        ProjectileOverlay overlay = new ProjectileOverlay(30, 40, 115, 80, 100);
+        overlay.setSize(900, 600);
+        // Guisante en la fila 1, columna 2, que avanza 2 columnas por segundo
+        EntitySnapshot pea = new EntitySnapshot(1, "Pea", 1, 2, 2.0, 2.0, 0, true);
+
+        overlay.setProjectiles(List.of(pea), 0);
+        BufferedImage now = paint(overlay);
+        assertTrue(isDrawn(now, 40 + 2 * 80 + 15, 115 + 100 + 15));
+
+        // Medio segundo después está una columna más adelante
+        overlay.setProjectiles(List.of(pea), 0.5);
+        BufferedImage later = paint(overlay);
+        assertFalse(isDrawn(later, 40 + 2 * 80 + 15, 115 + 100 + 15));
+        assertTrue(isDrawn(later, 40 + 3 * 80 + 15, 115 + 100 + 15));
+
+        overlay.clear();
+        assertFalse(isDrawn(paint(overlay), 40 + 3 * 80 + 15, 115 + 100 + 15));
+        // No le quita el ratón a las celdas de abajo
+        assertFalse(overlay.contains(40 + 3 * 80 + 15, 115 + 100 + 15));
+    }
+
+    @Test
+    public void testGameCanvasWaitsUntilShown() {
+        GameCanvas canvas = new GameCanvas("resources/images/gardenPvsP.png");
+        BoardSnapshot snapshot = new POOBvsZombies(1, 3, 50, 50, 1L).getSimulationEngine().snapshot();
+        // Sin tamaño ni pantalla no dibuja ni mide fotogramas
+        canvas.render(snapshot, 0);
+        canvas.setSize(900, 600);
+        canvas.render(snapshot, 0);
+        assertEquals(0, canvas.getFrameMillis());
+        assertEquals(0, canvas.getFps());
+        assertFalse(canvas.contains(10, 10));
+
+        // Mientras tanto se pinta el fondo
+        BufferedImage image = paint(canvas);
+        assertTrue(isDrawn(image, 450, 300));
+    }
+
+    private static BufferedImage paint(JComponent component) {
+        BufferedImage image = new BufferedImage(component.getWidth(), component.getHeight(),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            component.paint(g);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private static boolean isDrawn(BufferedImage image, int x, int y) {
+        return (image.getRGB(x, y) >>> 24) != 0;
+    }
+}
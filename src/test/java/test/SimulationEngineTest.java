@@ -0,0 +1,293 @@
+package test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import domain.BoardSnapshot;
+import domain.GameClock;
+import domain.POOBvsZombies;
+import domain.Resource;
+import domain.ResourceGenerator;
+import domain.ResourcePool;
+import domain.SimulationEngine;
+import domain.SimulationThreads;
+import domain.TimingWheel;
+import domain.Zombie;
+
+/**
+ * Pruebas del SimulationEngine, su TimingWheel y el GameClock.
+ */
+public class SimulationEngineTest {
+    private static final int HORDE = 10_000;
+    private static final int PER_ZOMBIE_SAMPLE = 1_000; // Hilos del modelo anterior con los que se compara
+    private static final long MAX_HEAP_BYTES = 64L * 1024 * 1024;
+
+    private POOBvsZombies game;
+
+    @BeforeEach
+    public void setUp() {
+        ArrayList<String> plants = new ArrayList<>(List.of("Sunflower", "Peashooter"));
+        ArrayList<String> zombies = new ArrayList<>(List.of("Basic", "Conehead"));
+        game = new POOBvsZombies(300, "PlayerOne", plants, 100, "PlayerTwo", 100, zombies);
+    }
+
+    private void simulate(double seconds) {
+        SimulationEngine engine = game.getSimulationEngine();
+        for (int i = 0; i < (int) (seconds / SimulationEngine.FIXED_STEP); i++) {
+            engine.tick(SimulationEngine.FIXED_STEP);
+        }
+    }
+
+    @Test
+    public void testSimulationEngineMovesZombies() {
+        Zombie zombie = game.createZombieInstance("Basic");
+        game.addEntity(0, 9, zombie);
+        simulate(1);
+        assertTrue(zombie.getX() < 9);
+        BoardSnapshot snapshot = game.getSimulationEngine().snapshot();
+        assertEquals(1, snapshot.getZombies().size());
+        assertEquals(zombie.getX(), snapshot.getZombies().get(0).getX());
+        assertEquals(-Zombie.SPEED, snapshot.getZombies().get(0).getVelocity(), 1e-4);
+    }
+
+    @Test
+    public void testSimulationEnginePeashooterKillsZombie() {
+        game.addEntity(2, 1, "Peashooter");
+        Zombie zombie = game.createZombieInstance("Basic");
+        game.addEntity(2, 9, zombie);
+        simulate(20);
+        assertTrue(zombie.isDead());
+        assertNull(game.getEntity(2, 9));
+        assertEquals("Peashooter", game.getEntity(2, 1));
+    }
+
+    @Test
+    public void testSimulationEngineCollectsGeneratedResources() {
+        game.addEntity(1, 1, "Sunflower");
+        simulate(ResourceGenerator.GENERATION_TIME + 1);
+        int suns = game.getPlayerOne().getTeam().getResourceCounterAmount();
+        assertTrue(game.getSimulationEngine().snapshot().getResources().stream()
+                .anyMatch(resource -> resource.getRow() == 1 && resource.getCol() == 1));
+        simulate(Resource.COLLECT_TIME);
+        assertTrue(game.getPlayerOne().getTeam().getResourceCounterAmount() >= suns + 25);
+    }
+
+    @Test
+    public void testSimulationEngineLawnmowerClearsRow() {
+        game.addEntity(3, 0, "LownMover");
+        game.addEntity(3, 9, game.createZombieInstance("Basic"));
+        simulate(25);
+        assertFalse(game.getSimulationEngine().isGameOver());
+        assertFalse(game.hasLawnmower(3));
+        assertNull(game.getEntity(3, 9));
+
+        game.addEntity(3, 9, game.createZombieInstance("Basic"));
+        simulate(25);
+        assertTrue(game.getSimulationEngine().isGameOver());
+    }
+
+    @Test
+    public void testSimulationEngineTicksSeveralStepsAtOnce() {
+        ArrayList<String> plants = new ArrayList<>(List.of("Sunflower"));
+        ArrayList<String> zombies = new ArrayList<>(List.of("Basic"));
+        POOBvsZombies stepwise = new POOBvsZombies(300, "PlayerOne", plants, 100, "PlayerTwo", 100, zombies);
+        POOBvsZombies doubled = new POOBvsZombies(300, "PlayerOne", plants, 100, "PlayerTwo", 100, zombies);
+        stepwise.setSeed(3);
+        doubled.setSeed(3);
+        stepwise.addEntity(1, 1, "Sunflower");
+        doubled.addEntity(1, 1, "Sunflower");
+        SimulationEngine one = stepwise.getSimulationEngine();
+        SimulationEngine two = doubled.getSimulationEngine();
+        assertThrows(IllegalArgumentException.class, () -> two.tick(1.5 * SimulationEngine.FIXED_STEP));
+        assertThrows(IllegalArgumentException.class, () -> two.tick(0));
+
+        // El girasol genera en el mismo tick aunque el motor avance de a dos pasos
+        long due = Math.round(ResourceGenerator.GENERATION_TIME / SimulationEngine.FIXED_STEP);
+        while (two.getTickCount() < due + 2) {
+            one.tick(SimulationEngine.FIXED_STEP);
+            one.tick(SimulationEngine.FIXED_STEP);
+            two.tick(2 * SimulationEngine.FIXED_STEP);
+            assertEquals(one.getTickCount(), two.getTickCount());
+            assertEquals(TestSupport.describe(one.snapshot()), TestSupport.describe(two.snapshot()));
+            boolean generated = two.snapshot().getResources().stream()
+                    .anyMatch(resource -> resource.getRow() == 1 && resource.getCol() == 1);
+            if (two.getTickCount() >= due) {
+                assertTrue(generated);
+            }
+        }
+    }
+
+    @Test
+    public void testResourcePoolRecyclesCollectedResources() {
+        POOBvsZombies game = new POOBvsZombies(2, 3, 300, 300, 5L);
+        game.placeLawnmowers();
+        for (int i = 0; i < 3000 && !game.getSimulationEngine().isGameOver(); i++) {
+            game.getSimulationEngine().tick(SimulationEngine.FIXED_STEP);
+        }
+        ResourcePool pool = game.getResourcePool();
+        // Solo se crean tantos recursos como llegan a estar a la vez en el tablero
+        assertTrue(pool.getReused() > pool.getCreated());
+        assertTrue(pool.getCreated() <= 8);
+    }
+
+    @Test
+    public void testTimingWheelFiresEachTimeoutOnItsTick() {
+        TimingWheel wheel = new TimingWheel(100);
+        long[] deadlines = {101, 163, 164, 228, 4196, 5000, 270_000, 300_001};
+        List<TimingWheel.Timeout> timeouts = new ArrayList<>();
+        for (long deadline : deadlines) {
+            TimingWheel.Timeout timeout = new TimingWheel.Timeout(null);
+            wheel.schedule(timeout, deadline);
+            timeouts.add(timeout);
+        }
+        wheel.cancel(timeouts.get(5));
+        assertFalse(timeouts.get(5).isPending());
+        assertEquals(deadlines.length - 1, wheel.size());
+
+        List<TimingWheel.Timeout> due = new ArrayList<>();
+        while (wheel.size() > 0) {
+            due.clear();
+            wheel.advance(due);
+            for (TimingWheel.Timeout timeout : due) {
+                assertEquals(wheel.getCurrent(), timeout.getDeadline());
+                assertFalse(timeout.isPending());
+            }
+        }
+        assertEquals(300_001, wheel.getCurrent());
+    }
+
+    @Test
+    public void testGameClockPausesAndSpeedsUpTheMatch() throws InterruptedException {
+        SimulationEngine engine = game.getSimulationEngine();
+        GameClock clock = engine.getClock();
+        assertThrows(IllegalArgumentException.class, () -> clock.setScale(32));
+        // A 16x pasan 480 ticks por segundo de pared en vez de 30
+        long normal = clock.getStepNanos();
+        clock.setScale(GameClock.MAX_SCALE);
+        assertEquals(normal / GameClock.MAX_SCALE, clock.getStepNanos(), 1);
+
+        clock.pause();
+        engine.start();
+        try {
+            // El bucle queda esperando la reanudación antes de su primer tick
+            Thread loop = engine.getLoopThread();
+            assertTrue(TestSupport.await(() -> loop.getState() == Thread.State.WAITING));
+            assertEquals(0, engine.getTickCount());
+
+            clock.resume();
+            assertTrue(TestSupport.await(() -> engine.getTickCount() > 30));
+        } finally {
+            engine.stop();
+        }
+    }
+
+    @Test
+    public void testSimulationEngineStressTenThousandZombies() throws Exception {
+        int engineThreads = runTenThousandZombies(false);
+        // El modelo anterior, un hilo de plataforma por zombie, con una muestra de la horda
+        int perZombieThreads = runThreadPerZombie(PER_ZOMBIE_SAMPLE);
+        assertTrue(engineThreads <= 1, engineThreads + " hilos");
+        assertTrue(perZombieThreads >= PER_ZOMBIE_SAMPLE, perZombieThreads + " hilos");
+    }
+
+    @Test
+    public void testSimulationEngineStressOnVirtualThread() throws Exception {
+        // Sin Java 21 el modo virtual usa un hilo de plataforma: se prueba igual ese camino
+        try {
+            SimulationThreads.setMode(SimulationThreads.VIRTUAL);
+            assertTrue(runTenThousandZombies(SimulationThreads.isVirtualAvailable()) <= 1);
+        } finally {
+            SimulationThreads.setMode(SimulationThreads.PLATFORM);
+        }
+    }
+
+    /**
+     * Mueve 10 000 zombies con el bucle en tiempo real y comprueba que el hilo sea del
+     * tipo esperado, que la memoria usada no pase de MAX_HEAP_BYTES y que el bucle
+     * termine al detenerlo. Retorna los hilos de plataforma que se agregaron.
+     */
+    private int runTenThousandZombies(boolean virtual) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long heapBefore = usedHeap();
+        int threadsBefore = threads.getThreadCount();
+        for (int i = 0; i < HORDE; i++) {
+            game.addEntity(i % 5, 9, game.createZombieInstance("Basic"));
+        }
+        SimulationEngine engine = game.getSimulationEngine();
+        engine.start();
+        Thread loop = engine.getLoopThread();
+        assertTrue(TestSupport.await(() -> engine.getTickCount() >= 10));
+        int added = threads.getThreadCount() - threadsBefore;
+        long heap = usedHeap() - heapBefore;
+        engine.stop();
+
+        assertFalse(loop.isAlive());
+        assertEquals(virtual, isVirtual(loop));
+        assertEquals(HORDE, engine.snapshot().getZombies().size());
+        assertTrue(heap < MAX_HEAP_BYTES, heap / 1024 + " KB");
+        return added;
+    }
+
+    // Como los antiguos ZombieThreadManager: cada zombie camina en su propio hilo
+    private int runThreadPerZombie(int count) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int threadsBefore = threads.getThreadCount();
+        CountDownLatch started = new CountDownLatch(count);
+        List<Thread> walkers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Zombie zombie = game.createZombieInstance("Basic");
+            Thread walker = new Thread(() -> {
+                started.countDown();
+                try {
+                    while (true) {
+                        zombie.move(SimulationEngine.FIXED_STEP);
+                        Thread.sleep(33);
+                    }
+                } catch (InterruptedException e) {
+                    // Fin del zombie
+                }
+            });
+            walker.setDaemon(true);
+            walker.start();
+            walkers.add(walker);
+        }
+        try {
+            assertTrue(started.await(TestSupport.TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            return threads.getThreadCount() - threadsBefore;
+        } finally {
+            for (Thread walker : walkers) {
+                walker.interrupt();
+            }
+            for (Thread walker : walkers) {
+                walker.join();
+            }
+        }
+    }
+
+    // Memoria del heap en uso tras pedir una recolección
+    private static long usedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // Thread.isVirtual() solo existe desde Java 21
+    private static boolean isVirtual(Thread thread) throws Exception {
+        try {
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
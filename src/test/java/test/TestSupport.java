@@ -0,0 +1,48 @@
+package test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import domain.BoardSnapshot;
+import domain.EntitySnapshot;
+
+/**
+ * Utilidades compartidas por las pruebas.
+ */
+final class TestSupport {
+    // Plazo generoso para lo que depende de otros hilos, para no fallar en una máquina cargada
+    static final long TIMEOUT_SECONDS = 20;
+
+    private TestSupport() {
+    }
+
+    // Estado comparable de una instantánea: fase, recursos, puntajes y cada entidad
+    static String describe(BoardSnapshot snapshot) {
+        StringBuilder text = new StringBuilder();
+        text.append(snapshot.getTick()).append(' ').append(snapshot.getPhaseMessage()).append(' ')
+                .append(snapshot.getSuns()).append(' ').append(snapshot.getBrains()).append(' ')
+                .append(snapshot.getPlantsScore()).append(' ').append(snapshot.getZombiesScore());
+        List<List<EntitySnapshot>> groups = List.of(snapshot.getPlants(), snapshot.getZombies(),
+                snapshot.getProjectiles(), snapshot.getResources());
+        for (List<EntitySnapshot> group : groups) {
+            for (EntitySnapshot entity : group) {
+                text.append(" | ").append(entity.getId()).append(entity.getName()).append('@')
+                        .append(entity.getRow()).append(',').append(entity.getX()).append(':').append(entity.getHealth());
+            }
+        }
+        return text.toString();
+    }
+
+    // Espera hasta que condition se cumpla o venza TIMEOUT_SECONDS; retorna si se cumplió
+    static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+}
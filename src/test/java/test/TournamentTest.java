@@ -0,0 +1,111 @@
+package test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import domain.MatchResult;
+import domain.MatchRunner;
+import domain.SimulationEngine;
+import domain.Tournament;
+import domain.TournamentResult;
+
+/**
+ * Pruebas de las partidas sin interfaz y del torneo de estrategias.
+ */
+public class TournamentTest {
+    @Test
+    public void testMatchRunnerPlaysHeadlessMatch() {
+        // Medio minuto dividido en 2 hordas, más los 20 segundos de plantación
+        MatchResult result = new MatchRunner(0.5f, 2, 50, 50).run();
+        assertFalse(result.getWinner().isEmpty());
+        assertTrue(result.getDuration() <= 50 + SimulationEngine.FIXED_STEP);
+        assertEquals(result.getTicks(), Math.round(result.getDuration() / SimulationEngine.FIXED_STEP));
+    }
+
+    @Test
+    public void testMatchRunnerIsReproducibleFromSeed() {
+        MatchRunner runner = new MatchRunner(1, 3, 50, 50);
+        MatchResult first = runner.run(7L);
+        MatchResult second = runner.run(7L);
+        assertEquals(7L, first.getSeed());
+        assertEquals(first.getWinner(), second.getWinner());
+        assertEquals(first.getPlantsScore(), second.getPlantsScore());
+        assertEquals(first.getZombiesScore(), second.getZombiesScore());
+        assertEquals(first.getTicks(), second.getTicks());
+    }
+
+    @Test
+    public void testConcurrentMatchesAreIsolated() throws Exception {
+        MatchRunner runner = new MatchRunner(1, 2, 50, 50);
+        List<Callable<MatchResult>> matches = new ArrayList<>();
+        for (long seed = 0; seed < 64; seed++) {
+            long matchSeed = seed;
+            matches.add(() -> runner.run(matchSeed));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<MatchResult>> results = executor.invokeAll(matches);
+            for (int i = 0; i < 64; i++) {
+                MatchResult concurrent = results.get(i).get();
+                MatchResult alone = runner.run(i);
+                assertEquals(alone.getWinner(), concurrent.getWinner());
+                assertEquals(alone.getPlantsScore(), concurrent.getPlantsScore());
+                assertEquals(alone.getZombiesScore(), concurrent.getZombiesScore());
+                assertEquals(alone.getTicks(), concurrent.getTicks());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testTournamentResultsDoNotDependOnParallelism() {
+        Tournament tournament = new Tournament(1, 2, 50, 50);
+        tournament.addPlantStrategy(List.of("Sunflower", "Peashooter", "WallNut"));
+        tournament.addPlantStrategy(List.of("Peashooter", "WallNut"));
+        tournament.addZombieStrategy(List.of("Basic", "Conehead"));
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            TournamentResult expected = tournament.run(4, 7L, single);
+            TournamentResult actual = tournament.run(4, 7L, parallel);
+            assertEquals(2, actual.getPairings().size());
+            for (int i = 0; i < 2; i++) {
+                TournamentResult.Pairing a = expected.getPairings().get(i);
+                TournamentResult.Pairing b = actual.getPairings().get(i);
+                assertEquals(4, b.getMatches());
+                assertEquals(a.getWins(), b.getWins());
+                assertEquals(a.getPlantsScores().getHistogram(), b.getPlantsScores().getHistogram());
+                assertEquals(a.getDurations().getHistogram(), b.getDurations().getHistogram());
+                assertEquals(a.getZombiesScores().getMean(), b.getZombiesScores().getMean(), 1e-9);
+            }
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    public void testTournamentRejectsUnsupportedStrategies() {
+        Tournament tournament = new Tournament(1, 2, 50, 50);
+        // La máquina no sabe dónde colocar estas plantas, y las otras no existen
+        assertThrows(IllegalArgumentException.class, () -> tournament.addPlantStrategy(List.of("Sunflower", "PotatoMine")));
+        assertThrows(IllegalArgumentException.class, () -> tournament.addPlantStrategy(List.of("ECIPlant")));
+        assertThrows(IllegalArgumentException.class, () -> tournament.addPlantStrategy(List.of("Peashoter")));
+        assertThrows(IllegalArgumentException.class, () -> tournament.addPlantStrategy(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> tournament.addZombieStrategy(List.of("Basic", "Conhead")));
+        assertThrows(IllegalArgumentException.class, () -> tournament.addZombieStrategy(List.of()));
+        assertThrows(IllegalStateException.class, () -> tournament.run(1, 7L));
+    }
+}